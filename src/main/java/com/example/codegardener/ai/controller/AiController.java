@@ -0,0 +1,51 @@
+package com.example.codegardener.ai.controller;
+
+import java.lang.management.ManagementFactory;
+
+import javax.sql.DataSource;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.codegardener.ai.dto.AiStatsDto;
+import com.example.codegardener.ai.service.AiReviewJobService;
+import com.example.codegardener.ai.service.AiStubServer;
+import com.example.codegardener.ai.service.OpenAiClient;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+@RestController
+@RequestMapping("/api/ai")
+@RequiredArgsConstructor
+public class AiController {
+
+    private final OpenAiClient openAiClient;
+    private final AiReviewJobService aiReviewJobService;
+    // stub 프로필(ai.stub.enabled=true)에서만 있음
+    private final ObjectProvider<AiStubServer> aiStubServer;
+    private final DataSource dataSource;
+
+    // AI 호출 현황: 진행 중/대기/실패/재시도/거절 건수, 서킷 상태, 워커/DB 풀 사용량 (관리자 전용, 부하 측정 시 주기적으로 조회)
+    @GetMapping("/stats")
+    public ResponseEntity<AiStatsDto> getStats() {
+        AiStubServer stub = aiStubServer.getIfAvailable();
+        AiStatsDto.AiStatsDtoBuilder stats = AiStatsDto.builder()
+                .client(openAiClient.stats())
+                .workers(aiReviewJobService.workerStats())
+                .stub((stub != null) ? stub.stats() : null)
+                .jvmThreads(ManagementFactory.getThreadMXBean().getThreadCount());
+
+        if (dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            stats.dbActiveConnections(pool.getActiveConnections())
+                    .dbIdleConnections(pool.getIdleConnections())
+                    .dbThreadsAwaitingConnection(pool.getThreadsAwaitingConnection());
+        }
+        return ResponseEntity.ok(stats.build());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.codegardener.ai.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 프롬프트 + 모델 설정이 같은 AI 리뷰 결과 (AiReviewCache 가 INSERT IGNORE 로 저장)
+@Entity
+@Table(
+        name = "ai_review_cache",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ai_review_cache_key", columnNames = "cache_key")
+)
+@Getter
+@NoArgsConstructor
+public class AiReviewCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long aiReviewCacheId;
+
+    // SHA-256(모델 설정 + 프롬프트) hex
+    @Column(name = "cache_key", nullable = false, length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    @Column(nullable = false, columnDefinition = "LONGTEXT")
+    private String review;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,58 @@
+package com.example.codegardener.ai.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 게시물 AI 리뷰 생성 요청 1건. AiReviewJobService 가 작업 큐에 넣고 워커가 상태를 갱신함
+@Entity
+@Table(
+        name = "ai_review_job",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ai_review_job_active_post", columnNames = "active_post_id"),
+        indexes = @Index(name = "idx_ai_review_job_post", columnList = "post_id, ai_review_job_id")
+)
+@Getter
+@NoArgsConstructor
+public class AiReviewJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long aiReviewJobId;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    // 진행 중(QUEUED/RUNNING)인 동안만 post_id, 끝나면 NULL → 게시물당 진행 중 작업이 하나뿐임을 유니크 제약으로 보장
+    @Column(name = "active_post_id")
+    private Long activePostId;
+
+    private Long requestedBy;
+
+    // 사용자가 다시 생성을 요청한 작업 (AI 리뷰 캐시를 읽지 않고 새 결과로 덮어씀)
+    @Column(nullable = false)
+    private boolean regenerate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AiReviewJobStatus status;
+
+    @Column(length = 500)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    // 작업을 큐에 넣거나 실행 중인 인스턴스가 주기적으로 연장하는 소유 기한. 지나면 다른 인스턴스가 회수해 다시 실행
+    private LocalDateTime leaseUntil;
+
+    // 작업을 등록하거나 회수할 때마다 새로 발급하는 소유 토큰. 실행/연장/종료는 이 토큰이 맞을 때만 반영되므로
+    // 기한이 지나 다른 워커에게 넘어간 작업을 옛 워커가 늦게 끝내도 결과를 덮어쓰지 못함
+    @Column(length = 36)
+    private String leaseOwner;
+
+    private LocalDateTime finishedAt;
+}
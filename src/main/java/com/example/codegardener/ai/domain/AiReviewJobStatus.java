@@ -0,0 +1,9 @@
+package com.example.codegardener.ai.domain;
+
+// AI 리뷰 작업 상태 (QUEUED -> RUNNING -> SUCCEEDED / FAILED)
+public enum AiReviewJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
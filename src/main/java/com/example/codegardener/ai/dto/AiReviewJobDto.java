@@ -0,0 +1,35 @@
+package com.example.codegardener.ai.dto;
+
+import com.example.codegardener.ai.domain.AiReviewJob;
+import com.example.codegardener.ai.domain.AiReviewJobStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// AI 리뷰 작업 상태 응답 (SUCCEEDED 이면 GET /api/posts/{id}/ai 로 결과 조회)
+@Getter
+@Builder
+public class AiReviewJobDto {
+
+    private final Long jobId;
+    private final Long postId;
+    private final AiReviewJobStatus status;
+    private final String errorMessage;
+
+    private final LocalDateTime createdAt;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+
+    public static AiReviewJobDto from(AiReviewJob job) {
+        return AiReviewJobDto.builder()
+                .jobId(job.getAiReviewJobId())
+                .postId(job.getPostId())
+                .status(job.getStatus())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.codegardener.ai.dto;
+
+import com.example.codegardener.ai.service.AiReviewJobService;
+import com.example.codegardener.ai.service.AiStubServer;
+import com.example.codegardener.ai.service.OpenAiClient;
+import lombok.Builder;
+import lombok.Getter;
+
+// AI 호출 현황: OpenAI 클라이언트, 리뷰 워커 풀, (stub 프로필이면) 대역 서버, JVM 스레드 수, DB 커넥션 풀
+@Getter
+@Builder
+public class AiStatsDto {
+
+    private final OpenAiClient.Stats client;
+    private final AiReviewJobService.WorkerStats workers;
+    private final AiStubServer.Stats stub;
+
+    private final int jvmThreads;
+    private final Integer dbActiveConnections;
+    private final Integer dbIdleConnections;
+    private final Integer dbThreadsAwaitingConnection;
+}
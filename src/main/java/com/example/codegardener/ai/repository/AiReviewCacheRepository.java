@@ -0,0 +1,68 @@
+package com.example.codegardener.ai.repository;
+
+import com.example.codegardener.ai.domain.AiReviewCacheEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AiReviewCacheRepository extends JpaRepository<AiReviewCacheEntry, Long> {
+
+    // 보관 기간(since 이후 저장) 안의 항목만
+    @Query("SELECT c FROM AiReviewCacheEntry c WHERE c.cacheKey = :cacheKey AND c.createdAt >= :since")
+    Optional<AiReviewCacheEntry> findFresh(@Param("cacheKey") String cacheKey, @Param("since") LocalDateTime since);
+
+    // 같은 프롬프트를 동시에 생성한 경우 먼저 저장된 결과를 유지
+    @Modifying
+    @Transactional
+    @Query(
+            value = """
+        INSERT IGNORE INTO ai_review_cache (cache_key, model, review, created_at)
+        VALUES (:cacheKey, :model, :review, :now)
+        """,
+            nativeQuery = true
+    )
+    int insertIfAbsent(@Param("cacheKey") String cacheKey,
+                       @Param("model") String model,
+                       @Param("review") String review,
+                       @Param("now") LocalDateTime now);
+
+    // 사용자가 다시 생성을 요청한 경우 새 결과로 덮어씀 (보관 기간도 다시 시작)
+    @Modifying
+    @Transactional
+    @Query(
+            value = """
+        INSERT INTO ai_review_cache (cache_key, model, review, created_at)
+        VALUES (:cacheKey, :model, :review, :now)
+        ON DUPLICATE KEY UPDATE model = :model, review = :review, created_at = :now
+        """,
+            nativeQuery = true
+    )
+    int upsert(@Param("cacheKey") String cacheKey,
+               @Param("model") String model,
+               @Param("review") String review,
+               @Param("now") LocalDateTime now);
+
+    // 최근 저장 순 ID (offset 으로 최대 행 수 경계를 찾음)
+    @Query("SELECT c.aiReviewCacheId FROM AiReviewCacheEntry c ORDER BY c.aiReviewCacheId DESC")
+    List<Long> findIdsNewestFirst(Pageable pageable);
+
+    // 보관 기간이 지났거나 최대 행 수 경계(maxEvictId) 이하인 항목
+    @Query("SELECT c.aiReviewCacheId FROM AiReviewCacheEntry c " +
+            "WHERE c.createdAt < :cutoff OR c.aiReviewCacheId <= :maxEvictId ORDER BY c.aiReviewCacheId")
+    List<Long> findEvictableIds(@Param("cutoff") LocalDateTime cutoff,
+                                @Param("maxEvictId") long maxEvictId,
+                                Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AiReviewCacheEntry c WHERE c.aiReviewCacheId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,98 @@
+package com.example.codegardener.ai.repository;
+
+import com.example.codegardener.ai.domain.AiReviewJob;
+import com.example.codegardener.ai.domain.AiReviewJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AiReviewJobRepository extends JpaRepository<AiReviewJob, Long> {
+
+    // 게시물에 진행 중인 작업이 없을 때만 새 작업 등록 (있으면 active_post_id 유니크 제약에 걸려 영향 행 0)
+    @Modifying
+    @Transactional
+    @Query(
+            value = """
+        INSERT IGNORE INTO ai_review_job (post_id, active_post_id, requested_by, regenerate, status, created_at, lease_until, lease_owner)
+        VALUES (:postId, :postId, :requestedBy, :regenerate, 'QUEUED', :now, :leaseUntil, :owner)
+        """,
+            nativeQuery = true
+    )
+    int insertIfNoActive(@Param("postId") Long postId,
+                         @Param("requestedBy") Long requestedBy,
+                         @Param("regenerate") boolean regenerate,
+                         @Param("owner") String owner,
+                         @Param("now") LocalDateTime now,
+                         @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    Optional<AiReviewJob> findByActivePostId(Long postId);
+
+    Optional<AiReviewJob> findFirstByPostIdOrderByAiReviewJobIdDesc(Long postId);
+
+    // 소유 기한이 지난 진행 중 작업 (소유하던 인스턴스가 죽었거나 멈춤. 기한이 없는 것은 이전 버전에서 남은 작업)
+    @Query("SELECT j.aiReviewJobId FROM AiReviewJob j " +
+            "WHERE j.activePostId IS NOT NULL AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)")
+    List<Long> findExpiredActiveIds(@Param("now") LocalDateTime now);
+
+    // 기한이 지난 작업을 새 소유 토큰으로 가져와 대기 상태로 되돌림 (다른 인스턴스가 먼저 가져갔으면 0)
+    @Modifying
+    @Transactional
+    @Query("UPDATE AiReviewJob j SET j.status = :queued, j.startedAt = NULL, j.leaseUntil = :leaseUntil, " +
+            "j.leaseOwner = :owner " +
+            "WHERE j.aiReviewJobId = :jobId AND j.activePostId IS NOT NULL " +
+            "AND (j.leaseUntil IS NULL OR j.leaseUntil < :now)")
+    int claimExpired(@Param("jobId") Long jobId,
+                     @Param("queued") AiReviewJobStatus queued,
+                     @Param("owner") String owner,
+                     @Param("now") LocalDateTime now,
+                     @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 이 인스턴스가 들고 있는 작업의 소유 기한 연장 (끝났거나 다른 워커에게 넘어간 작업은 제외. 토큰은 작업마다 고유)
+    @Modifying
+    @Transactional
+    @Query("UPDATE AiReviewJob j SET j.leaseUntil = :leaseUntil " +
+            "WHERE j.aiReviewJobId IN :jobIds AND j.leaseOwner IN :owners AND j.activePostId IS NOT NULL")
+    int renewLeases(@Param("jobIds") Collection<Long> jobIds,
+                    @Param("owners") Collection<String> owners,
+                    @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 대기 중이고 소유 토큰이 맞는 작업만 실행 상태로 (이미 다른 워커가 가져갔거나 끝난 작업이면 0)
+    @Modifying
+    @Transactional
+    @Query("UPDATE AiReviewJob j SET j.status = :running, j.startedAt = :now, j.leaseUntil = :leaseUntil " +
+            "WHERE j.aiReviewJobId = :jobId AND j.leaseOwner = :owner AND j.status = :queued")
+    int markRunning(@Param("jobId") Long jobId,
+                    @Param("owner") String owner,
+                    @Param("queued") AiReviewJobStatus queued,
+                    @Param("running") AiReviewJobStatus running,
+                    @Param("now") LocalDateTime now,
+                    @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // 종료 처리 (진행 중 표시를 지워 같은 게시물의 다음 요청을 받을 수 있게 함).
+    // 이미 끝났거나 소유 토큰이 다른(기한이 지나 다른 워커에게 넘어간) 작업이면 0
+    @Modifying
+    @Transactional
+    @Query("UPDATE AiReviewJob j SET j.status = :status, j.errorMessage = :errorMessage, " +
+            "j.finishedAt = :now, j.activePostId = NULL, j.leaseUntil = NULL " +
+            "WHERE j.aiReviewJobId = :jobId AND j.leaseOwner = :owner AND j.activePostId IS NOT NULL")
+    int finish(@Param("jobId") Long jobId,
+               @Param("owner") String owner,
+               @Param("status") AiReviewJobStatus status,
+               @Param("errorMessage") String errorMessage,
+               @Param("now") LocalDateTime now);
+
+    // 종료 처리한 같은 트랜잭션 안에서 결과를 실패로 바로잡음 (저장할 게시물이 삭제된 경우)
+    @Modifying
+    @Transactional
+    @Query("UPDATE AiReviewJob j SET j.status = :status, j.errorMessage = :errorMessage WHERE j.aiReviewJobId = :jobId")
+    int updateOutcome(@Param("jobId") Long jobId,
+                      @Param("status") AiReviewJobStatus status,
+                      @Param("errorMessage") String errorMessage);
+}
@@ -3,48 +3,105 @@ package com.example.codegardener.ai.service;
 
 import com.example.codegardener.post.domain.Post;
 import com.example.codegardener.post.repository.PostRepository;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AiFeedbackService {
 
+    private static final String SYSTEM_PROMPT = "You are a professional Korean code reviewer.";
+
     // 게시글 조회용 Repository
     private final PostRepository postRepository;
 
-    // OpenAI 호출용 WebClient
-    private final WebClient.Builder webClientBuilder;
+    // 같은 프롬프트 + 모델 설정의 리뷰 재사용
+    private final AiReviewCache aiReviewCache;
 
-    // Mock 모드 여부 (개발/테스트용)
-    @Value("${ai.mock.enabled:true}")
-    private boolean mockEnabled;
+    // OpenAI 호출 클라이언트
+    private final OpenAiClient openAiClient;
 
-    //OPENAI API key
-    @Value("${ai.openai.api-key:}")
-    private String openAiApiKey;
+    // Mock 모드 여부 (개발/테스트용)
+    private final boolean mockEnabled;
 
     // 사용 모델명
-    @Value("${ai.openai.model:gpt-4o-mini}")
-    private String model;
+    private final String model;
 
     // 응답 다양성 조절 파라미터
-    @Value("${ai.openai.temperature:0.7}")
-    private double temperature;
+    private final double temperature;
 
     // 최대 토큰 수
-    @Value("${ai.openai.max-tokens:800}")
-    private int maxTokens;
+    private final int maxTokens;
+
+    // 코드가 이 토큰 수(추정)를 넘으면 이 크기로 나눠 부분별로 리뷰한 뒤 합침
+    private final int chunkMaxInputTokens;
+
+    // 부분 리뷰 하나의 최대 토큰 수
+    private final int chunkMaxOutputTokens;
 
-    // 게시글 ID 기반 AI 피드백 텍스트를 생성
-    public String generateTextForPost(Long postId) {
+    // 나눌 수 있는 최대 조각 수 (비용 상한)
+    private final int chunkMaxCount;
+
+    // 리뷰 하나가 동시에 호출하는 조각 수 (큰 게시물 하나가 부분 리뷰 자리를 독차지하지 않게)
+    private final int chunkParallelism;
+
+    // 모든 리뷰를 합친 부분 리뷰 동시 호출 수 (리뷰 워커/스트리밍과 합쳐 OpenAiClient bulkhead 를 넘지 않게).
+    // 공정 모드라 먼저 기다린 호출부터 진행되어 여러 리뷰의 조각이 번갈아 처리됨
+    private final Semaphore chunkPermits;
+
+    // 조각 호출용 가상 스레드 (동시 개수는 위 두 제한으로 묶임)
+    private final ExecutorService chunkExecutor;
+
+    public AiFeedbackService(PostRepository postRepository,
+                             AiReviewCache aiReviewCache,
+                             OpenAiClient openAiClient,
+                             @Value("${ai.mock.enabled:true}") boolean mockEnabled,
+                             @Value("${ai.openai.model:gpt-4o-mini}") String model,
+                             @Value("${ai.openai.temperature:0.7}") double temperature,
+                             @Value("${ai.openai.max-tokens:800}") int maxTokens,
+                             @Value("${ai.review.chunk.max-input-tokens:3000}") int chunkMaxInputTokens,
+                             @Value("${ai.review.chunk.max-output-tokens:500}") int chunkMaxOutputTokens,
+                             @Value("${ai.review.chunk.max-chunks:20}") int chunkMaxCount,
+                             @Value("${ai.review.chunk.parallelism:2}") int chunkParallelism,
+                             @Value("${ai.review.chunk.max-concurrent:4}") int chunkMaxConcurrent) {
+        this.postRepository = postRepository;
+        this.aiReviewCache = aiReviewCache;
+        this.openAiClient = openAiClient;
+        this.mockEnabled = mockEnabled;
+        this.model = model;
+        this.temperature = temperature;
+        this.maxTokens = maxTokens;
+        this.chunkMaxInputTokens = chunkMaxInputTokens;
+        this.chunkMaxOutputTokens = chunkMaxOutputTokens;
+        this.chunkMaxCount = chunkMaxCount;
+        this.chunkParallelism = Math.max(1, chunkParallelism);
+        this.chunkPermits = new Semaphore(Math.max(1, chunkMaxConcurrent), true);
+        this.chunkExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ai-chunk-", 1).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        chunkExecutor.shutdownNow();
+    }
+
+    // 게시글 ID 기반 AI 피드백 텍스트를 생성 (regenerate 면 캐시를 읽지 않고 새로 생성해 덮어씀)
+    public String generateTextForPost(Long postId, boolean regenerate) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new IllegalArgumentException("게시물이 존재하지 않습니다."));
         String prompt = buildPrompt(post);
@@ -52,7 +109,62 @@ public class AiFeedbackService {
             log.info("[AI] Mock 모드 활성화 - 실제 API 호출 없이 텍스트 반환");
             return mockResponse();
         }
-        return callOpenAi(prompt);
+
+        String cacheKey = AiReviewCache.keyOf(model, temperature, maxTokens, SYSTEM_PROMPT, prompt);
+        Optional<String> cached = regenerate ? Optional.empty() : aiReviewCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("[AI] review cache hit for postId={}", postId);
+            return cached.get();
+        }
+
+        String review = isLarge(post) ? reviewInChunks(post, regenerate) : callOpenAi(prompt, maxTokens);
+        storeInCache(cacheKey, review, regenerate);
+        return review;
+    }
+
+    // 위와 같되 생성되는 대로 조각(delta) 단위로 흘려보냄. 전체가 끝나면 캐시에 저장
+    public Flux<String> streamTextForPost(Long postId, boolean regenerate) {
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new IllegalArgumentException("게시물이 존재하지 않습니다."));
+        String prompt = buildPrompt(post);
+        if (mockEnabled) {
+            return Flux.fromArray(mockResponse().split("(?<=\\s)"));
+        }
+
+        String cacheKey = AiReviewCache.keyOf(model, temperature, maxTokens, SYSTEM_PROMPT, prompt);
+        Optional<String> cached = regenerate ? Optional.empty() : aiReviewCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("[AI] review cache hit for postId={}", postId);
+            return Flux.just(cached.get());
+        }
+
+        if (isLarge(post)) {
+            // 나눠서 리뷰하는 경우 토큰 단위 스트리밍 대신 완성된 리뷰를 한 번에 보냄
+            return Mono.fromCallable(() -> reviewInChunks(post, regenerate))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .doOnNext(review -> storeInCache(cacheKey, review, regenerate))
+                    .flux();
+        }
+
+        StringBuilder assembled = new StringBuilder();
+        return openAiClient.stream(chatRequest(prompt, maxTokens))
+                // 캐시 저장(DB)이 네트워크 이벤트 루프를 막지 않도록 이후 처리는 별도 스레드에서
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(assembled::append)
+                .doOnComplete(() -> {
+                    if (!assembled.toString().isBlank()) {
+                        storeInCache(cacheKey, assembled.toString().trim(), regenerate);
+                    }
+                });
+    }
+
+    // 다시 생성한 결과는 기존 캐시 항목을 덮어씀
+    private void storeInCache(String cacheKey, String review, boolean regenerate) {
+        if (regenerate) {
+            aiReviewCache.replace(cacheKey, model, review);
+        } else {
+            aiReviewCache.put(cacheKey, model, review);
+        }
     }
 
     // 게시물 정보를 기반으로 OpenAI 요청용 프롬포트 생성
@@ -78,72 +190,157 @@ public class AiFeedbackService {
         );
     }
 
-    // Null Safe 문자열 처리
-    private String safe(String text) {
-        return text == null ? "" : text;
+    // ====================== 큰 코드: 나눠서 리뷰 (map) → 합치기 (reduce) ======================
+
+    private boolean isLarge(Post post) {
+        return CodeChunker.estimateTokens(post.getCode()) > chunkMaxInputTokens;
     }
 
-    // OpenAI API 호출
-    private String callOpenAi(String prompt) {
-        if (openAiApiKey == null || openAiApiKey.isBlank()) {
-            throw new IllegalStateException("OpenAI API 키가 설정되지 않았습니다. (ai.openai.api-key)");
+    // 함수/빈 줄 경계로 나눈 조각을 병렬로 리뷰하고, 행 범위별 리뷰 앞에 전체 총평을 붙임
+    private String reviewInChunks(Post post, boolean regenerate) {
+        List<CodeChunker.Chunk> chunks = CodeChunker.split(post.getCode(), chunkMaxInputTokens);
+        if (chunks.size() > chunkMaxCount) {
+            throw new IllegalArgumentException("코드가 너무 길어 AI 리뷰를 생성할 수 없습니다.");
+        }
+
+        long started = System.currentTimeMillis();
+        List<String> reviews = reviewChunks(post, chunks, regenerate);
+
+        StringBuilder sections = new StringBuilder();
+        for (int i = 0; i < chunks.size(); i++) {
+            CodeChunker.Chunk chunk = chunks.get(i);
+            sections.append("[%d~%d행]\n%s\n\n".formatted(chunk.startLine(), chunk.endLine(), reviews.get(i)));
         }
 
+        String overview = callOpenAi(buildMergePrompt(post, sections.toString()), maxTokens);
+        log.info("[AI] chunked review finished: postId={}, chunks={}, {}ms", post.getPostId(), chunks.size(),
+                System.currentTimeMillis() - started);
+        return "[총평]\n" + overview + "\n\n" + sections.toString().trim();
+    }
+
+    // 조각 리뷰를 원래 순서대로 반환. 이 리뷰의 조각은 chunkParallelism 개까지만 동시에 돌고 하나가 끝나는 대로 다음을 시작
+    // 한 조각이라도 실패하면 남은 조각은 시작하지 않고, 이미 호출 중인 조각은 인터럽트하지 않고 끝나게 둔다
+    // (인터럽트된 호출은 OpenAiClient 가 upstream 실패로 세어 다른 사용자의 호출까지 서킷으로 막을 수 있음.
+    //  끝난 조각은 캐시에 남아 재시도 시 재사용)
+    private List<String> reviewChunks(Post post, List<CodeChunker.Chunk> chunks, boolean regenerate) {
+        String[] reviews = new String[chunks.size()];
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        CompletionService<Integer> completion = new ExecutorCompletionService<>(chunkExecutor);
+        int submitted = 0;
+        int inFlight = 0;
         try {
-            WebClient client = webClientBuilder
-                    .baseUrl("https://api.openai.com/v1")
-                    .defaultHeader("Authorization", "Bearer " + openAiApiKey)
-                    .build();
-
-            String body = """
-                {
-                  "model": "%s",
-                  "messages": [
-                    {"role": "system", "content": "You are a professional Korean code reviewer."},
-                    {"role": "user", "content": "%s"}
-                  ],
-                  "temperature": %.2f,
-                  "max_tokens": %d
+            while (submitted < chunks.size() || inFlight > 0) {
+                while (submitted < chunks.size() && inFlight < chunkParallelism) {
+                    int index = submitted++;
+                    completion.submit(() -> {
+                        reviews[index] = reviewChunkWithPermit(post, chunks.get(index), regenerate, aborted);
+                        return index;
+                    });
+                    inFlight++;
                 }
-                """.formatted(model, escape(prompt), temperature, maxTokens);
-
-            String response = client.post()
-                    .uri("/chat/completions")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(body)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            if (response == null || response.isBlank()) {
-                return "AI 응답이 비어 있습니다.";
+                Future<Integer> done = completion.take();
+                inFlight--;
+                done.get();
             }
+        } catch (ExecutionException e) {
+            aborted.set(true);
+            throw (e.getCause() instanceof RuntimeException cause)
+                    ? cause : new IllegalStateException("AI 피드백 생성 실패: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            aborted.set(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("AI 피드백 생성이 중단되었습니다.", e);
+        }
+        return List.of(reviews);
+    }
 
-            // JSON 파싱 (JSONArray length()로 변경)
-            JSONObject json = new JSONObject(response);
-            JSONArray choices = json.getJSONArray("choices");
-            if (choices.length() == 0)
-                return "AI 응답이 없습니다.";
+    // 전체 부분 리뷰 호출 자리를 얻은 뒤 호출. 기다리는 사이 같은 리뷰의 다른 조각이 실패했으면 호출하지 않음
+    private String reviewChunkWithPermit(Post post, CodeChunker.Chunk chunk, boolean regenerate,
+                                         AtomicBoolean aborted) throws InterruptedException {
+        chunkPermits.acquire();
+        try {
+            if (aborted.get()) return null;
+            return reviewChunk(post, chunk, regenerate);
+        } finally {
+            chunkPermits.release();
+        }
+    }
 
-            JSONObject message = choices.getJSONObject(0).getJSONObject("message");
-            String content = message.optString("content", "AI 응답을 파싱하지 못했습니다.");
+    // 조각 리뷰는 따로 캐시. 프롬프트에 행 번호/조각 순서를 넣지 않아 키가 조각 코드와 게시물 요약/본문만으로 정해지므로,
+    // 위쪽이 바뀌어 행이 밀려도 경계가 그대로인 조각은 다시 호출하지 않음 (경계가 옮겨진 조각은 새로 호출)
+    private String reviewChunk(Post post, CodeChunker.Chunk chunk, boolean regenerate) {
+        String prompt = buildChunkPrompt(post, chunk);
+        String cacheKey = AiReviewCache.keyOf(model, temperature, chunkMaxOutputTokens, SYSTEM_PROMPT, prompt);
+        Optional<String> cached = regenerate ? Optional.empty() : aiReviewCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        String review = callOpenAi(prompt, chunkMaxOutputTokens);
+        storeInCache(cacheKey, review, regenerate);
+        return review;
+    }
 
-            log.info("[AI] Response received successfully for model {}", model);
-            return content.trim();
+    // 위치는 행 번호 대신 이름/인용으로 밝히게 함 (행 범위는 합칠 때 조각 앞에 붙임)
+    private String buildChunkPrompt(Post p, CodeChunker.Chunk chunk) {
+        return """
+        당신은 숙련된 코드 리뷰어입니다.
+        아래는 긴 코드를 여러 부분으로 나눈 것 중 한 부분입니다.
+        이 부분을 읽고 자연스러운 한국어 문장으로 피드백을 작성하세요.
+        문제를 지적할 때는 함수/변수 이름이나 해당 코드를 짧게 인용해 위치를 밝혀 주세요.
+        이 부분에 보이지 않는 선언이나 호출 대상은 다른 부분에 있다고 가정하세요.
 
+        [게시물 요약 / 의도]
+        %s
+
+        [피드백 받고 싶은 부분]
+        %s
+
+        [코드 일부]
+        %s
+        """.formatted(
+                safe(p.getSummary()),
+                safe(p.getContent()),
+                chunk.text()
+        );
+    }
+
+    private String buildMergePrompt(Post p, String sections) {
+        return """
+        당신은 숙련된 코드 리뷰어입니다.
+        아래는 긴 코드를 부분별로 나눠 검토한 리뷰입니다. 이를 바탕으로 코드 전체에 대한 총평을 한국어로 짧게 작성하세요.
+        여러 부분에서 반복되는 문제와 가장 중요한 개선점을 먼저 언급하고, 위치를 말할 때는 부분 리뷰 앞의 행 범위와 이름을 쓰세요.
+
+        [게시물 요약 / 의도]
+        %s
+
+        [부분 리뷰]
+        %s
+        """.formatted(
+                safe(p.getSummary()),
+                sections
+        );
+    }
+
+    // Null Safe 문자열 처리
+    private String safe(String text) {
+        return text == null ? "" : text;
+    }
+
+    // OpenAI API 호출 (타임아웃/재시도/동시 호출 제한은 OpenAiClient 가 처리)
+    private String callOpenAi(String prompt, int maxTokens) {
+        try {
+            String content = openAiClient.complete(chatRequest(prompt, maxTokens));
+            log.info("[AI] Response received successfully for model {}", model);
+            return content;
         } catch (Exception e) {
+            // 실패 문구를 피드백으로 저장하지 않도록 호출 측(AiReviewJobService)에 알림
             log.error("[AI] OpenAI 호출 실패: {}", e.getMessage(), e);
-            return "AI 피드백 생성 실패: " + e.getMessage();
+            throw new IllegalStateException("AI 피드백 생성 실패: " + e.getMessage(), e);
         }
     }
 
-    // JSON 전송용 문자열 이스케이프 처리
-    private String escape(String text) {
-        if (text == null) return "";
-        return text
-                .replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n");
+    private OpenAiClient.ChatRequest chatRequest(String prompt, int maxTokens) {
+        return new OpenAiClient.ChatRequest(model, temperature, maxTokens, SYSTEM_PROMPT, prompt);
     }
 
     // 테스트용 Mock 응답
@@ -0,0 +1,136 @@
+// 같은 프롬프트(요약/본문/코드)와 모델 설정으로 생성한 AI 리뷰를 재사용하는 캐시 (메모리 LRU + ai_review_cache 테이블)
+package com.example.codegardener.ai.service;
+
+import com.example.codegardener.ai.domain.AiReviewCacheEntry;
+import com.example.codegardener.ai.repository.AiReviewCacheRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 키는 SHA-256(모델, temperature, max-tokens, 시스템 프롬프트, 사용자 프롬프트) 이므로
+ * 내용이 바뀌지 않은 재생성이나 다른 게시물의 같은 코드(코딩테스트 풀이 등)는 API 호출 없이 바로 반환된다.
+ * 설정이 바뀌면 키도 바뀌어 자연히 새로 생성된다.
+ * 부하 측정처럼 매번 실제로 호출해야 할 때는 ai.review-cache.enabled=false 로 끈다.
+ *
+ * 항목은 ttl-days 동안만 사용하고, 매일 정리 작업이 기간이 지난 행과 최근 max-rows 개를 넘는 오래된 행을 지운다.
+ * 사용자가 명시적으로 다시 생성하면 캐시를 읽지 않고 새 결과로 덮어쓴다 (replace).
+ */
+@Slf4j
+@Component
+public class AiReviewCache {
+
+    private static final int CLEANUP_BATCH = 1000;
+
+    // 메모리 항목 (DB 저장 시각 기준으로 보관 기간 판단)
+    private record Entry(String review, LocalDateTime createdAt) {
+    }
+
+    private final AiReviewCacheRepository aiReviewCacheRepository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int maxRows;
+
+    // cacheKey -> 리뷰 본문 (DB 앞단 LRU)
+    private final Cache<String, Entry> recent;
+
+    public AiReviewCache(AiReviewCacheRepository aiReviewCacheRepository,
+                         @Value("${ai.review-cache.enabled:true}") boolean enabled,
+                         @Value("${ai.review-cache.max-entries:1000}") long maxEntries,
+                         @Value("${ai.review-cache.ttl-days:30}") long ttlDays,
+                         @Value("${ai.review-cache.max-rows:100000}") int maxRows) {
+        this.aiReviewCacheRepository = aiReviewCacheRepository;
+        this.enabled = enabled;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.maxRows = maxRows;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public static String keyOf(String model, double temperature, int maxTokens, String systemPrompt, String prompt) {
+        String material = String.join("\u0000",
+                model, Double.toString(temperature), Integer.toString(maxTokens), systemPrompt, prompt);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(material.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    public Optional<String> get(String cacheKey) {
+        if (!enabled) return Optional.empty();
+        LocalDateTime since = LocalDateTime.now().minus(ttl);
+        Entry entry = recent.getIfPresent(cacheKey);
+        if (entry != null) {
+            if (!entry.createdAt().isBefore(since)) {
+                return Optional.of(entry.review());
+            }
+            recent.invalidate(cacheKey);
+        }
+        Optional<AiReviewCacheEntry> stored = aiReviewCacheRepository.findFresh(cacheKey, since);
+        stored.ifPresent(value -> recent.put(cacheKey, new Entry(value.getReview(), value.getCreatedAt())));
+        return stored.map(AiReviewCacheEntry::getReview);
+    }
+
+    // 동시에 같은 키를 생성했으면 먼저 저장된 결과를 유지
+    public void put(String cacheKey, String model, String review) {
+        store(cacheKey, model, review, false);
+    }
+
+    // 다시 생성한 결과로 기존 항목을 덮어씀
+    public void replace(String cacheKey, String model, String review) {
+        store(cacheKey, model, review, true);
+    }
+
+    private void store(String cacheKey, String model, String review, boolean overwrite) {
+        if (!enabled) return;
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            if (overwrite) {
+                aiReviewCacheRepository.upsert(cacheKey, model, review, now);
+                recent.put(cacheKey, new Entry(review, now));
+            } else if (aiReviewCacheRepository.insertIfAbsent(cacheKey, model, review, now) > 0) {
+                recent.put(cacheKey, new Entry(review, now));
+            }
+        } catch (Exception e) {
+            // 저장 실패는 다음 호출에서 다시 생성하면 되므로 리뷰 결과에는 영향 없음
+            log.warn("[AI] review cache 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    // ====================== 정리 ======================
+
+    // 보관 기간이 지난 행과, 최근 maxRows 개를 넘는 오래된 행을 배치로 삭제 (ID 는 저장 순서대로 증가)
+    @Scheduled(cron = "${ai.review-cache.cleanup-cron:0 45 4 * * *}")
+    public int cleanup() {
+        long started = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        List<Long> boundary = aiReviewCacheRepository.findIdsNewestFirst(PageRequest.of(maxRows, 1));
+        long maxEvictId = boundary.isEmpty() ? 0L : boundary.get(0);
+
+        int deleted = 0;
+        List<Long> ids;
+        while (!(ids = aiReviewCacheRepository.findEvictableIds(cutoff, maxEvictId, PageRequest.of(0, CLEANUP_BATCH))).isEmpty()) {
+            deleted += aiReviewCacheRepository.deleteByIds(ids);
+        }
+        if (deleted > 0) {
+            log.info("[AI] review cache cleanup: deleted={} in {}ms", deleted, System.currentTimeMillis() - started);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,277 @@
+// 게시물 AI 리뷰 생성을 요청 스레드/트랜잭션과 분리해 제한된 워커 풀에서 실행하는 작업 큐
+package com.example.codegardener.ai.service;
+
+import com.example.codegardener.ai.domain.AiReviewJob;
+import com.example.codegardener.ai.domain.AiReviewJobStatus;
+import com.example.codegardener.ai.dto.AiReviewJobDto;
+import com.example.codegardener.ai.repository.AiReviewJobRepository;
+import com.example.codegardener.post.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OpenAI 호출은 수 초~수십 초 걸리므로 요청 트랜잭션 안에서 기다리면 그동안 DB 커넥션을 붙잡아
+ * 느린 호출 몇 개만으로 커넥션 풀이 바닥난다. 그래서 요청은 작업 등록만 하고 바로 반환하며,
+ * 워커는 트랜잭션 없이 AI 를 호출한 뒤 결과 저장만 짧은 트랜잭션으로 처리한다.
+ *
+ * 게시물당 진행 중 작업은 하나뿐이며(ai_review_job.active_post_id 유니크), 진행 중에 다시 요청하면 기존 작업을 돌려준다.
+ *
+ * 여러 인스턴스가 같은 테이블을 쓰므로 작업마다 소유 기한(lease_until)을 두고, 큐에 넣거나 실행 중인 인스턴스가
+ * heartbeat 로 연장한다. 기한이 지난 작업(소유 인스턴스가 죽었거나 멈춤)만 다른 인스턴스가 조건부 UPDATE 로 가져가
+ * 다시 실행하므로 살아 있는 인스턴스가 실행 중인 작업을 중복 실행하지 않는다. (기한 비교는 인스턴스 시계 기준)
+ * 등록/회수할 때마다 새 소유 토큰(lease_owner)을 발급하고 실행·연장·종료를 토큰으로 확인하므로, 오래 멈췄던 워커가
+ * 넘어간 작업을 늦게 끝내더라도 작업 상태나 Post.aiFeedback 을 덮어쓰지 못한다.
+ */
+@Slf4j
+@Service
+public class AiReviewJobService {
+
+    private static final int ERROR_MESSAGE_MAX_LENGTH = 500;
+
+    // 워커 풀 현황 (관리자 조회용)
+    public record WorkerStats(int workers, int active, int queued, int remainingCapacity, long completed) {
+    }
+
+    private final AiReviewJobRepository aiReviewJobRepository;
+    private final AiFeedbackService aiFeedbackService;
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ThreadPoolExecutor executor;
+    private final Duration lease;
+
+    // 이 인스턴스의 큐에 있거나 실행 중인 작업 -> 소유 토큰 (heartbeat 로 소유 기한을 연장할 대상)
+    private final Map<Long, String> held = new ConcurrentHashMap<>();
+
+    public AiReviewJobService(AiReviewJobRepository aiReviewJobRepository,
+                              AiFeedbackService aiFeedbackService,
+                              PostRepository postRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${ai.review.workers:4}") int workers,
+                              @Value("${ai.review.queue-capacity:100}") int queueCapacity,
+                              @Value("${ai.review.lease-seconds:60}") long leaseSeconds) {
+        this.aiReviewJobRepository = aiReviewJobRepository;
+        this.aiFeedbackService = aiFeedbackService;
+        this.postRepository = postRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ai-review-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // ====================== 요청 / 조회 ======================
+
+    // 작업 등록 (진행 중인 작업이 있으면 그 작업을 그대로 반환). regenerate 면 캐시를 건너뛰고 새로 생성
+    public AiReviewJobDto enqueue(Long postId, Long requestedBy, boolean regenerate) {
+        LocalDateTime now = LocalDateTime.now();
+        String owner = newOwner();
+        boolean created = aiReviewJobRepository.insertIfNoActive(postId, requestedBy, regenerate, owner, now, now.plus(lease)) > 0;
+
+        AiReviewJob job = aiReviewJobRepository.findByActivePostId(postId)
+                // 진행 중이던 다른 요청의 작업이 그사이 끝난 경우
+                .or(() -> aiReviewJobRepository.findFirstByPostIdOrderByAiReviewJobIdDesc(postId))
+                .orElseThrow(() -> new IllegalStateException("AI 리뷰 작업을 등록하지 못했습니다."));
+
+        if (created) {
+            dispatch(job.getAiReviewJobId(), owner, postId, job.isRegenerate());
+            log.info("[AI] review job queued: jobId={}, postId={}", job.getAiReviewJobId(), postId);
+        }
+        return AiReviewJobDto.from(job);
+    }
+
+    // 게시물의 가장 최근 작업 상태
+    public AiReviewJobDto getLatestJob(Long postId) {
+        return aiReviewJobRepository.findFirstByPostIdOrderByAiReviewJobIdDesc(postId)
+                .map(AiReviewJobDto::from)
+                .orElseThrow(() -> new IllegalArgumentException("AI 리뷰 요청 내역이 없습니다."));
+    }
+
+    public WorkerStats workerStats() {
+        return new WorkerStats(executor.getMaximumPoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+                executor.getQueue().remainingCapacity(), executor.getCompletedTaskCount());
+    }
+
+    // ====================== 실행 ======================
+
+    private void dispatch(Long jobId, String owner, Long postId, boolean regenerate) {
+        held.put(jobId, owner);
+        try {
+            executor.execute(() -> {
+                try {
+                    run(jobId, owner, postId, regenerate);
+                } finally {
+                    held.remove(jobId, owner);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            held.remove(jobId, owner);
+            // 큐가 가득 찼으면 작업을 실패로 끝내 같은 게시물을 다시 요청할 수 있게 함
+            finish(jobId, owner, AiReviewJobStatus.FAILED, "요청이 많아 처리하지 못했습니다. 잠시 후 다시 시도해 주세요.");
+            throw new IllegalStateException("AI 리뷰 요청이 많습니다. 잠시 후 다시 시도해 주세요.");
+        }
+    }
+
+    private void run(Long jobId, String owner, Long postId, boolean regenerate) {
+        LocalDateTime now = LocalDateTime.now();
+        if (aiReviewJobRepository.markRunning(jobId, owner, AiReviewJobStatus.QUEUED, AiReviewJobStatus.RUNNING,
+                now, now.plus(lease)) == 0) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        try {
+            // 트랜잭션 밖에서 호출 (대기하는 동안 DB 커넥션을 잡지 않음)
+            String aiText = aiFeedbackService.generateTextForPost(postId, regenerate);
+
+            saveResult(jobId, owner, postId, aiText);
+            log.info("[AI] review job finished: jobId={}, postId={}, {}ms", jobId, postId,
+                    System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("[AI] review job failed: jobId={}, postId={}: {}", jobId, postId, e.getMessage(), e);
+            finish(jobId, owner, AiReviewJobStatus.FAILED, truncate(e.getMessage()));
+        }
+    }
+
+    // 결과 저장과 작업 종료만 짧은 트랜잭션으로. 아직 이 토큰으로 작업을 소유할 때만 먼저 종료 처리(행 잠금)한 뒤 결과를 씀.
+    // 작업이 다른 워커에게 넘어갔거나 이미 끝났으면, 또는 게시물이 그사이 삭제됐으면 false
+    private boolean saveResult(Long jobId, String owner, Long postId, String aiText) {
+        Boolean saved = transactionTemplate.execute(status -> {
+            if (finish(jobId, owner, AiReviewJobStatus.SUCCEEDED, null) == 0) {
+                log.warn("[AI] review result dropped, job is no longer owned by this worker: jobId={}, postId={}", jobId, postId);
+                return false;
+            }
+            if (postRepository.updateAiFeedback(postId, aiText) == 0) {
+                aiReviewJobRepository.updateOutcome(jobId, AiReviewJobStatus.FAILED, "게시물이 삭제되었습니다.");
+                return false;
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(saved);
+    }
+
+    private int finish(Long jobId, String owner, AiReviewJobStatus status, String errorMessage) {
+        return aiReviewJobRepository.finish(jobId, owner, status, errorMessage, LocalDateTime.now());
+    }
+
+    private static String newOwner() {
+        return UUID.randomUUID().toString();
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return "AI 리뷰 생성 실패";
+        return (message.length() <= ERROR_MESSAGE_MAX_LENGTH) ? message : message.substring(0, ERROR_MESSAGE_MAX_LENGTH);
+    }
+
+    // ====================== 스트리밍 ======================
+    // 스트리밍은 워커 풀 밖에서 생성하지만 같은 게시물의 작업과 동시에 돌며 결과를 덮어쓰지 않도록
+    // 진행 중 작업 자리(active_post_id)를 똑같이 차지하고, 끝나면 작업과 같은 방식으로 저장/종료한다.
+    // 스트리밍 중에 인스턴스가 죽으면 기한이 지난 뒤 다른 인스턴스가 일반 작업으로 회수해 다시 생성한다.
+
+    // 자리를 얻으면 실행 중 상태가 된 작업 id, 이미 진행 중인 작업이 있으면 빈 값
+    public Optional<Long> startStream(Long postId, Long requestedBy, boolean regenerate) {
+        LocalDateTime now = LocalDateTime.now();
+        String owner = newOwner();
+        if (aiReviewJobRepository.insertIfNoActive(postId, requestedBy, regenerate, owner, now, now.plus(lease)) == 0) {
+            return Optional.empty();
+        }
+        Long jobId = aiReviewJobRepository.findByActivePostId(postId)
+                .map(AiReviewJob::getAiReviewJobId)
+                .orElseThrow(() -> new IllegalStateException("AI 리뷰 작업을 등록하지 못했습니다."));
+        held.put(jobId, owner);
+        aiReviewJobRepository.markRunning(jobId, owner, AiReviewJobStatus.QUEUED, AiReviewJobStatus.RUNNING, now, now.plus(lease));
+        log.info("[AI] review stream started: jobId={}, postId={}", jobId, postId);
+        return Optional.of(jobId);
+    }
+
+    // 스트리밍 결과 저장. 작업을 더 이상 소유하지 않거나 게시물이 삭제됐으면 false,
+    // 저장 중 예외가 나면 작업을 실패로 끝내고 예외를 그대로 던짐
+    public boolean completeStream(Long jobId, Long postId, String aiText) {
+        String owner = held.remove(jobId);
+        if (owner == null) {
+            log.warn("[AI] review stream result dropped, job is not held: jobId={}, postId={}", jobId, postId);
+            return false;
+        }
+        try {
+            return saveResult(jobId, owner, postId, aiText);
+        } catch (RuntimeException e) {
+            finish(jobId, owner, AiReviewJobStatus.FAILED, truncate(e.getMessage()));
+            throw e;
+        }
+    }
+
+    public void failStream(Long jobId, String errorMessage) {
+        String owner = held.remove(jobId);
+        if (owner == null) return;
+        finish(jobId, owner, AiReviewJobStatus.FAILED, truncate(errorMessage));
+    }
+
+    // ====================== 소유 기한 (heartbeat / 회수) ======================
+
+    // 들고 있는 작업의 기한 연장 (주기는 기한의 1/3 이하로 두어 한두 번 늦어도 기한이 지나지 않게)
+    @Scheduled(fixedDelayString = "${ai.review.heartbeat-ms:20000}")
+    public void renewLeases() {
+        if (held.isEmpty()) return;
+        // id 와 토큰을 따로 묶어 비교하지만 토큰은 작업마다 고유하므로 다른 작업의 토큰과 섞여 연장되는 일은 없음
+        aiReviewJobRepository.renewLeases(List.copyOf(held.keySet()), List.copyOf(held.values()), LocalDateTime.now().plus(lease));
+    }
+
+    // 기동 시와 주기적으로, 기한이 지난 작업을 가져와 이 인스턴스에서 다시 실행
+    // (재기동 직후에는 이전 프로세스의 기한이 아직 남아 있을 수 있으며, 그 작업은 다음 주기에 회수됨)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${ai.review.reclaim-interval-ms:60000}",
+            fixedDelayString = "${ai.review.reclaim-interval-ms:60000}")
+    public void resumeUnfinished() {
+        LocalDateTime now = LocalDateTime.now();
+        int resumed = 0;
+        for (Long jobId : aiReviewJobRepository.findExpiredActiveIds(now)) {
+            String owner = newOwner();
+            if (aiReviewJobRepository.claimExpired(jobId, AiReviewJobStatus.QUEUED, owner, now, now.plus(lease)) == 0) {
+                continue; // 다른 인스턴스가 먼저 가져감
+            }
+            AiReviewJob job = aiReviewJobRepository.findById(jobId).orElse(null);
+            if (job == null) continue;
+            try {
+                dispatch(jobId, owner, job.getPostId(), job.isRegenerate());
+                resumed++;
+            } catch (IllegalStateException e) {
+                log.warn("[AI] review job dropped on resume: jobId={}", jobId);
+            }
+        }
+        if (resumed > 0) {
+            log.info("[AI] resumed {} review jobs with expired leases", resumed);
+        }
+    }
+
+    // ====================== 종료 ======================
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,128 @@
+// AI 리뷰를 생성되는 대로 SSE 로 내려보내고, 끝나면 전체 텍스트를 Post.aiFeedback 에 저장
+package com.example.codegardener.ai.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 이벤트: delta {"text": 조각} 여러 번 → done {"postId": id} 또는 error {"message": 사유}.
+ * 조각은 JSON 으로 감싸 줄바꿈이 SSE 필드 구분과 섞이지 않게 한다. 저장에 실패해도 error 를 보내고 항상 스트림을 닫는다.
+ *
+ * 클라이언트가 도중에 연결을 끊어도 생성은 끝까지 받아 저장한다 (이미 비용이 든 결과를 버리지 않도록).
+ * 요청 스레드는 구독만 하고 바로 반환하며, AI 응답을 기다리는 동안 DB 커넥션을 잡지 않는다.
+ *
+ * 스트림 하나는 생성이 끝날 때까지 OpenAiClient 의 bulkhead 자리를 하나 차지하므로, 동시 스트림 수를
+ * ai.stream.max-concurrent 로 bulkhead 보다 작게 묶어 작업 큐/조각 리뷰 호출이 쓸 자리를 남긴다.
+ * 게시물당 진행 중 작업 자리도 AiReviewJobService 와 함께 쓰므로 같은 게시물의 작업이 돌고 있으면 시작하지 않는다.
+ */
+@Slf4j
+@Service
+public class AiReviewStreamService {
+
+    private final AiFeedbackService aiFeedbackService;
+    private final AiReviewJobService aiReviewJobService;
+    private final long timeoutMs;
+    private final Semaphore permits;
+
+    public AiReviewStreamService(AiFeedbackService aiFeedbackService,
+                                 AiReviewJobService aiReviewJobService,
+                                 @Value("${ai.stream.timeout-ms:180000}") long timeoutMs,
+                                 @Value("${ai.stream.max-concurrent:4}") int maxConcurrent) {
+        this.aiFeedbackService = aiFeedbackService;
+        this.aiReviewJobService = aiReviewJobService;
+        this.timeoutMs = timeoutMs;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    public SseEmitter stream(Long postId, Long requestedBy, boolean regenerate) {
+        if (!permits.tryAcquire()) {
+            throw new IllegalStateException("AI 리뷰 스트리밍 요청이 많습니다. 잠시 후 다시 시도해 주세요.");
+        }
+        Long jobId;
+        try {
+            jobId = aiReviewJobService.startStream(postId, requestedBy, regenerate)
+                    .orElseThrow(() -> new IllegalStateException("이미 AI 리뷰를 생성 중입니다. 작업 상태를 확인해 주세요."));
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AtomicBoolean clientGone = new AtomicBoolean(false);
+        emitter.onTimeout(() -> clientGone.set(true));
+        emitter.onError(e -> clientGone.set(true));
+
+        StringBuilder assembled = new StringBuilder();
+        long started = System.currentTimeMillis();
+
+        // 생성 준비 중 예외도 error 이벤트로 받도록 구독 시점에 시작
+        Flux.defer(() -> aiFeedbackService.streamTextForPost(postId, regenerate))
+                // SseEmitter.send 는 블로킹 I/O 이므로 네트워크 이벤트 루프가 아닌 스레드에서
+                .publishOn(Schedulers.boundedElastic())
+                // 아래 완료/실패 처리(저장 포함)가 끝난 뒤 자리 반환
+                .doFinally(signal -> permits.release())
+                .subscribe(
+                        chunk -> {
+                            assembled.append(chunk);
+                            send(emitter, clientGone, "delta", Map.of("text", chunk));
+                        },
+                        error -> {
+                            log.error("[AI] review stream failed: jobId={}, postId={}: {}", jobId, postId, error.getMessage(), error);
+                            try {
+                                aiReviewJobService.failStream(jobId, error.getMessage());
+                            } catch (RuntimeException e) {
+                                log.error("[AI] review stream job not closed: jobId={}: {}", jobId, e.getMessage(), e);
+                            } finally {
+                                send(emitter, clientGone, "error", Map.of("message", "AI 피드백 생성 실패: " + error.getMessage()));
+                                emitter.complete();
+                            }
+                        },
+                        () -> {
+                            try {
+                                finish(jobId, postId, assembled.toString().trim(), emitter, clientGone);
+                            } finally {
+                                log.info("[AI] review stream finished: jobId={}, postId={}, {}ms, clientGone={}", jobId, postId,
+                                        System.currentTimeMillis() - started, clientGone.get());
+                                emitter.complete();
+                            }
+                        });
+        return emitter;
+    }
+
+    // 결과 저장 후 done, 저장하지 못했으면 error
+    private void finish(Long jobId, Long postId, String text, SseEmitter emitter, AtomicBoolean clientGone) {
+        try {
+            if (text.isEmpty()) {
+                aiReviewJobService.failStream(jobId, "AI 응답이 비어 있습니다.");
+                send(emitter, clientGone, "error", Map.of("message", "AI 피드백 생성 실패: 응답이 비어 있습니다."));
+            } else if (aiReviewJobService.completeStream(jobId, postId, text)) {
+                send(emitter, clientGone, "done", Map.of("postId", postId));
+            } else {
+                send(emitter, clientGone, "error", Map.of("message", "AI 피드백을 저장하지 못했습니다. (게시물 삭제 또는 작업 만료)"));
+            }
+        } catch (RuntimeException e) {
+            log.error("[AI] review stream save failed: jobId={}, postId={}: {}", jobId, postId, e.getMessage(), e);
+            send(emitter, clientGone, "error", Map.of("message", "AI 피드백 저장 실패: " + e.getMessage()));
+        }
+    }
+
+    private void send(SseEmitter emitter, AtomicBoolean clientGone, String name, Map<String, ?> data) {
+        if (clientGone.get()) return;
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // 연결이 끊긴 뒤에도 생성은 계속 받아 저장
+            clientGone.set(true);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+// 부하 측정용 chat-completions 대역 서버 (응답 지연 분포, 오류율, 스트리밍을 흉내 냄)
+package com.example.codegardener.ai.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ai.mock.enabled 는 고정 문구를 즉시 돌려주므로 upstream 이 느릴 때의 동작(워커/커넥션 풀/bulkhead/재시도)을 볼 수 없다.
+ * 이 서버는 별도 포트에서 POST /v1/chat/completions 를 흉내 내며
+ * - 응답 시간을 분포(FIXED, UNIFORM, LOG_NORMAL)에서 뽑고 (스트리밍이면 그 시간에 걸쳐 조각을 나눠 보냄)
+ * - 일정 비율로 500, 429(Retry-After) 를 내거나 stall-ms 동안 응답을 멈춘다.
+ * 애플리케이션의 요청 스레드와 섞이지 않도록 JDK HttpServer + 가상 스레드로 돌린다.
+ *
+ * stub 프로필(application-stub.properties)처럼 ai.stub.enabled=true 일 때만 빈으로 등록되며 OpenAiClient 가 이 서버를 바라본다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ai.stub.enabled", havingValue = "true")
+public class AiStubServer {
+
+    // LOG_NORMAL 에서 p99 에 해당하는 표준정규 분위수
+    private static final double Z_99 = 2.3263;
+
+    private static final String[] WORDS =
+            "코드의 구조가 명확하고 변수명이 직관적입니다. 다만 예외 처리와 경계값 검사를 조금 더 보완하면 좋겠습니다.".split(" ");
+
+    public enum Distribution { FIXED, UNIFORM, LOG_NORMAL }
+
+    // 대역 서버 현황 (upstream 에 실제로 몇 개가 동시에 붙었는지 = 커넥션 풀이 얼마나 쓰였는지)
+    public record Stats(long requests, long errors, long rateLimited, long stalled, int inFlight, int maxInFlight) {
+    }
+
+    private final int port;
+    private final Distribution distribution;
+    private final long medianMs;
+    private final long p99Ms;
+    private final double errorRate;
+    private final double rateLimitRate;
+    private final double stallRate;
+    private final long stallMs;
+    private final int responseWords;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder stalled = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public AiStubServer(@Value("${ai.stub.port:18080}") int port,
+                        @Value("${ai.stub.latency.distribution:LOG_NORMAL}") Distribution distribution,
+                        @Value("${ai.stub.latency.median-ms:3000}") long medianMs,
+                        @Value("${ai.stub.latency.p99-ms:15000}") long p99Ms,
+                        @Value("${ai.stub.error-rate:0.0}") double errorRate,
+                        @Value("${ai.stub.rate-limit-rate:0.0}") double rateLimitRate,
+                        @Value("${ai.stub.stall-rate:0.0}") double stallRate,
+                        @Value("${ai.stub.stall-ms:180000}") long stallMs,
+                        @Value("${ai.stub.response-words:200}") int responseWords) {
+        this.port = port;
+        this.distribution = distribution;
+        this.medianMs = medianMs;
+        this.p99Ms = Math.max(p99Ms, medianMs);
+        this.errorRate = errorRate;
+        this.rateLimitRate = rateLimitRate;
+        this.stallRate = stallRate;
+        this.stallMs = stallMs;
+        this.responseWords = Math.max(1, responseWords);
+    }
+
+    // ====================== 기동 / 종료 ======================
+
+    @PostConstruct
+    public void start() throws IOException {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 1024);
+        server.createContext("/v1/chat/completions", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        log.info("[AI] stub server listening on http://localhost:{}/v1 ({} median={}ms p99={}ms, error={}, 429={}, stall={})",
+                port(), distribution, medianMs, p99Ms, errorRate, rateLimitRate, stallRate);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server == null) return;
+        server.stop(0);
+        executor.shutdownNow();
+        log.info("[AI] stub server stopped: {}", stats());
+    }
+
+    // 실제 포트 (ai.stub.port=0 이면 임의 포트)
+    public int port() {
+        return (server != null) ? server.getAddress().getPort() : port;
+    }
+
+    public Stats stats() {
+        return new Stats(requests.sum(), errors.sum(), rateLimited.sum(), stalled.sum(), inFlight.get(), maxInFlight.get());
+    }
+
+    // ====================== 요청 처리 ======================
+
+    private void handle(HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        requests.increment();
+        try (exchange) {
+            JSONObject request = new JSONObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            boolean stream = request.optBoolean("stream", false);
+            String model = request.optString("model", "stub");
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < errorRate) {
+                errors.increment();
+                sendJson(exchange, 500, errorBody("server_error", "stub injected error"));
+                return;
+            }
+            if (roll < errorRate + rateLimitRate) {
+                rateLimited.increment();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                sendJson(exchange, 429, errorBody("rate_limit_exceeded", "stub injected rate limit"));
+                return;
+            }
+            if (roll < errorRate + rateLimitRate + stallRate) {
+                // 클라이언트 타임아웃보다 길게 멈춘 뒤 정상 응답
+                stalled.increment();
+                sleep(stallMs);
+            }
+
+            long latencyMs = sampleLatencyMs();
+            if (stream) {
+                streamChunks(exchange, model, latencyMs);
+            } else {
+                sleep(latencyMs);
+                sendJson(exchange, 200, completionBody(model));
+            }
+        } catch (IOException e) {
+            // 클라이언트가 먼저 끊은 경우 (타임아웃, 스트림 취소)
+            log.debug("[AI] stub client disconnected: {}", e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // 전체 지연을 단어 수로 나눠 조각마다 기다린 뒤 보냄
+    private void streamChunks(HttpExchange exchange, String model, long latencyMs) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        long perChunkMs = latencyMs / responseWords;
+        OutputStream out = exchange.getResponseBody();
+        for (int i = 0; i < responseWords; i++) {
+            sleep(perChunkMs);
+            JSONObject delta = new JSONObject().put("content", WORDS[i % WORDS.length] + " ");
+            JSONObject chunk = new JSONObject()
+                    .put("object", "chat.completion.chunk")
+                    .put("model", model)
+                    .put("choices", new JSONArray().put(new JSONObject().put("index", 0).put("delta", delta)));
+            out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+        out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private long sampleLatencyMs() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (distribution) {
+            case FIXED -> medianMs;
+            // 중앙값을 가운데로 두고 최대 p99 까지 고르게
+            case UNIFORM -> random.nextLong(Math.max(0, 2 * medianMs - p99Ms), p99Ms + 1);
+            // 중앙값과 p99 로 정한 로그정규분포 (대부분 빠르고 일부가 길게 늘어지는 실제 API 모양)
+            case LOG_NORMAL -> {
+                if (medianMs <= 0) yield 0L;
+                double sigma = Math.log((double) p99Ms / medianMs) / Z_99;
+                yield Math.round(Math.exp(Math.log(medianMs) + sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    private String completionBody(String model) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < responseWords; i++) {
+            content.append(WORDS[i % WORDS.length]).append(' ');
+        }
+        JSONObject message = new JSONObject().put("role", "assistant").put("content", content.toString().trim());
+        return new JSONObject()
+                .put("object", "chat.completion")
+                .put("model", model)
+                .put("choices", new JSONArray().put(new JSONObject()
+                        .put("index", 0).put("message", message).put("finish_reason", "stop")))
+                .toString();
+    }
+
+    private static String errorBody(String type, String message) {
+        return new JSONObject().put("error", new JSONObject().put("type", type).put("message", message)).toString();
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long ms) throws IOException {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("stub interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+// 긴 코드를 추정 토큰 수 기준으로 함수/빈 줄 경계에서 나누는 유틸
+package com.example.codegardener.ai.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 조각마다 추정 토큰 수가 maxTokens 를 넘지 않도록 앞에서부터 줄을 채우다가,
+ * 넘치게 되면 그 조각 안에서 가장 마지막 경계(빈 줄 다음 줄, 함수/클래스 선언 줄) 앞에서 자른다.
+ * 경계가 없으면(한 함수가 너무 긴 경우) 줄 단위로 자른다. 조각은 원본 행 순서대로 빈틈없이 이어진다 (공백뿐인 조각 제외).
+ */
+final class CodeChunker {
+
+    // 함수/클래스 선언으로 보이는 줄 (여러 언어 공통 키워드 위주의 휴리스틱)
+    private static final Pattern DECLARATION = Pattern.compile(
+            "^\\s*(?:public|private|protected|internal|static|final|abstract|async|export|def|func|fun|fn|function|class|interface|enum|struct|impl|template)\\b.*");
+
+    // 원본 코드의 startLine ~ endLine 행 (1부터, 양끝 포함)
+    record Chunk(int startLine, int endLine, String text) {
+    }
+
+    private CodeChunker() {
+    }
+
+    // 대략적인 토큰 수: 영문/코드는 4글자에 1토큰, 한글 등 비 ASCII 는 글자당 1토큰으로 봄
+    static int estimateTokens(String text) {
+        if (text == null) return 0;
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 128) ascii++;
+            else other++;
+        }
+        return (ascii + 3) / 4 + other;
+    }
+
+    static List<Chunk> split(String code, int maxTokens) {
+        String[] lines = code.split("\\R", -1);
+        List<Chunk> chunks = new ArrayList<>();
+
+        int start = 0;          // 현재 조각의 첫 줄 (0부터)
+        int tokens = 0;
+        int lastBoundary = -1;  // 현재 조각 안에서 이 줄 앞을 자르기 좋은 가장 마지막 위치
+        int i = 0;
+        while (i < lines.length) {
+            int lineTokens = estimateTokens(lines[i]) + 1; // 줄바꿈 포함
+            if (i > start && tokens + lineTokens > maxTokens) {
+                int cut = (lastBoundary > start) ? lastBoundary : i;
+                addChunk(chunks, lines, start, cut);
+                // 경계에서 잘랐으면 경계 이후 줄은 다음 조각에서 다시 셈
+                start = cut;
+                i = cut;
+                tokens = 0;
+                lastBoundary = -1;
+                continue;
+            }
+            if (i > start && isBoundary(lines, i)) {
+                lastBoundary = i;
+            }
+            tokens += lineTokens;
+            i++;
+        }
+        addChunk(chunks, lines, start, lines.length);
+        return chunks;
+    }
+
+    // 새 블록이 시작되는 줄: 빈 줄 다음의 첫 줄, 또는 앞 문장이 끝난 뒤의 선언 줄 (어노테이션/주석과 선언 사이는 자르지 않음)
+    private static boolean isBoundary(String[] lines, int i) {
+        String current = lines[i];
+        String previous = lines[i - 1].trim();
+        if (current.isBlank()) return false;
+        if (previous.isEmpty()) return true;
+        return DECLARATION.matcher(current).matches()
+                && (previous.endsWith("}") || previous.endsWith(";"));
+    }
+
+    // 공백뿐인 조각은 리뷰할 것이 없으므로 버림 (행 번호는 원본 기준이라 영향 없음)
+    private static void addChunk(List<Chunk> chunks, String[] lines, int from, int to) {
+        if (from >= to) return;
+        String text = String.join("\n", Arrays.copyOfRange(lines, from, to));
+        if (text.isBlank()) return;
+        chunks.add(new Chunk(from + 1, to, text));
+    }
+}
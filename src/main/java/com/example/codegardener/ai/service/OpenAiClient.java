@@ -0,0 +1,333 @@
+// OpenAI chat-completions 호출 전용 클라이언트 (공유 커넥션 풀, 타임아웃, 재시도, 서킷 브레이커, 동시 호출 제한)
+package com.example.codegardener.ai.service;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 느린 upstream 때문에 호출 스레드가 끝없이 쌓이지 않도록 다음을 한곳에서 처리한다.
+ * - WebClient/커넥션 풀은 기동 시 한 번만 만들고, 연결/응답(읽기) 타임아웃과 호출 전체 기한을 둔다.
+ * - 429/5xx/연결 오류는 지수 백오프 + jitter 로 재시도한다. (스트리밍은 조각이 중복될 수 있어 재시도하지 않음)
+ * - 동시 호출은 세마포어(bulkhead)로 제한하고, 자리가 나지 않으면 잠시 기다린 뒤 거절한다.
+ * - 재시도까지 실패한 호출이 연속되면 일정 시간 호출 자체를 막고(OPEN), 이후 한 건으로 회복 여부를 본다(HALF_OPEN).
+ */
+@Slf4j
+@Component
+public class OpenAiClient {
+
+    private static final String DONE = "[DONE]";
+
+    // 생성 설정 + 프롬프트
+    public record ChatRequest(String model, double temperature, int maxTokens, String systemPrompt, String userPrompt) {
+    }
+
+    // 호출 현황 (관리자 조회용)
+    public record Stats(int maxConcurrent, int inFlight, int queued,
+                        long calls, long succeeded, long failed, long retried,
+                        long rejected, long shortCircuited, String circuitState) {
+    }
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final boolean apiKeyConfigured;
+    private final Duration deadline;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final int maxConcurrent;
+    private final long bulkheadWaitMs;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+
+    public OpenAiClient(WebClient.Builder webClientBuilder,
+                        @Value("${ai.openai.base-url:https://api.openai.com/v1}") String baseUrl,
+                        @Value("${ai.openai.api-key:}") String apiKey,
+                        @Value("${ai.openai.connect-timeout-ms:3000}") int connectTimeoutMs,
+                        @Value("${ai.openai.response-timeout-ms:60000}") long responseTimeoutMs,
+                        @Value("${ai.openai.deadline-ms:120000}") long deadlineMs,
+                        @Value("${ai.openai.max-connections:50}") int maxConnections,
+                        @Value("${ai.openai.retry.max-retries:3}") int maxRetries,
+                        @Value("${ai.openai.retry.initial-backoff-ms:500}") long initialBackoffMs,
+                        @Value("${ai.openai.retry.max-backoff-ms:8000}") long maxBackoffMs,
+                        @Value("${ai.openai.bulkhead.max-concurrent:8}") int maxConcurrent,
+                        @Value("${ai.openai.bulkhead.max-wait-ms:2000}") long bulkheadWaitMs,
+                        @Value("${ai.openai.circuit.failure-threshold:5}") int failureThreshold,
+                        @Value("${ai.openai.circuit.open-ms:30000}") long openMs) {
+        this.connectionProvider = ConnectionProvider.builder("openai")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(deadlineMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                // 요청 후 응답(스트리밍이면 다음 조각)이 이 시간 동안 오지 않으면 실패
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        this.webClient = webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.apiKeyConfigured = apiKey != null && !apiKey.isBlank();
+        this.deadline = Duration.ofMillis(deadlineMs);
+        this.maxRetries = maxRetries;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.maxConcurrent = maxConcurrent;
+        this.bulkheadWaitMs = bulkheadWaitMs;
+        this.bulkhead = new Semaphore(maxConcurrent, true);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMs);
+    }
+
+    // ====================== 호출 ======================
+
+    // 전체 응답을 기다려 본문(message.content) 반환. 호출 스레드를 블로킹하므로 워커 스레드에서 사용
+    public String complete(ChatRequest request) {
+        requireApiKey();
+        circuitBreaker.acquirePermission(shortCircuited);
+        acquireBulkhead();
+        calls.increment();
+        try {
+            String response = webClient.post()
+                    .uri("/chat/completions")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(requestBody(request, false))
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .retryWhen(retrySpec())
+                    .timeout(deadline)
+                    .block();
+            String content = contentOf(response);
+            onSuccess();
+            return content;
+        } catch (RuntimeException e) {
+            onFailure(e);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    // 스트리밍 호출: delta.content 조각을 순서대로. 구독 시점에 bulkhead/서킷을 확인하고 종료(취소 포함) 시 자리 반납
+    // 취소는 성공도 실패도 아니므로, 시험 호출(HALF_OPEN)이었다면 그 자리를 돌려줘 다음 호출이 다시 시험하게 함
+    public Flux<String> stream(ChatRequest request) {
+        return Flux.defer(() -> {
+            requireApiKey();
+            circuitBreaker.acquirePermission(shortCircuited);
+            acquireBulkhead();
+            calls.increment();
+            return webClient.post()
+                    .uri("/chat/completions")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(requestBody(request, true))
+                    .retrieve()
+                    .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                    .map(event -> (event.data() != null) ? event.data() : "")
+                    .takeWhile(data -> !DONE.equals(data.trim()))
+                    .map(OpenAiClient::deltaOf)
+                    .filter(delta -> !delta.isEmpty())
+                    .timeout(deadline)
+                    .doOnComplete(this::onSuccess)
+                    .doOnError(this::onFailure)
+                    .doOnCancel(circuitBreaker::release)
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+
+    public Stats stats() {
+        int available = bulkhead.availablePermits();
+        return new Stats(maxConcurrent, maxConcurrent - available, bulkhead.getQueueLength(),
+                calls.sum(), succeeded.sum(), failed.sum(), retried.sum(),
+                rejected.sum(), shortCircuited.sum(), circuitBreaker.state().name());
+    }
+
+    private void requireApiKey() {
+        if (!apiKeyConfigured) {
+            throw new IllegalStateException("OpenAI API 키가 설정되지 않았습니다. (ai.openai.api-key)");
+        }
+    }
+
+    private void acquireBulkhead() {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            circuitBreaker.release();
+            throw new IllegalStateException("AI 호출이 몰려 처리하지 못했습니다. 잠시 후 다시 시도해 주세요.");
+        }
+    }
+
+    private void onSuccess() {
+        succeeded.increment();
+        circuitBreaker.onSuccess();
+    }
+
+    private void onFailure(Throwable e) {
+        failed.increment();
+        // 요청 자체가 잘못된 경우(429 외 4xx)는 upstream 장애가 아니므로 서킷에 반영하지 않음
+        if (e instanceof WebClientResponseException r && r.getStatusCode().is4xxClientError() && r.getStatusCode().value() != 429) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+        }
+        log.warn("[AI] OpenAI call failed: {}", e.getMessage());
+    }
+
+    private Retry retrySpec() {
+        return Retry.backoff(maxRetries, initialBackoff)
+                .maxBackoff(maxBackoff)
+                .jitter(0.5)
+                .filter(OpenAiClient::isRetryable)
+                .doBeforeRetry(signal -> {
+                    retried.increment();
+                    log.info("[AI] retrying OpenAI call (attempt {}): {}", signal.totalRetries() + 2, signal.failure().getMessage());
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        if (e instanceof WebClientResponseException r) {
+            return r.getStatusCode().value() == 429 || r.getStatusCode().is5xxServerError();
+        }
+        // 연결 실패, 응답 타임아웃
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
+    }
+
+    // ====================== 요청 / 응답 JSON ======================
+
+    // 문자열 이스케이프는 JSONObject 가 처리 (제어 문자 포함)
+    static String requestBody(ChatRequest request, boolean stream) {
+        JSONArray messages = new JSONArray()
+                .put(new JSONObject().put("role", "system").put("content", request.systemPrompt()))
+                .put(new JSONObject().put("role", "user").put("content", request.userPrompt()));
+        return new JSONObject()
+                .put("model", request.model())
+                .put("messages", messages)
+                .put("temperature", request.temperature())
+                .put("max_tokens", request.maxTokens())
+                .put("stream", stream)
+                .toString();
+    }
+
+    // 비어 있거나 형식이 다른 응답은 실패로 처리 (캐시/피드백으로 저장되지 않도록)
+    private static String contentOf(String response) {
+        if (response == null || response.isBlank()) {
+            throw new IllegalStateException("AI 응답이 비어 있습니다.");
+        }
+        JSONArray choices = new JSONObject(response).optJSONArray("choices");
+        if (choices == null || choices.length() == 0) {
+            throw new IllegalStateException("AI 응답이 없습니다.");
+        }
+        JSONObject message = choices.getJSONObject(0).optJSONObject("message");
+        String content = (message != null) ? message.optString("content", "") : "";
+        if (content.isBlank()) {
+            throw new IllegalStateException("AI 응답을 파싱하지 못했습니다.");
+        }
+        return content.trim();
+    }
+
+    private static String deltaOf(String chunk) {
+        if (chunk.isBlank()) return "";
+        JSONArray choices = new JSONObject(chunk).optJSONArray("choices");
+        if (choices == null || choices.length() == 0) return "";
+        JSONObject delta = choices.getJSONObject(0).optJSONObject("delta");
+        return (delta != null) ? delta.optString("content", "") : "";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connectionProvider.dispose();
+    }
+
+    // ====================== 서킷 브레이커 ======================
+
+    enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    private static final class CircuitBreaker {
+        private final int failureThreshold;
+        private final long openMs;
+
+        private CircuitState state = CircuitState.CLOSED;
+        private int consecutiveFailures;
+        private long openUntil;
+
+        private CircuitBreaker(int failureThreshold, long openMs) {
+            this.failureThreshold = failureThreshold;
+            this.openMs = openMs;
+        }
+
+        // OPEN 이면 거절, 기한이 지났으면 한 건만 시험 호출(HALF_OPEN)로 통과
+        private synchronized void acquirePermission(LongAdder shortCircuited) {
+            if (state == CircuitState.OPEN && System.currentTimeMillis() >= openUntil) {
+                state = CircuitState.HALF_OPEN;
+                return;
+            }
+            if (state != CircuitState.CLOSED) {
+                shortCircuited.increment();
+                throw new IllegalStateException("AI 서버 응답이 불안정해 잠시 호출을 중단했습니다. 잠시 후 다시 시도해 주세요.");
+            }
+        }
+
+        // 허가 후 호출하지 못한 경우 (시험 호출 자리를 돌려줌)
+        private synchronized void release() {
+            if (state == CircuitState.HALF_OPEN) {
+                state = CircuitState.OPEN;
+                openUntil = System.currentTimeMillis();
+            }
+        }
+
+        private synchronized void onSuccess() {
+            state = CircuitState.CLOSED;
+            consecutiveFailures = 0;
+        }
+
+        private synchronized void onFailure() {
+            consecutiveFailures++;
+            if (state == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+                state = CircuitState.OPEN;
+                openUntil = System.currentTimeMillis() + openMs;
+                log.warn("[AI] circuit opened for {}ms after {} consecutive failures", openMs, consecutiveFailures);
+            }
+        }
+
+        private synchronized CircuitState state() {
+            return state;
+        }
+    }
+}
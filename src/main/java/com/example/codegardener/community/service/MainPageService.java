@@ -2,7 +2,7 @@ package com.example.codegardener.community.service;
 
 import com.example.codegardener.community.dto.MainPageResponseDto;
 import com.example.codegardener.feedback.repository.FeedbackRepository;
-import com.example.codegardener.post.dto.PostResponseDto;
+import com.example.codegardener.post.dto.PostSummaryDto;
 import com.example.codegardener.post.repository.PostRepository;
 import com.example.codegardener.post.service.PostService;
 import com.example.codegardener.user.domain.User;
@@ -43,8 +43,8 @@ public class MainPageService {
         List<UserResponseDto> topPointUsers = leaderboardService.getTop3UsersByPoints();
 
         // PostService를 호출하여 각각의 인기 게시물 목록을 가져옴
-        List<PostResponseDto> devPosts = postService.getPopularPosts(true, currentUsername); // true: 개발
-        List<PostResponseDto> codingTestPosts = postService.getPopularPosts(false, currentUsername); // false: 코테
+        List<PostSummaryDto> devPosts = postService.getPopularPosts(true, currentUsername); // true: 개발
+        List<PostSummaryDto> codingTestPosts = postService.getPopularPosts(false, currentUsername); // false: 코테
 
         // Builder를 사용하여 DTO를 생성하고 반환
         return MainPageResponseDto.builder()
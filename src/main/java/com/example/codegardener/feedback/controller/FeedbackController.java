@@ -2,6 +2,7 @@ package com.example.codegardener.feedback.controller;
 
 import com.example.codegardener.feedback.dto.*;
 import com.example.codegardener.feedback.service.FeedbackService;
+import com.example.codegardener.global.dto.CursorResponseDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -87,6 +88,36 @@ public class FeedbackController {
 
         return ResponseEntity.ok(feedbackService.getFeedbackListByPost(postId, currentUsername));
     }
+
+    /**
+     * ✅ [GET] 게시물별 피드백 목록 조회 (커서 기반, 오래된 순)
+     * URL: /api/feedback/post/{postId}/cursor?cursor=&size=
+     */
+    @GetMapping("/post/{postId}/cursor")
+    public ResponseEntity<CursorResponseDto<FeedbackResponseDto>> getFeedbackListByPostCursor(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        String currentUsername = (userDetails != null) ? userDetails.getUsername() : null;
+        int normalizedSize = Math.min(Math.max(size, 1), 50);
+
+        return ResponseEntity.ok(feedbackService.getFeedbackListByPostCursor(postId, cursor, normalizedSize, currentUsername));
+    }
+    /**
+     * ✅ [GET] 게시물 전체 피드백 중 줄 범위에 걸친 라인피드백 조회 (코드 뷰어 거터 표시용)
+     * URL: /api/feedback/post/{postId}/lines?from=1&to=200
+     */
+    @GetMapping("/post/{postId}/lines")
+    public ResponseEntity<List<LineFeedbackDto>> getLineFeedbacksInRange(
+            @PathVariable Long postId,
+            @RequestParam(defaultValue = "1") int from,
+            @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int to
+    ) {
+        return ResponseEntity.ok(feedbackService.getLineFeedbacksInRange(postId, from, to));
+    }
+
     /**
      * ✅ [POST] 피드백 채택
      */
@@ -125,6 +156,25 @@ public class FeedbackController {
         return ResponseEntity.ok(feedbackService.toggleLike(feedbackId, getUsername(userDetails)));
     }
 
+    /**
+     * ✅ [PUT] 좋아요 설정 / [DELETE] 좋아요 취소 (멱등, 여러 번 호출해도 결과 같음)
+     */
+    @PutMapping("/{feedbackId}/like")
+    public ResponseEntity<String> like(
+            @PathVariable Long feedbackId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return ResponseEntity.ok(feedbackService.setLike(feedbackId, getUsername(userDetails), true));
+    }
+
+    @DeleteMapping("/{feedbackId}/like")
+    public ResponseEntity<String> unlike(
+            @PathVariable Long feedbackId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return ResponseEntity.ok(feedbackService.setLike(feedbackId, getUsername(userDetails), false));
+    }
+
     // ======================================================
     // 🧩 라인피드백(LineFeedback) 관련 API
     // ======================================================
@@ -206,4 +256,18 @@ public class FeedbackController {
     ) {
         return ResponseEntity.ok(feedbackService.getCommentsByFeedback(feedbackId));
     }
+
+    /**
+     * ✅ [GET] 댓글 목록 조회 (커서 기반, 오래된 순)
+     * URL: /api/feedback/{feedbackId}/comment/cursor?cursor=&size=
+     */
+    @GetMapping("/{feedbackId}/comment/cursor")
+    public ResponseEntity<CursorResponseDto<FeedbackCommentDto>> getCommentsByFeedbackCursor(
+            @PathVariable Long feedbackId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        int normalizedSize = Math.min(Math.max(size, 1), 50);
+        return ResponseEntity.ok(feedbackService.getCommentsByFeedbackCursor(feedbackId, cursor, normalizedSize));
+    }
 }
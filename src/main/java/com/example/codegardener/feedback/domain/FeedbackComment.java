@@ -7,7 +7,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "feedback_comment")
+@Table(
+        name = "feedback_comment",
+        // 댓글 스레드 keyset 페이징 (FeedbackCommentRepository.findThreadAfter)
+        indexes = @Index(name = "idx_feedback_comment_thread", columnList = "feedback_id, created_at, comment_id")
+)
 @Getter
 @Setter
 @NoArgsConstructor
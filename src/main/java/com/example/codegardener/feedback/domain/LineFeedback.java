@@ -2,6 +2,7 @@ package com.example.codegardener.feedback.domain;
 
 import com.example.codegardener.user.domain.User;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -15,8 +16,13 @@ import java.time.LocalDateTime;
 @Builder
 public class LineFeedback {
 
+    // 한 번에 미리 받아 두는 ID 개수 (리뷰 하나의 라인 피드백을 한 번의 시퀀스 조회로 처리)
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // IDENTITY 는 INSERT 마다 생성된 키를 받아야 해서 JDBC 배치가 꺼지므로 pooled 시퀀스 사용
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "line_feedback_seq")
+    @SequenceGenerator(name = "line_feedback_seq", sequenceName = "line_feedback_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long lineFeedbackId;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -32,6 +38,11 @@ public class LineFeedback {
 
     private Integer endLineNumber; // 여러 줄 범위 가능
 
+    // 게시물 코드 수정으로 대상 줄이 삭제/변경됨 (LineFeedbackReanchorer 가 표시)
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean outdated;
+
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content; // 피드백 내용
 
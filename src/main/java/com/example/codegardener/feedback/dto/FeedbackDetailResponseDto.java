@@ -1,6 +1,7 @@
 package com.example.codegardener.feedback.dto;
 
 import com.example.codegardener.feedback.domain.Feedback;
+import com.example.codegardener.global.dto.CursorResponseDto;
 import com.example.codegardener.user.domain.UserProfile;
 import lombok.*;
 
@@ -29,9 +30,14 @@ public class FeedbackDetailResponseDto {
     private LocalDateTime updatedAt;
 
     private List<LineFeedbackDto> lineFeedbacks;
+
+    // 댓글은 첫 페이지만 포함, 이후는 /api/feedback/{feedbackId}/comment/cursor?cursor=commentsNextCursor
     private List<FeedbackCommentDto> comments;
+    private long commentCount;
+    private String commentsNextCursor;
 
-    public static FeedbackDetailResponseDto of(Feedback feedback, long likesCount, boolean liked) {
+    public static FeedbackDetailResponseDto of(Feedback feedback, long likesCount, boolean liked,
+                                               CursorResponseDto<FeedbackCommentDto> firstComments, long commentCount) {
         String userPicture = null;
         UserProfile profile = feedback.getUser().getUserProfile();
         if (profile != null) {
@@ -56,11 +62,9 @@ public class FeedbackDetailResponseDto {
                                 .map(LineFeedbackDto::from)
                                 .collect(Collectors.toList())
                 )
-                .comments(
-                        feedback.getComments().stream()
-                                .map(FeedbackCommentDto::from)
-                                .collect(Collectors.toList())
-                )
+                .comments(firstComments.getContent())
+                .commentCount(commentCount)
+                .commentsNextCursor(firstComments.getNextCursor())
                 .build();
     }
 
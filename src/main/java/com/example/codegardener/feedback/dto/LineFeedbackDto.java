@@ -12,9 +12,11 @@ import java.time.LocalDateTime;
 @Builder
 public class LineFeedbackDto {
     private Long lineFeedbackId;
+    private Long feedbackId;
     private Long userId;
     private Integer lineNumber;
     private Integer endLineNumber;
+    private boolean outdated;
     private String content;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -22,9 +24,11 @@ public class LineFeedbackDto {
     public static LineFeedbackDto from(LineFeedback entity) {
         return LineFeedbackDto.builder()
                 .lineFeedbackId(entity.getLineFeedbackId())
+                .feedbackId(entity.getFeedback().getFeedbackId())
                 .userId(entity.getUser().getUserId())
                 .lineNumber(entity.getLineNumber())
                 .endLineNumber(entity.getEndLineNumber())
+                .outdated(entity.isOutdated())
                 .content(entity.getContent())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
@@ -1,9 +1,13 @@
 package com.example.codegardener.feedback.repository;
 
 import com.example.codegardener.feedback.domain.FeedbackComment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -11,4 +15,23 @@ public interface FeedbackCommentRepository extends JpaRepository<FeedbackComment
 
     // 특정 피드백에 달린 모든 댓글 조회
     List<FeedbackComment> findByFeedback_FeedbackId(Long feedbackId);
+
+    long countByFeedback_FeedbackId(Long feedbackId);
+
+    // 댓글 스레드 (createdAt, commentId) 오름차순 keyset 페이징, 작성자 + 프로필 함께 적재
+    // pageable 은 LIMIT 용도로만 사용 (Pageable.unpaged() 면 전체)
+    @Query("""
+            SELECT c FROM FeedbackComment c
+            JOIN FETCH c.user u
+            LEFT JOIN FETCH u.userProfile
+            WHERE c.feedback.feedbackId = :feedbackId
+              AND (:cursorAt IS NULL
+                   OR c.createdAt > :cursorAt
+                   OR (c.createdAt = :cursorAt AND c.commentId > :cursorId))
+            ORDER BY c.createdAt ASC, c.commentId ASC
+            """)
+    List<FeedbackComment> findThreadAfter(@Param("feedbackId") Long feedbackId,
+                                          @Param("cursorAt") LocalDateTime cursorAt,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
 }
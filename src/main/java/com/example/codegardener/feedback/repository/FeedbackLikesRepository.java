@@ -4,8 +4,12 @@ import com.example.codegardener.feedback.domain.Feedback;
 import com.example.codegardener.feedback.domain.FeedbackLike;
 import com.example.codegardener.user.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +20,32 @@ public interface FeedbackLikesRepository extends JpaRepository<FeedbackLike, Lon
     Optional<FeedbackLike> findByUserAndFeedback_FeedbackId(User user, Long feedbackId);
     boolean existsByUserAndFeedback(User user, Feedback feedback);
     long countByFeedback(Feedback feedback);
+
+    // 목록 조회용: 여러 피드백의 좋아요 수를 한 번에 (좋아요가 없는 피드백은 결과에 없음)
+    @Query("""
+            SELECT l.feedback.feedbackId AS feedbackId, COUNT(l) AS likeCount
+            FROM FeedbackLike l
+            WHERE l.feedback.feedbackId IN :feedbackIds
+            GROUP BY l.feedback.feedbackId
+            """)
+    List<FeedbackLikeCount> countGroupedByFeedbackIds(@Param("feedbackIds") Collection<Long> feedbackIds);
+
+    interface FeedbackLikeCount {
+        Long getFeedbackId();
+        long getLikeCount();
+    }
+
+    // 사용자별 좋아요 여부 캐시(UserEngagementCache) 적재용
+    @Query("SELECT l.feedback.feedbackId FROM FeedbackLike l WHERE l.user.userId = :userId")
+    List<Long> findAllFeedbackIdsByUserId(@Param("userId") Long userId);
+
+    // 좋아요 설정/해제: 영향 행 수(0 또는 1)로 실제 변경 여부를 판단 (중복 요청은 유니크 제약 예외 대신 0)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO feedback_likes (user_id, feedback_id, created_at) VALUES (:userId, :feedbackId, NOW(6))",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("feedbackId") Long feedbackId);
+
+    @Modifying
+    @Query(value = "DELETE FROM feedback_likes WHERE user_id = :userId AND feedback_id = :feedbackId", nativeQuery = true)
+    int deleteIfPresent(@Param("userId") Long userId, @Param("feedbackId") Long feedbackId);
 }
@@ -4,12 +4,15 @@ import com.example.codegardener.feedback.domain.Feedback;
 import com.example.codegardener.post.domain.Post;
 import com.example.codegardener.user.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
@@ -24,4 +27,32 @@ public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
 
     int countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
 
+    // ====== 게시물별 피드백 목록 (feedbackId 오름차순 keyset 페이징) ======
+    // 작성자와 프로필을 함께 적재. post_id FK 인덱스가 (post_id, feedback_id) 순서를 그대로 제공하므로 정렬 없이 LIMIT 에서 멈춘다.
+    // pageable 은 LIMIT 용도로만 사용 (Pageable.unpaged() 면 전체)
+    @Query("""
+            SELECT f FROM Feedback f
+            JOIN FETCH f.user u
+            LEFT JOIN FETCH u.userProfile
+            WHERE f.post.postId = :postId
+              AND (:afterId IS NULL OR f.feedbackId > :afterId)
+            ORDER BY f.feedbackId ASC
+            """)
+    List<Feedback> findByPostAfter(@Param("postId") Long postId,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    // ====== 피드백 상세 조회 ======
+    // 작성자 + 라인 피드백을 한 번에 적재. 댓글은 첫 페이지만 FeedbackCommentRepository.findThreadAfter 로 따로 조회
+    // (post 는 ID 만 쓰므로 프록시로 충분하고, 라인 피드백 작성자도 ID 만 사용)
+
+    @Query("""
+            SELECT f FROM Feedback f
+            JOIN FETCH f.user u
+            LEFT JOIN FETCH u.userProfile
+            LEFT JOIN FETCH f.lineFeedbackList
+            WHERE f.feedbackId = :feedbackId
+            """)
+    Optional<Feedback> findDetailById(@Param("feedbackId") Long feedbackId);
+
 }
\ No newline at end of file
@@ -2,8 +2,11 @@ package com.example.codegardener.feedback.repository;
 
 import com.example.codegardener.feedback.domain.LineFeedback;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -11,4 +14,51 @@ public interface LineFeedbackRepository extends JpaRepository<LineFeedback, Long
 
     // 특정 Feedback에 속한 모든 라인 피드백 조회
     List<LineFeedback> findByFeedback_FeedbackId(Long feedbackId);
+
+    // 게시물의 모든 피드백에 달린 라인 피드백 (LineFeedbackIntervalIndex 적재용)
+    @Query("""
+            SELECT lf.lineFeedbackId AS lineFeedbackId,
+                   f.feedbackId AS feedbackId,
+                   lf.user.userId AS userId,
+                   lf.lineNumber AS lineNumber,
+                   lf.endLineNumber AS endLineNumber,
+                   lf.outdated AS outdated,
+                   lf.content AS content,
+                   lf.createdAt AS createdAt,
+                   lf.updatedAt AS updatedAt
+            FROM LineFeedback lf
+            JOIN lf.feedback f
+            WHERE f.post.postId = :postId
+            """)
+    List<LineSpanView> findSpansByPostId(@Param("postId") Long postId);
+
+    // 코드 수정 시 줄 번호 재배치용 (LineFeedbackReanchorer)
+    @Query("""
+            SELECT lf.lineFeedbackId AS lineFeedbackId,
+                   lf.lineNumber AS lineNumber,
+                   lf.endLineNumber AS endLineNumber,
+                   lf.outdated AS outdated
+            FROM LineFeedback lf
+            WHERE lf.feedback.post.postId = :postId
+            """)
+    List<LineAnchorView> findAnchorsByPostId(@Param("postId") Long postId);
+
+    interface LineSpanView {
+        Long getLineFeedbackId();
+        Long getFeedbackId();
+        Long getUserId();
+        Integer getLineNumber();
+        Integer getEndLineNumber();
+        Boolean getOutdated();
+        String getContent();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface LineAnchorView {
+        Long getLineFeedbackId();
+        Integer getLineNumber();
+        Integer getEndLineNumber();
+        Boolean getOutdated();
+    }
 }
@@ -0,0 +1,45 @@
+// 피드백 댓글 keyset 페이징용 커서 (마지막 댓글의 createdAt + commentId 를 불투명한 문자열로 인코딩)
+package com.example.codegardener.feedback.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.example.codegardener.feedback.domain.FeedbackComment;
+
+record CommentCursor(LocalDateTime createdAt, long commentId) {
+
+    private static final String SEPARATOR = "|";
+
+    static CommentCursor after(FeedbackComment last) {
+        return new CommentCursor(last.getCreatedAt(), last.getCommentId());
+    }
+
+    // null/공백이면 첫 페이지(null) 반환
+    static CommentCursor decode(String encoded) {
+        if (encoded == null || encoded.isBlank()) return null;
+
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            parts = raw.split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+
+        try {
+            return new CommentCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+    }
+
+    String encode() {
+        String raw = createdAt.toString() + SEPARATOR + commentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,49 @@
+// 게시물별 피드백 keyset 페이징용 커서 (게시물 ID + 마지막 피드백 ID 를 불투명한 문자열로 인코딩)
+package com.example.codegardener.feedback.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.example.codegardener.feedback.domain.Feedback;
+
+// 다른 게시물의 커서를 재사용하면 엉뚱한 위치부터 읽게 되므로 postId 도 함께 인코딩해 검증한다
+record FeedbackCursor(long postId, long feedbackId) {
+
+    private static final String SEPARATOR = "|";
+
+    static FeedbackCursor after(Long postId, Feedback last) {
+        return new FeedbackCursor(postId, last.getFeedbackId());
+    }
+
+    // null/공백이면 첫 페이지(null) 반환
+    static FeedbackCursor decode(String encoded, Long expectedPostId) {
+        if (encoded == null || encoded.isBlank()) return null;
+
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            parts = raw.split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+
+        FeedbackCursor cursor;
+        try {
+            cursor = new FeedbackCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+        if (cursor.postId() != expectedPostId) {
+            throw new IllegalArgumentException("요청한 게시물과 맞지 않는 커서입니다.");
+        }
+        return cursor;
+    }
+
+    String encode() {
+        String raw = postId + SEPARATOR + feedbackId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,24 +3,31 @@ package com.example.codegardener.feedback.service;
 import com.example.codegardener.feedback.domain.*;
 import com.example.codegardener.feedback.dto.*;
 import com.example.codegardener.feedback.repository.*;
+import com.example.codegardener.global.dto.CursorResponseDto;
 import com.example.codegardener.post.domain.Post;
 import com.example.codegardener.post.repository.PostRepository;
+import com.example.codegardener.post.service.PostCounterBuffer;
+import com.example.codegardener.post.service.PostRatingAggregator;
 import com.example.codegardener.user.domain.User;
 import com.example.codegardener.user.domain.Role;
 import com.example.codegardener.user.repository.UserRepository;
+import com.example.codegardener.user.service.UserEngagementCache;
 import com.example.codegardener.user.service.UserService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -36,19 +43,55 @@ public class FeedbackService {
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final UserService userService;
+    private final PostCounterBuffer postCounterBuffer;
+    private final UserEngagementCache userEngagementCache;
+    private final LineFeedbackIntervalIndex lineFeedbackIntervalIndex;
+    private final PostRatingAggregator postRatingAggregator;
+
+    // 상세 조회에 포함하는 댓글 수
+    private static final int DETAIL_COMMENT_PAGE_SIZE = 20;
 
     private FeedbackResponseDto convertToDto(Feedback feedback, User currentUser) {
         long likes = feedbackLikesRepository.countByFeedback(feedback);
-        boolean liked = (currentUser != null) && feedbackLikesRepository.existsByUserAndFeedback(currentUser, feedback);
+        boolean liked = isLikedBy(currentUser, feedback);
 
         return FeedbackResponseDto.of(feedback, likes, liked);
     }
 
     private FeedbackDetailResponseDto convertToDetailDto(Feedback feedback, User currentUser) {
         long likes = feedbackLikesRepository.countByFeedback(feedback);
-        boolean liked = (currentUser != null) && feedbackLikesRepository.existsByUserAndFeedback(currentUser, feedback);
+        boolean liked = isLikedBy(currentUser, feedback);
+
+        // 댓글은 첫 페이지만. 첫 페이지에 다 들어가면 전체 개수 쿼리 생략
+        CursorResponseDto<FeedbackCommentDto> firstComments =
+                loadCommentPage(feedback.getFeedbackId(), null, DETAIL_COMMENT_PAGE_SIZE);
+        long commentCount = firstComments.isHasNext()
+                ? feedbackCommentRepository.countByFeedback_FeedbackId(feedback.getFeedbackId())
+                : firstComments.getContent().size();
+
+        return FeedbackDetailResponseDto.of(feedback, likes, liked, firstComments, commentCount);
+    }
+
+    // 목록 변환: 좋아요 수는 GROUP BY 한 번, 좋아요 여부는 캐시 (작성자/프로필은 조회 쿼리에서 fetch join)
+    private List<FeedbackResponseDto> convertToDtos(List<Feedback> feedbacks, User currentUser) {
+        if (feedbacks.isEmpty()) return Collections.emptyList();
+
+        List<Long> feedbackIds = feedbacks.stream().map(Feedback::getFeedbackId).toList();
+        Map<Long, Long> likeCounts = new HashMap<>();
+        for (FeedbackLikesRepository.FeedbackLikeCount row : feedbackLikesRepository.countGroupedByFeedbackIds(feedbackIds)) {
+            likeCounts.put(row.getFeedbackId(), row.getLikeCount());
+        }
+
+        return feedbacks.stream()
+                .map(feedback -> FeedbackResponseDto.of(feedback,
+                        likeCounts.getOrDefault(feedback.getFeedbackId(), 0L),
+                        isLikedBy(currentUser, feedback)))
+                .toList();
+    }
 
-        return FeedbackDetailResponseDto.of(feedback, likes, liked);
+    // 좋아요 여부는 사용자별 캐시에서 확인 (행마다 exists 쿼리 없음)
+    private boolean isLikedBy(User currentUser, Feedback feedback) {
+        return currentUser != null && userEngagementCache.likedFeedback(currentUser.getUserId(), feedback.getFeedbackId());
     }
 
     private User getUserOrNull(String username) {
@@ -74,18 +117,22 @@ public class FeedbackService {
 
         Feedback feedback = dto.toEntity(currentUser, post);
         Feedback savedFeedback = feedbackRepository.save(feedback);
-
-        if (dto.getLineFeedbacks() != null) {
-            for (LineFeedbackDto lfDto : dto.getLineFeedbacks()) {
-                LineFeedback lineFeedback = LineFeedback.builder()
-                        .feedback(savedFeedback)
-                        .user(currentUser)
-                        .lineNumber(lfDto.getLineNumber())
-                        .endLineNumber(lfDto.getEndLineNumber())
-                        .content(lfDto.getContent())
-                        .build();
-                lineFeedbackRepository.save(lineFeedback);
-            }
+        postCounterBuffer.addFeedbacks(post.getPostId(), 1);
+        postRatingAggregator.onFeedbackCreated(post.getPostId(), savedFeedback.getRating());
+
+        if (dto.getLineFeedbacks() != null && !dto.getLineFeedbacks().isEmpty()) {
+            List<LineFeedback> lineFeedbacks = dto.getLineFeedbacks().stream()
+                    .map(lfDto -> LineFeedback.builder()
+                            .feedback(savedFeedback)
+                            .user(currentUser)
+                            .lineNumber(lfDto.getLineNumber())
+                            .endLineNumber(lfDto.getEndLineNumber())
+                            .content(lfDto.getContent())
+                            .build())
+                    .toList();
+            // 시퀀스 ID 라 persist 시점엔 INSERT 가 나가지 않고, 커밋 flush 때 batch_size 단위로 묶여 전송됨
+            lineFeedbackRepository.saveAll(lineFeedbacks);
+            lineFeedbackIntervalIndex.evictAfterCommit(post.getPostId());
         }
 
         return convertToDto(savedFeedback, currentUser);
@@ -105,6 +152,7 @@ public class FeedbackService {
             throw new IllegalStateException("채택된 피드백은 수정할 수 없습니다.");
         }
 
+        postRatingAggregator.onFeedbackRatingChanged(feedback.getPost().getPostId(), feedback.getRating(), dto.getRating());
         feedback.setContent(dto.getContent());
         feedback.setRating(dto.getRating());
         feedback.setUpdatedAt(java.time.LocalDateTime.now());
@@ -137,52 +185,79 @@ public class FeedbackService {
         }
 
         feedbackRepository.delete(feedback);
+        postCounterBuffer.addFeedbacks(post.getPostId(), -1);
+        postRatingAggregator.onFeedbackDeleted(post.getPostId(), feedback.getRating());
+        lineFeedbackIntervalIndex.evictAfterCommit(post.getPostId());
     }
 
     // ✅ 피드백 상세조회 (라인피드백 + 댓글 포함)
     public FeedbackDetailResponseDto getFeedbackDetail(Long feedbackId, String currentUsername) {
         User currentUser = getUserOrNull(currentUsername);
-        Feedback feedback = feedbackRepository.findById(feedbackId)
+        // 작성자/라인 피드백을 한 번에 적재 (지연 로딩 연쇄 방지), 댓글은 convertToDetailDto 에서 첫 페이지만
+        Feedback feedback = feedbackRepository.findDetailById(feedbackId)
                 .orElseThrow(() -> new IllegalArgumentException("피드백을 찾을 수 없습니다."));
         return convertToDetailDto(feedback, currentUser);
     }
 
     // ✅ 게시물별 피드백 목록 조회
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    @Transactional(readOnly = true)
     public List<FeedbackResponseDto> getFeedbackListByPost(Long postId, String currentUsername) {
         User currentUser = getUserOrNull(currentUsername);
 
-        return feedbackRepository.findByPost_PostId(postId).stream()
-                .map(feedback -> convertToDto(feedback, currentUser))
-                .collect(Collectors.toList());
+        return convertToDtos(feedbackRepository.findByPostAfter(postId, null, Pageable.unpaged()), currentUser);
+    }
+
+    // ✅ 게시물별 피드백 목록 조회 (커서 기반, 오래된 순)
+    @Transactional(readOnly = true)
+    public CursorResponseDto<FeedbackResponseDto> getFeedbackListByPostCursor(Long postId, String cursor, int size, String currentUsername) {
+        User currentUser = getUserOrNull(currentUsername);
+        FeedbackCursor after = FeedbackCursor.decode(cursor, postId);
+        Long afterId = (after != null) ? after.feedbackId() : null;
+
+        // 한 건 더 읽어 다음 페이지 존재 여부 판단
+        List<Feedback> rows = feedbackRepository.findByPostAfter(postId, afterId, PageRequest.of(0, size + 1));
+        boolean hasNext = rows.size() > size;
+        List<Feedback> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = hasNext ? FeedbackCursor.after(postId, page.get(page.size() - 1)).encode() : null;
+        return CursorResponseDto.of(convertToDtos(page, currentUser), nextCursor);
     }
 
     // ✅ 좋아요 토글
     public String toggleLike(Long feedbackId, String currentUsername) {
         User currentUser = findUserByUsername(currentUsername);
+        if (!feedbackRepository.existsById(feedbackId)) {
+            throw new IllegalArgumentException("피드백을 찾을 수 없습니다.");
+        }
 
-        Feedback feedback = feedbackRepository.findById(feedbackId)
-                .orElseThrow(() -> new IllegalArgumentException("피드백을 찾을 수 없습니다."));
-
-        Optional<FeedbackLike> existingLike =
-                feedbackLikesRepository.findByUserAndFeedback_FeedbackId(currentUser, feedbackId);
-
-        // 좋아요 존재 → 취소
-        if (existingLike.isPresent()) {
-            feedbackLikesRepository.delete(existingLike.get());
+        // 현재 상태의 반대로 설정. 방향은 캐시가 아니라 DB 영향 행 수로 정함 (해제 시도 후 지운 행이 없으면 추가)
+        if (applyLike(currentUser, feedbackId, false)) {
+            return "좋아요 취소";
         }
-        // 좋아요 없음 → 추가
-        else {
-            FeedbackLike like = FeedbackLike.builder()
-                    .feedback(feedback)
-                    .user(currentUser)
-                    .build();
-            feedbackLikesRepository.save(like);
+        applyLike(currentUser, feedbackId, true);
+        return "좋아요 추가";
+    }
+
+    // 좋아요 설정(true)/해제(false). 이미 그 상태면 아무것도 바꾸지 않음
+    public String setLike(Long feedbackId, String currentUsername, boolean liked) {
+        User currentUser = findUserByUsername(currentUsername);
+        if (!feedbackRepository.existsById(feedbackId)) {
+            throw new IllegalArgumentException("피드백을 찾을 수 없습니다.");
         }
 
-        //feedbackRepository.save(feedback);
+        applyLike(currentUser, feedbackId, liked);
+        return liked ? "좋아요 추가" : "좋아요 취소";
+    }
+
+    // INSERT IGNORE / 조건부 DELETE: 중복 요청은 유니크 제약 예외 대신 영향 행 0. 실제로 바뀌었는지 반환
+    private boolean applyLike(User user, Long feedbackId, boolean liked) {
+        int changed = liked
+                ? feedbackLikesRepository.insertIfAbsent(user.getUserId(), feedbackId)
+                : feedbackLikesRepository.deleteIfPresent(user.getUserId(), feedbackId);
+        if (changed == 0) return false;
 
-        return existingLike.isPresent() ? "좋아요 취소" : "좋아요 추가";
+        userEngagementCache.setFeedbackLikedAfterCommit(user.getUserId(), feedbackId, liked);
+        return true;
     }
 
     // 피드백 채택
@@ -240,9 +315,19 @@ public class FeedbackService {
                 .content(dto.getContent())
                 .build();
 
+        lineFeedbackIntervalIndex.evictAfterCommit(feedback.getPost().getPostId());
         return LineFeedbackDto.from(lineFeedbackRepository.save(lineFeedback));
     }
 
+    // ✅ [READ] 게시물 전체 피드백 중 [from, to] 줄 범위에 걸친 라인피드백 (코드 뷰어 거터용)
+    @Transactional(readOnly = true)
+    public List<LineFeedbackDto> getLineFeedbacksInRange(Long postId, int from, int to) {
+        if (from < 1 || from > to) {
+            throw new IllegalArgumentException("잘못된 줄 범위입니다.");
+        }
+        return lineFeedbackIntervalIndex.overlapping(postId, from, to);
+    }
+
     // ✅ [READ] 특정 피드백의 라인피드백 목록 조회
     public List<LineFeedbackDto> getLineFeedbacks(Long feedbackId) {
         return lineFeedbackRepository.findByFeedback_FeedbackId(feedbackId)
@@ -267,6 +352,7 @@ public class FeedbackService {
 
         lineFeedback.setContent(dto.getContent());
         lineFeedback.setEndLineNumber(dto.getEndLineNumber());
+        lineFeedbackIntervalIndex.evictAfterCommit(lineFeedback.getFeedback().getPost().getPostId());
         return LineFeedbackDto.from(lineFeedbackRepository.save(lineFeedback));
     }
 
@@ -285,6 +371,7 @@ public class FeedbackService {
         }
 
         lineFeedbackRepository.delete(lineFeedback);
+        lineFeedbackIntervalIndex.evictAfterCommit(lineFeedback.getFeedback().getPost().getPostId());
     }
 
     // ============================================================
@@ -308,13 +395,33 @@ public class FeedbackService {
 
     // ✅ 댓글 목록 조회
     public List<FeedbackCommentDto> getCommentsByFeedback(Long feedbackId) {
-        return feedbackCommentRepository.findByFeedback_FeedbackId(feedbackId).stream()
+        return feedbackCommentRepository.findThreadAfter(feedbackId, null, null, Pageable.unpaged()).stream()
                 .map(FeedbackCommentDto::from)
                 .collect(Collectors.toList());
     }
 
+    // ✅ 댓글 목록 조회 (커서 기반, 오래된 순)
+    @Transactional(readOnly = true)
+    public CursorResponseDto<FeedbackCommentDto> getCommentsByFeedbackCursor(Long feedbackId, String cursor, int size) {
+        return loadCommentPage(feedbackId, CommentCursor.decode(cursor), size);
+    }
+
+    // 한 건 더 읽어 다음 페이지 존재 여부 판단 (작성자/프로필은 fetch join)
+    private CursorResponseDto<FeedbackCommentDto> loadCommentPage(Long feedbackId, CommentCursor cursor, int size) {
+        List<FeedbackComment> rows = feedbackCommentRepository.findThreadAfter(
+                feedbackId,
+                (cursor != null) ? cursor.createdAt() : null,
+                (cursor != null) ? cursor.commentId() : null,
+                PageRequest.of(0, size + 1));
+        boolean hasNext = rows.size() > size;
+        List<FeedbackComment> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = hasNext ? CommentCursor.after(page.get(page.size() - 1)).encode() : null;
+        return CursorResponseDto.of(page.stream().map(FeedbackCommentDto::from).toList(), nextCursor);
+    }
+
     // 마이페이지: 특정 사용자의 피드백 페이징
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    @Transactional(readOnly = true)
     public Page<FeedbackResponseDto> getFeedbacksByUserId(Long userId, Pageable pageable, String currentUsername) {
         User currentUser = getUserOrNull(currentUsername);
 
@@ -326,7 +433,7 @@ public class FeedbackService {
     }
 
     // 마이페이지: 사용자 피드백 최근 4개
-    @org.springframework.transaction.annotation.Transactional(readOnly = true)
+    @Transactional(readOnly = true)
     public List<FeedbackResponseDto> getRecentFeedbacksByUserId(Long userId, String currentUsername) {
         User currentUser = getUserOrNull(currentUsername);
 
@@ -0,0 +1,171 @@
+// 게시물 코드 수정 전후의 줄 대응표를 구하는 줄 단위 diff (Myers O(ND), 선형 공간 분할 정복)
+package com.example.codegardener.feedback.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * 줄을 정수 ID 로 바꾸고 반대편에 없는 줄을 걸러낸 뒤 공통 앞/뒤 부분을 잘라내고, 남은 구간은 Myers 의 middle snake 로 반씩 나눠 재귀적으로 맞춘다.
+ * 메모리는 O(N + M), 시간은 O((N + M) * D) 라 편집 거리 D 에 비례해 늘어난다.
+ * 줄 순서를 크게 뒤섞은 수정은 D 가 수천이 되어 수백 ms 가 걸릴 수 있으므로 maxEdits 를 넘으면 중간에 멈춘다.
+ */
+final class LineDiff {
+
+    private final int[] a;
+    private final int[] b;
+    private final int[] map;
+    private final int maxEdits;
+    // 편집 거리가 maxEdits 를 넘어 계산을 멈췄는지
+    private boolean exceeded;
+
+    private LineDiff(int[] a, int[] b, int maxEdits) {
+        this.a = a;
+        this.b = b;
+        this.maxEdits = maxEdits;
+        this.map = new int[a.length];
+        Arrays.fill(map, -1);
+    }
+
+    /**
+     * 이전 코드의 각 줄(0부터)이 새 코드의 몇 번째 줄(0부터)로 옮겨졌는지. 삭제/변경된 줄은 -1.
+     */
+    static int[] lineMap(String oldText, String newText) {
+        return lineMap(oldText, newText, Integer.MAX_VALUE);
+    }
+
+    /**
+     * lineMap 과 같지만, 양쪽에 다 있는 줄끼리의 편집 거리(삽입 + 삭제 줄 수)가 maxEdits 를 넘으면 null.
+     */
+    static int[] lineMap(String oldText, String newText, int maxEdits) {
+        String[] oldLines = split(oldText);
+        String[] newLines = split(newText);
+        Map<String, Integer> ids = new HashMap<>();
+        int[] oldIds = encode(oldLines, ids);
+        int[] newIds = encode(newLines, ids);
+
+        // 한쪽에만 있는 줄은 어떤 대응에도 들어갈 수 없으므로 빼고 비교 (통째로 바꾼 코드도 바로 끝남)
+        int[] oldKept = keepShared(oldIds, newIds, ids.size());
+        int[] newKept = keepShared(newIds, oldIds, ids.size());
+        LineDiff diff = new LineDiff(pick(oldIds, oldKept), pick(newIds, newKept), maxEdits);
+        diff.compare(0, oldKept.length, 0, newKept.length);
+        if (diff.exceeded) return null;
+
+        int[] result = new int[oldLines.length];
+        Arrays.fill(result, -1);
+        for (int i = 0; i < oldKept.length; i++) {
+            if (diff.map[i] >= 0) result[oldKept[i]] = newKept[diff.map[i]];
+        }
+        return result;
+    }
+
+    static int lineCount(String text) {
+        return split(text).length;
+    }
+
+    private static String[] split(String text) {
+        if (text == null || text.isEmpty()) return new String[0];
+        return text.split("\r\n|\r|\n", -1);
+    }
+
+    private static int[] encode(String[] lines, Map<String, Integer> ids) {
+        int[] encoded = new int[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            encoded[i] = ids.computeIfAbsent(lines[i], line -> ids.size());
+        }
+        return encoded;
+    }
+
+    // other 에도 있는 줄의 인덱스
+    private static int[] keepShared(int[] lines, int[] other, int idCount) {
+        boolean[] present = new boolean[idCount];
+        for (int id : other) present[id] = true;
+        return IntStream.range(0, lines.length).filter(i -> present[lines[i]]).toArray();
+    }
+
+    private static int[] pick(int[] lines, int[] indexes) {
+        int[] picked = new int[indexes.length];
+        for (int i = 0; i < indexes.length; i++) picked[i] = lines[indexes[i]];
+        return picked;
+    }
+
+    // a[aLo, aHi) 와 b[bLo, bHi) 를 맞춤
+    private void compare(int aLo, int aHi, int bLo, int bHi) {
+        while (aLo < aHi && bLo < bHi && a[aLo] == b[bLo]) {
+            map[aLo++] = bLo++;
+        }
+        while (aLo < aHi && bLo < bHi && a[aHi - 1] == b[bHi - 1]) {
+            map[--aHi] = --bHi;
+        }
+        if (aLo == aHi || bLo == bHi) return; // 한쪽이 비면 남은 줄은 전부 삽입 또는 삭제
+
+        // 양쪽이 비지 않고 앞뒤가 다르므로 편집 거리 D >= 2 이고, 나뉜 두 구간은 각각 D 보다 작음
+        // (한도는 처음 호출에서만 걸리고, 그 안을 통과하면 나뉜 구간은 한도에 닿지 않음)
+        int[] snake = middleSnake(aLo, aHi, bLo, bHi);
+        if (snake == null) {
+            exceeded = true;
+            return;
+        }
+        compare(aLo, snake[0], bLo, snake[1]);
+        for (int x = snake[0], y = snake[1]; x < snake[2]; x++, y++) {
+            map[x] = y;
+        }
+        compare(snake[2], aHi, snake[3], bHi);
+    }
+
+    /**
+     * 최단 편집 경로의 가운데 snake {시작 x, 시작 y, 끝 x, 끝 y} (절대 좌표).
+     * 앞에서 d 번, 뒤에서 d 번 편집한 경로를 번갈아 늘리다 같은 대각선에서 겹치면 멈춘다.
+     * vf[k] 는 앞쪽 경로가 대각선 k = x - y 에서 도달한 x, vb[k] 는 뒤집은 문제에서 같은 값.
+     * 앞쪽 d 단계에서 찾으면 D = 2d - 1, 뒤쪽이면 D = 2d 이므로 그 값이 maxEdits 를 넘기 전에 null 로 멈춘다.
+     */
+    private int[] middleSnake(int aLo, int aHi, int bLo, int bHi) {
+        int n = aHi - aLo;
+        int m = bHi - bLo;
+        int delta = n - m;
+        boolean odd = (delta & 1) != 0;
+        int max = (n + m + 1) / 2;
+        int offset = max + 1;
+        int[] vf = new int[2 * max + 3];
+        int[] vb = new int[2 * max + 3];
+
+        for (int d = 0; d <= max; d++) {
+            if (2L * d - 1 > maxEdits) return null;
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && vf[offset + k - 1] < vf[offset + k + 1]))
+                        ? vf[offset + k + 1]
+                        : vf[offset + k - 1] + 1;
+                int y = x - k;
+                int startX = x, startY = y;
+                while (x < n && y < m && a[aLo + x] == b[bLo + y]) {
+                    x++;
+                    y++;
+                }
+                vf[offset + k] = x;
+                int reverseK = delta - k;
+                if (odd && reverseK >= -(d - 1) && reverseK <= d - 1 && x + vb[offset + reverseK] >= n) {
+                    return new int[]{aLo + startX, bLo + startY, aLo + x, bLo + y};
+                }
+            }
+            if (2L * d > maxEdits) return null;
+            for (int k = -d; k <= d; k += 2) {
+                int x = (k == -d || (k != d && vb[offset + k - 1] < vb[offset + k + 1]))
+                        ? vb[offset + k + 1]
+                        : vb[offset + k - 1] + 1;
+                int y = x - k;
+                int startX = x, startY = y;
+                while (x < n && y < m && a[aHi - 1 - x] == b[bHi - 1 - y]) {
+                    x++;
+                    y++;
+                }
+                vb[offset + k] = x;
+                int forwardK = delta - k;
+                if (!odd && forwardK >= -d && forwardK <= d && x + vf[offset + forwardK] >= n) {
+                    return new int[]{aHi - x, bHi - y, aHi - startX, bHi - startY};
+                }
+            }
+        }
+        throw new IllegalStateException("diff 경로를 찾지 못했습니다.");
+    }
+}
@@ -0,0 +1,146 @@
+// 게시물별 라인 피드백을 구간 트리로 캐시해 "이 줄 범위에 걸친 라인 피드백"을 바로 찾는 인덱스 (코드 뷰어 거터 표시용)
+package com.example.codegardener.feedback.service;
+
+import com.example.codegardener.feedback.dto.LineFeedbackDto;
+import com.example.codegardener.feedback.repository.LineFeedbackRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 게시물 하나의 모든 피드백에 달린 라인 피드백을 [lineNumber, endLineNumber] 구간으로 보고,
+ * 시작 줄 기준으로 정렬한 배열 위에 암묵적 균형 트리(가운데 원소가 루트)를 얹어 서브트리별 최대 끝 줄을 저장한다.
+ * 겹침 조회는 최대 끝 줄이 from 보다 작은 서브트리와 시작 줄이 to 보다 큰 오른쪽을 잘라내므로 O(log n + k).
+ *
+ * 처음 조회할 때 적재하고, 라인 피드백이 바뀌는 트랜잭션이 커밋되면 해당 게시물 항목을 버린다.
+ * (적재 중에 무효화가 오면 Caffeine 이 적재가 끝난 뒤 제거하므로 커밋 전 상태가 남지 않음)
+ */
+@Slf4j
+@Component
+public class LineFeedbackIntervalIndex {
+
+    private final LineFeedbackRepository lineFeedbackRepository;
+    private final Cache<Long, Intervals> cache;
+
+    public LineFeedbackIntervalIndex(LineFeedbackRepository lineFeedbackRepository,
+                                     @Value("${feedback.line-index.max-posts:1000}") long maxPosts,
+                                     @Value("${feedback.line-index.idle-minutes:30}") long idleMinutes) {
+        this.lineFeedbackRepository = lineFeedbackRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxPosts)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    // ====================== 조회 ======================
+
+    // [from, to] 줄 범위와 겹치는 라인 피드백 (시작 줄, ID 순)
+    public List<LineFeedbackDto> overlapping(Long postId, int from, int to) {
+        Intervals intervals = cache.get(postId, this::load);
+        List<LineFeedbackDto> result = new ArrayList<>();
+        intervals.collect(0, intervals.spans.length - 1, from, to, result);
+        return result;
+    }
+
+    private Intervals load(Long postId) {
+        List<Span> spans = lineFeedbackRepository.findSpansByPostId(postId).stream()
+                .map(Span::from)
+                .sorted(Span.ORDER)
+                .toList();
+        log.debug("[LINE_INDEX] loaded postId={} spans={}", postId, spans.size());
+        return new Intervals(spans.toArray(new Span[0]));
+    }
+
+    // ====================== 무효화 ======================
+
+    public void evictAfterCommit(Long postId) {
+        if (postId == null) return;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(postId);
+                }
+            });
+        } else {
+            cache.invalidate(postId);
+        }
+    }
+
+    // ====================== 구간 트리 ======================
+
+    // 캐시에 두는 불변 값 (응답마다 새 DTO 로 변환)
+    private record Span(long lineFeedbackId, long feedbackId, long userId, int start, int end,
+                        Integer endLineNumber, boolean outdated, String content,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        static final Comparator<Span> ORDER = Comparator
+                .comparingInt(Span::start)
+                .thenComparingLong(Span::lineFeedbackId);
+
+        static Span from(LineFeedbackRepository.LineSpanView view) {
+            int start = view.getLineNumber();
+            // 끝 줄이 없거나 시작 줄보다 앞이면 한 줄짜리로 취급
+            int end = (view.getEndLineNumber() != null) ? Math.max(view.getEndLineNumber(), start) : start;
+            return new Span(view.getLineFeedbackId(), view.getFeedbackId(), view.getUserId(), start, end,
+                    view.getEndLineNumber(), Boolean.TRUE.equals(view.getOutdated()), view.getContent(),
+                    view.getCreatedAt(), view.getUpdatedAt());
+        }
+
+        LineFeedbackDto toDto() {
+            return LineFeedbackDto.builder()
+                    .lineFeedbackId(lineFeedbackId)
+                    .feedbackId(feedbackId)
+                    .userId(userId)
+                    .lineNumber(start)
+                    .endLineNumber(endLineNumber)
+                    .outdated(outdated)
+                    .content(content)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
+
+    private static final class Intervals {
+        private final Span[] spans;  // 시작 줄 오름차순
+        private final int[] maxEnd;  // 구간 [lo, hi] 의 가운데 인덱스에 그 서브트리의 최대 끝 줄
+
+        private Intervals(Span[] spans) {
+            this.spans = spans;
+            this.maxEnd = new int[spans.length];
+            build(0, spans.length - 1);
+        }
+
+        private int build(int lo, int hi) {
+            if (lo > hi) return Integer.MIN_VALUE;
+            int mid = (lo + hi) >>> 1;
+            int max = Math.max(spans[mid].end(), Math.max(build(lo, mid - 1), build(mid + 1, hi)));
+            maxEnd[mid] = max;
+            return max;
+        }
+
+        // 중위 순회라 결과가 시작 줄 순서로 쌓임
+        private void collect(int lo, int hi, int from, int to, List<LineFeedbackDto> out) {
+            if (lo > hi) return;
+            int mid = (lo + hi) >>> 1;
+            if (maxEnd[mid] < from) return; // 이 서브트리는 모두 from 이전에 끝남
+
+            collect(lo, mid - 1, from, to, out);
+            Span span = spans[mid];
+            if (span.start() > to) return; // 오른쪽은 모두 to 이후에 시작
+            if (span.end() >= from) out.add(span.toDto());
+            collect(mid + 1, hi, from, to, out);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+// 게시물 코드가 수정되면 라인 피드백의 줄 번호를 새 코드 기준으로 옮기고, 대상 줄이 바뀐 피드백은 outdated 로 표시
+package com.example.codegardener.feedback.service;
+
+import com.example.codegardener.feedback.repository.LineFeedbackRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 호출하는 트랜잭션(PostService.update) 안에서 실행되며, 바뀐 행만 JDBC 배치 UPDATE 한 번으로 반영한다.
+ * 범위 안의 줄 중 하나라도 삭제/변경되면 outdated 로 표시하고 (한번 표시되면 유지),
+ * 남은 줄이 있으면 그 첫 줄~마지막 줄로, 모두 사라졌으면 바로 앞에 남아 있던 줄의 다음 줄로 옮긴다.
+ * 편집 거리가 max-edit-distance 를 넘는 대규모 수정은 diff 를 끝까지 돌리지 않고 (게시물 수정 트랜잭션이 길어지므로)
+ * 모든 라인 피드백을 outdated 로 표시하고 줄 번호는 새 코드 길이 안으로만 맞춘다.
+ */
+@Slf4j
+@Component
+public class LineFeedbackReanchorer {
+
+    private static final String UPDATE_SQL =
+            "UPDATE line_feedback SET line_number = ?, end_line_number = ?, outdated = ? WHERE line_feedback_id = ?";
+
+    private final LineFeedbackRepository lineFeedbackRepository;
+    private final LineFeedbackIntervalIndex lineFeedbackIntervalIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxEditDistance;
+
+    public LineFeedbackReanchorer(LineFeedbackRepository lineFeedbackRepository,
+                                  LineFeedbackIntervalIndex lineFeedbackIntervalIndex,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${post.reanchor.max-edit-distance:1000}") int maxEditDistance) {
+        this.lineFeedbackRepository = lineFeedbackRepository;
+        this.lineFeedbackIntervalIndex = lineFeedbackIntervalIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxEditDistance = maxEditDistance;
+    }
+
+    public void reanchor(Long postId, String oldCode, String newCode) {
+        List<LineFeedbackRepository.LineAnchorView> anchors = lineFeedbackRepository.findAnchorsByPostId(postId);
+        if (anchors.isEmpty()) return;
+
+        long started = System.nanoTime();
+        int[] lineMap = LineDiff.lineMap(oldCode, newCode, maxEditDistance);
+        int newLineCount = LineDiff.lineCount(newCode);
+        if (lineMap == null) {
+            log.info("[LINE_FEEDBACK] edit distance over {} for postId={}, marking {} line feedbacks outdated",
+                    maxEditDistance, postId, anchors.size());
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        for (LineFeedbackRepository.LineAnchorView anchor : anchors) {
+            Object[] row = (lineMap != null) ? remap(anchor, lineMap, newLineCount) : markOutdated(anchor, newLineCount);
+            if (row != null) updates.add(row);
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            lineFeedbackIntervalIndex.evictAfterCommit(postId);
+        }
+        log.debug("[LINE_FEEDBACK] reanchored postId={} lineFeedbacks={} changed={} in {}ms",
+                postId, anchors.size(), updates.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // 바뀐 게 없으면 null, 있으면 UPDATE 파라미터 {line_number, end_line_number, outdated, id}
+    private Object[] remap(LineFeedbackRepository.LineAnchorView anchor, int[] lineMap, int newLineCount) {
+        int start = anchor.getLineNumber();
+        Integer oldEnd = anchor.getEndLineNumber();
+        int end = (oldEnd != null) ? Math.max(oldEnd, start) : start;
+
+        // 줄 번호는 1부터, lineMap 은 0부터
+        int firstKept = -1, lastKept = -1;
+        boolean lost = false;
+        for (int line = start; line <= end; line++) {
+            int mapped = (line >= 1 && line <= lineMap.length) ? lineMap[line - 1] : -1;
+            if (mapped < 0) {
+                lost = true;
+                continue;
+            }
+            if (firstKept < 0) firstKept = mapped + 1;
+            lastKept = mapped + 1;
+        }
+
+        int newStart, newEnd;
+        if (firstKept > 0) {
+            newStart = firstKept;
+            newEnd = lastKept;
+        } else {
+            newStart = Math.min(anchorAfterPrecedingLine(start, lineMap), Math.max(newLineCount, 1));
+            newEnd = newStart;
+        }
+        Integer newEndLineNumber = (oldEnd != null) ? Integer.valueOf(newEnd) : null;
+        boolean outdated = Boolean.TRUE.equals(anchor.getOutdated()) || lost;
+
+        if (newStart == start && Objects.equals(newEndLineNumber, oldEnd)
+                && outdated == Boolean.TRUE.equals(anchor.getOutdated())) {
+            return null;
+        }
+        return new Object[]{newStart, newEndLineNumber, outdated, anchor.getLineFeedbackId()};
+    }
+
+    // 대응표 없이 outdated 로 표시하고 줄 번호는 새 코드 범위 안으로만 자름
+    private Object[] markOutdated(LineFeedbackRepository.LineAnchorView anchor, int newLineCount) {
+        int lastLine = Math.max(newLineCount, 1);
+        int start = anchor.getLineNumber();
+        Integer oldEnd = anchor.getEndLineNumber();
+        int newStart = Math.min(start, lastLine);
+        Integer newEndLineNumber = (oldEnd != null) ? Integer.valueOf(Math.min(Math.max(oldEnd, start), lastLine)) : null;
+
+        if (newStart == start && Objects.equals(newEndLineNumber, oldEnd) && Boolean.TRUE.equals(anchor.getOutdated())) {
+            return null;
+        }
+        return new Object[]{newStart, newEndLineNumber, true, anchor.getLineFeedbackId()};
+    }
+
+    // start 앞에서 가장 가까운 남아 있는 줄의 새 위치 + 1 (없으면 1)
+    private static int anchorAfterPrecedingLine(int start, int[] lineMap) {
+        for (int line = Math.min(start - 1, lineMap.length); line >= 1; line--) {
+            if (lineMap[line - 1] >= 0) return lineMap[line - 1] + 2;
+        }
+        return 1;
+    }
+}
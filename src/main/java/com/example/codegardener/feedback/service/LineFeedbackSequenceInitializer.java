@@ -0,0 +1,41 @@
+// 라인 피드백 ID 를 IDENTITY 에서 pooled 시퀀스로 바꾼 뒤, 시퀀스가 기존 ID 보다 뒤에서 시작하도록 맞추는 기동 작업
+package com.example.codegardener.feedback.service;
+
+import com.example.codegardener.feedback.domain.LineFeedback;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * MySQL 에는 시퀀스가 없어 Hibernate 가 line_feedback_seq 테이블(next_val 한 행)로 흉내 내는데,
+ * ddl-auto=update 로 새로 생긴 테이블은 1부터 시작하므로 기존 auto_increment 로 발급된 ID 와 겹친다.
+ * 웹 요청을 받기 전(빈 초기화 시점)에 next_val 을 MAX(line_feedback_id) + allocationSize 이상으로 올려 둔다.
+ * (이미 충분히 크면 그대로 두므로 재기동해도 안전)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LineFeedbackSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+    // 스키마 갱신(ddl-auto)이 끝난 뒤 실행되도록 의존
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void alignSequence() {
+        try {
+            int updated = jdbcTemplate.update("""
+                    UPDATE line_feedback_seq
+                    SET next_val = GREATEST(next_val,
+                            (SELECT COALESCE(MAX(line_feedback_id), 0) FROM line_feedback) + 1 + ?)
+                    """, LineFeedback.ID_ALLOCATION_SIZE);
+            log.info("[LINE_FEEDBACK] id sequence aligned (rows={})", updated);
+        } catch (Exception e) {
+            // 시퀀스 테이블이 없는 환경(네이티브 시퀀스를 쓰는 DB 등)에서는 건너뜀
+            log.warn("[LINE_FEEDBACK] id sequence align skipped: {}", e.getMessage());
+        }
+    }
+}
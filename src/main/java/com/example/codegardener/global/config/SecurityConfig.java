@@ -69,13 +69,18 @@ public class SecurityConfig {
                                 "/api/posts",
                                 "/api/posts/*",
                                 "/api/posts/search",
+                                "/api/posts/search/cursor",
                                 "/api/feedback/post/*",
+                                "/api/feedback/post/*/cursor",
+                                "/api/feedback/post/*/lines",
                                 "/api/feedback/*",
                                 "/api/leaderboard/**",
                                 "/api/main"
                         ).permitAll()
 
                         .requestMatchers(HttpMethod.DELETE, "/api/user/{userId}/admin").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/posts/search/index-stats").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/ai/stats").hasRole("ADMIN")
 
                         .anyRequest().authenticated()
                 )
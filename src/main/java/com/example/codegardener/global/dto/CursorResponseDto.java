@@ -0,0 +1,23 @@
+package com.example.codegardener.global.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 무한 스크롤용 커서 기반 목록 응답 (전체 개수는 계산하지 않음)
+@Getter
+@AllArgsConstructor
+public class CursorResponseDto<T> {
+    private List<T> content;
+    private String nextCursor; // 다음 요청에 그대로 전달 (마지막 페이지면 null)
+    private boolean hasNext;
+
+    public static <T> CursorResponseDto<T> of(List<T> content, String nextCursor) {
+        return new CursorResponseDto<>(content, nextCursor, nextCursor != null);
+    }
+
+    public static <T> CursorResponseDto<T> empty() {
+        return new CursorResponseDto<>(List.of(), null, false);
+    }
+}
@@ -8,13 +8,19 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.codegardener.ai.dto.AiReviewJobDto;
+import com.example.codegardener.global.dto.CursorResponseDto;
 import com.example.codegardener.post.dto.PostRequestDto;
 import com.example.codegardener.post.dto.PostResponseDto;
+import com.example.codegardener.post.dto.PostSummaryDto;
+import com.example.codegardener.post.service.PostSearchIndex;
 import com.example.codegardener.post.service.PostService;
 
 @RestController
@@ -54,7 +60,7 @@ public class PostController {
 
     //페이징 목록
     @GetMapping
-    public ResponseEntity<Page<PostResponseDto>> getPostList(
+    public ResponseEntity<Page<PostSummaryDto>> getPostList(
             @RequestParam(required = false) Boolean contentsType,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -66,12 +72,26 @@ public class PostController {
         int safePage = normalizePage(page);
         int safeSize = normalizeSize(size);
 
-        Page<PostResponseDto> postPage =
+        Page<PostSummaryDto> postPage =
                 postService.getPostList(safePage, safeSize, contentsType, sortBy, currentUsername);
 
         return ResponseEntity.ok(postPage);
     }
 
+    //커서 기반 목록 (무한 스크롤, 전체 개수 없음)
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorResponseDto<PostSummaryDto>> getPostListByCursor(
+            @RequestParam(required = false) Boolean contentsType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(name = "order", defaultValue = "recent") String order,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        String currentUsername = (userDetails != null) ? userDetails.getUsername() : null;
+        return ResponseEntity.ok(postService.getPostListByCursor(
+                contentsType, mapOrderToSortKey(order), cursor, normalizeSize(size), currentUsername));
+    }
+
     // ====================== UPDATE ======================
     @PutMapping("/{id}")
     public ResponseEntity<PostResponseDto> update(
@@ -102,7 +122,7 @@ public class PostController {
 
     // ====================== SEARCH (통합 검색) ======================
     @GetMapping("/search")
-    public ResponseEntity<Page<PostResponseDto>> searchUnified(
+    public ResponseEntity<Page<PostSummaryDto>> searchUnified(
             @RequestParam(required = false) String q,
             @RequestParam(name = "languages", required = false) List<String> languages,
             @RequestParam(name = "langs", required = false) String langsCsv,
@@ -116,32 +136,74 @@ public class PostController {
     ) {
         String currentUsername = (userDetails != null) ? userDetails.getUsername() : null;
 
-        String sort = switch (order.toLowerCase()) {
-            case "popular"  -> "views";
-            case "feedback" -> "feedback";
-            default         -> "latest";
-        };
+        Page<PostSummaryDto> result = postService.discoverAdvanced(
+                q, languages, langsCsv, stacks, stacksCsv, contentsType,
+                normalizePage(page), normalizeSize(size), mapOrderToSortKey(order), currentUsername
+        );
 
-        int safePage = Math.max(page, 0);
-        int safeSize = Math.min(Math.max(size, 1), 50);
+        return ResponseEntity.ok(result);
+    }
+
+    // 커서 기반 통합 검색 (무한 스크롤, 전체 개수 없음)
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorResponseDto<PostSummaryDto>> searchUnifiedByCursor(
+            @RequestParam(required = false) String q,
+            @RequestParam(name = "languages", required = false) List<String> languages,
+            @RequestParam(name = "langs", required = false) String langsCsv,
+            @RequestParam(name = "stacks", required = false) List<String> stacks,
+            @RequestParam(name = "tech", required = false) String stacksCsv,
+            @RequestParam(required = false) Boolean contentsType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(name = "order", defaultValue = "recent") String order,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        String currentUsername = (userDetails != null) ? userDetails.getUsername() : null;
 
-        Page<PostResponseDto> result = postService.discoverAdvanced(
+        CursorResponseDto<PostSummaryDto> result = postService.discoverByCursor(
                 q, languages, langsCsv, stacks, stacksCsv, contentsType,
-                safePage, safeSize, sort, currentUsername
+                cursor, normalizeSize(size), mapOrderToSortKey(order), currentUsername
         );
 
         return ResponseEntity.ok(result);
     }
 
+    // 검색 인덱스 메모리 사용량 리포트 (관리자 전용)
+    @GetMapping("/search/index-stats")
+    public ResponseEntity<PostSearchIndex.IndexStats> getSearchIndexStats() {
+        return ResponseEntity.ok(postService.getSearchIndexStats());
+    }
+
     // ====================== AI 피드백 ======================
+    // 생성 작업 등록 (202). 진행 상태는 GET /{id}/ai/job 으로 폴링
+    // regenerate=true 면 같은 내용으로 캐시된 리뷰가 있어도 새로 생성
     @PostMapping("/{id}/ai")
-    public ResponseEntity<PostResponseDto> regenerateAi(
+    public ResponseEntity<AiReviewJobDto> regenerateAi(
             @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean regenerate,
             @AuthenticationPrincipal UserDetails userDetails
     ) {
         String currentUsername = (userDetails != null) ? userDetails.getUsername() : null;
-        PostResponseDto dto = postService.generateAiFeedback(id, currentUsername);
-        return ResponseEntity.ok(dto);
+        AiReviewJobDto job = postService.requestAiFeedback(id, currentUsername, regenerate);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/posts/" + id + "/ai/job"))
+                .body(job);
+    }
+
+    // 생성 과정을 토큰 단위로 스트리밍 (text/event-stream: delta* -> done | error)
+    @PostMapping(value = "/{id}/ai/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAi(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean regenerate,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        String currentUsername = (userDetails != null) ? userDetails.getUsername() : null;
+        return postService.streamAiFeedback(id, currentUsername, regenerate);
+    }
+
+    @GetMapping("/{id}/ai/job")
+    public ResponseEntity<AiReviewJobDto> getAiFeedbackJob(@PathVariable Long id) {
+        return ResponseEntity.ok(postService.getAiFeedbackJob(id));
     }
 
     @GetMapping("/{id}/ai")
@@ -177,6 +239,55 @@ public class PostController {
         return ResponseEntity.ok().build();
     }
 
+    // 멱등 설정/해제 (여러 번 호출해도 결과 같음)
+    @PutMapping("/{postId}/like")
+    public ResponseEntity<Void> like(
+            @PathVariable Long postId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        if (userDetails == null) {
+            throw new IllegalArgumentException("좋아요를 누르려면 로그인이 필요합니다.");
+        }
+        postService.setLike(postId, userDetails.getUsername(), true);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/{postId}/like")
+    public ResponseEntity<Void> unlike(
+            @PathVariable Long postId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        if (userDetails == null) {
+            throw new IllegalArgumentException("좋아요를 취소하려면 로그인이 필요합니다.");
+        }
+        postService.setLike(postId, userDetails.getUsername(), false);
+        return ResponseEntity.ok().build();
+    }
+
+    @PutMapping("/{postId}/scrap")
+    public ResponseEntity<Void> scrap(
+            @PathVariable Long postId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        if (userDetails == null) {
+            throw new IllegalArgumentException("스크랩을 하려면 로그인이 필요합니다.");
+        }
+        postService.setScrap(postId, userDetails.getUsername(), true);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/{postId}/scrap")
+    public ResponseEntity<Void> unscrap(
+            @PathVariable Long postId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        if (userDetails == null) {
+            throw new IllegalArgumentException("스크랩을 취소하려면 로그인이 필요합니다.");
+        }
+        postService.setScrap(postId, userDetails.getUsername(), false);
+        return ResponseEntity.ok().build();
+    }
+
     // ====================== private 헬퍼 메서드 ======================
 
     private String mapOrderToSortKey(String order) {
@@ -184,6 +295,8 @@ public class PostController {
         return switch (order.toLowerCase()) {
             case "popular"  -> "views";
             case "feedback" -> "feedback";
+            case "hot"      -> "hot";      // 시간 감쇠 인기순
+            case "rating"   -> "rating";   // 평균 평점 높은 순
             default         -> "latest";   // recent 등 나머지
         };
     }
@@ -6,12 +6,29 @@ import java.util.List;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import com.example.codegardener.user.domain.User;
 import com.example.codegardener.feedback.domain.Feedback;
 
 @Entity
-@Table(name = "post")
+@Table(
+        name = "post",
+        indexes = {
+                // 목록 keyset 페이징용 (정렬 값 + post_id 로 동점 구분)
+                @Index(name = "idx_post_created_at", columnList = "created_at, post_id"),
+                @Index(name = "idx_post_ct_created_at", columnList = "contents_type, created_at, post_id"),
+                @Index(name = "idx_post_views", columnList = "views, post_id"),
+                @Index(name = "idx_post_ct_views", columnList = "contents_type, views, post_id"),
+                @Index(name = "idx_post_ct_like_count", columnList = "contents_type, like_count"),
+                // 피드백 많은 순 정렬이 인덱스 순서 그대로 읽히도록 post_id 까지 포함 (탭 필터 유무 각각)
+                @Index(name = "idx_post_ct_feedback_count", columnList = "contents_type, feedback_count, post_id"),
+                @Index(name = "idx_post_feedback_count", columnList = "feedback_count, post_id"),
+                // 평점 높은 순 정렬
+                @Index(name = "idx_post_ct_rating_avg", columnList = "contents_type, rating_avg, post_id"),
+                @Index(name = "idx_post_rating_avg", columnList = "rating_avg, post_id")
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -66,17 +83,47 @@ public class Post {
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PostScrap> scraps = new ArrayList<>();
 
+    // 검색 필터용 정규화 태그 (langTags / stackTags CSV 는 응답 호환을 위해 그대로 유지)
+    @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<PostTag> tags = new ArrayList<>();
+
     @Column(updatable = false, nullable = false)
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
     private LocalDateTime modifiedAt;
 
-    @Column(nullable = false)
+    // 조회 시 직접 증가시키지 않고 PostCounterBuffer가 모아서 배치로 반영
+    // (SQL 로만 증감하므로 엔티티 flush 로 오래된 값을 덮어쓰지 않도록 updatable = false)
+    @Column(nullable = false, updatable = false)
     private int views = 0;
-    public void increaseViews() {
-        this.views++;
-    }
+
+    // ===== 반정규화 카운터 (PostCounterBuffer가 배치로 반영, PostCounterReconciler가 주기적으로 보정, 엔티티 변경으로는 덮어쓰지 않음) ===== //
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long likeCount;
+
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long scrapCount;
+
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long feedbackCount;
+
+    // ===== 평점 집계 (PostRatingAggregator 가 SQL 로 직접 증감하므로 엔티티 변경으로는 덮어쓰지 않음) ===== //
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long ratingCount;
+
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private double ratingSum;
+
+    // rating_sum / rating_count (정렬 인덱스용)
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private double ratingAvg;
 
     @PrePersist
     protected void onCreate() {
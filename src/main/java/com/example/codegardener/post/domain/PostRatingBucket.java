@@ -0,0 +1,30 @@
+package com.example.codegardener.post.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// 게시물별 평점 분포 (0.5점 단위 구간별 피드백 수). PostRatingAggregator 가 upsert 로 갱신
+@Entity
+@Table(
+        name = "post_rating_bucket",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"post_id", "bucket"})
+)
+@Getter
+@NoArgsConstructor
+public class PostRatingBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long postRatingBucketId;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    // 평점 * 2 (1 = 0.5점 ... 10 = 5.0점)
+    @Column(nullable = false)
+    private int bucket;
+
+    @Column(nullable = false)
+    private long ratingCount;
+}
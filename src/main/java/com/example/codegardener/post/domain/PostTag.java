@@ -0,0 +1,30 @@
+package com.example.codegardener.post.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(
+        name = "post_tag",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"post_id", "tag_id"}),
+        indexes = @Index(name = "idx_post_tag_tag", columnList = "tag_id, post_id")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+public class PostTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long postTagId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    private Post post;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tag_id", nullable = false)
+    private Tag tag;
+}
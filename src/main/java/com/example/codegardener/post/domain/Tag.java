@@ -0,0 +1,28 @@
+package com.example.codegardener.post.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 태그 사전 (언어/기술스택 이름 -> tag_id)
+@Entity
+@Table(name = "tag", uniqueConstraints = @UniqueConstraint(columnNames = {"type", "name"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class Tag {
+
+    public static final int MAX_NAME_LENGTH = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long tagId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TagType type;
+
+    @Column(nullable = false, length = MAX_NAME_LENGTH)
+    private String name;
+}
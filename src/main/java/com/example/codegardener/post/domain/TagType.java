@@ -0,0 +1,14 @@
+package com.example.codegardener.post.domain;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum TagType {
+
+    LANGUAGE("프로그래밍 언어"),
+    STACK("기술 스택");
+
+    private final String title;
+}
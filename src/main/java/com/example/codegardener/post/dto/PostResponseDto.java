@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Getter
 @Builder
@@ -36,12 +37,18 @@ public class PostResponseDto {
     private final long feedbackCount;
     private final int views;
 
+    private final long ratingCount;
+    private final double ratingAverage;
+    // "0.5" ~ "5.0" 구간별 피드백 수 (상세 조회에서만, 목록에서는 null)
+    private final Map<String, Long> ratingHistogram;
+
     private final LocalDateTime createdAt;
     private final LocalDateTime modifiedAt;
 
     private final String aiFeedback;
 
-    public static PostResponseDto of(Post post, long likesCount, long scrapCount, long feedbackCount, boolean liked, boolean scrapped){
+    public static PostResponseDto of(Post post, int views, long likesCount, long scrapCount, long feedbackCount, boolean liked, boolean scrapped,
+                                     Map<String, Long> ratingHistogram){
         String userPicture = null;
         UserProfile profile = post.getUser().getUserProfile();
         if (profile != null) {
@@ -67,7 +74,10 @@ public class PostResponseDto {
                 .scrapCount(scrapCount)
                 .scrapped(scrapped)
                 .feedbackCount(feedbackCount)
-                .views(post.getViews())
+                .views(views)
+                .ratingCount(post.getRatingCount())
+                .ratingAverage(post.getRatingAvg())
+                .ratingHistogram(ratingHistogram)
                 .createdAt(post.getCreatedAt())
                 .modifiedAt(post.getModifiedAt())
                 .aiFeedback(post.getAiFeedback())
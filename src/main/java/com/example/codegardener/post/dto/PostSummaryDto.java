@@ -0,0 +1,61 @@
+package com.example.codegardener.post.dto;
+
+import com.example.codegardener.post.repository.PostRepository;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// 목록/검색/인기/프로필 화면의 게시물 카드용 응답 (본문, 코드, 문제 설명, AI 피드백은 상세 조회에서만 제공)
+@Getter
+@Builder
+public class PostSummaryDto {
+
+    private final Long postId;
+    private final Long userId;
+    private final String userName;
+    private final String userPicture;
+
+    private final String title;
+    private final String summary;
+
+    private final String languages;
+    private final String stacks;
+
+    private final Boolean contentsType;
+
+    private final long likesCount;
+    private final boolean liked;
+    private final long scrapCount;
+    private final boolean scrapped;
+    private final long feedbackCount;
+    private final long ratingCount;
+    private final double ratingAverage;
+    private final int views;
+
+    private final LocalDateTime createdAt;
+
+    public static PostSummaryDto of(PostRepository.PostSummaryView view, int views, long likesCount, long scrapCount,
+                                    long feedbackCount, boolean liked, boolean scrapped) {
+        return PostSummaryDto.builder()
+                .postId(view.getPostId())
+                .userId(view.getUserId())
+                .userName(view.getUserName())
+                .userPicture(view.getUserPicture())
+                .title(view.getTitle())
+                .summary(view.getSummary())
+                .languages(view.getLangTags())
+                .stacks(view.getStackTags())
+                .contentsType(view.getContentsType())
+                .likesCount(likesCount)
+                .liked(liked)
+                .scrapCount(scrapCount)
+                .scrapped(scrapped)
+                .feedbackCount(feedbackCount)
+                .ratingCount(view.getRatingCount())
+                .ratingAverage(view.getRatingAvg())
+                .views(views)
+                .createdAt(view.getCreatedAt())
+                .build();
+    }
+}
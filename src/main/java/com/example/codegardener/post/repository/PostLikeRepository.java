@@ -4,11 +4,28 @@ import com.example.codegardener.post.domain.Post;
 import com.example.codegardener.post.domain.PostLike;
 import com.example.codegardener.user.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface PostLikeRepository extends JpaRepository<PostLike, Long> {
     Optional<PostLike> findByUserAndPost(User user, Post post);
     long countByPost(Post post);
     boolean existsByUserAndPost(User user, Post post);
+
+    // 사용자별 좋아요 여부 캐시(UserEngagementCache) 적재용
+    @Query("SELECT l.post.postId FROM PostLike l WHERE l.user.userId = :userId")
+    List<Long> findAllPostIdsByUserId(@Param("userId") Long userId);
+
+    // 좋아요 설정/해제: 영향 행 수(0 또는 1)로 실제 변경 여부를 판단 (중복 요청은 유니크 제약 예외 대신 0)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO post_likes (user_id, post_id) VALUES (:userId, :postId)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Modifying
+    @Query(value = "DELETE FROM post_likes WHERE user_id = :userId AND post_id = :postId", nativeQuery = true)
+    int deleteIfPresent(@Param("userId") Long userId, @Param("postId") Long postId);
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.example.codegardener.post.repository;
+
+import com.example.codegardener.post.domain.PostRatingBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PostRatingBucketRepository extends JpaRepository<PostRatingBucket, Long> {
+
+    List<PostRatingBucket> findByPostId(Long postId);
+
+    @Modifying
+    @Query("DELETE FROM PostRatingBucket b WHERE b.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    // 분포 보정: post_id 구간의 분포를 feedback 테이블 기준으로 다시 만듦 (deleteRange 후 rebuildRange)
+    @Modifying
+    @Query(value = "DELETE FROM post_rating_bucket WHERE post_id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int deleteRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Modifying
+    @Query(
+            value = """
+        INSERT INTO post_rating_bucket (post_id, bucket, rating_count)
+        SELECT f.post_id, LEAST(GREATEST(ROUND(f.rating * 2), 1), 10), COUNT(*)
+        FROM feedback f
+        WHERE f.post_id BETWEEN :fromId AND :toId AND f.rating IS NOT NULL
+        GROUP BY f.post_id, LEAST(GREATEST(ROUND(f.rating * 2), 1), 10)
+        """,
+            nativeQuery = true
+    )
+    int rebuildRange(@Param("fromId") long fromId, @Param("toId") long toId);
+}
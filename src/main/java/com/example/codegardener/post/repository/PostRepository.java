@@ -5,14 +5,76 @@ import com.example.codegardener.user.domain.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
 
+    // 목록 카드용 조회 결과 (TEXT/LONGTEXT 본문 컬럼 제외)
+    interface PostSummaryView {
+        Long getPostId();
+        String getTitle();
+        String getSummary();
+        String getLangTags();
+        String getStackTags();
+        Boolean getContentsType();
+        int getViews();
+        long getLikeCount();
+        long getScrapCount();
+        long getFeedbackCount();
+        long getRatingCount();
+        double getRatingAvg();
+        LocalDateTime getCreatedAt();
+        Long getUserId();
+        String getUserName();
+        String getUserPicture();
+    }
+
+    // 인기 게시물 랭킹(PopularPostRanking) 적재용 조회 결과
+    interface PostLikeRank {
+        Long getPostId();
+        long getLikeCount();
+        LocalDateTime getCreatedAt();
+    }
+
+    // hot 랭킹(HotPostRanking) 초기화용 조회 결과
+    interface PostHotSource {
+        Long getPostId();
+        Boolean getContentsType();
+        LocalDateTime getCreatedAt();
+        int getViews();
+        long getLikeCount();
+        long getScrapCount();
+        long getFeedbackCount();
+    }
+
+    // 검색 인덱스(PostSearchIndex) 구축용 최소 컬럼 조회 결과
+    interface PostSearchSource {
+        Long getPostId();
+        String getTitle();
+        String getContent();
+        String getUserName();
+    }
+
+    // CSV 태그 컬럼 -> post_tag 이관용 조회 결과
+    interface PostTagSource {
+        Long getPostId();
+        String getLangTags();
+        String getStackTags();
+    }
+
+    // 탭(contentsType) 비트맵 구축용 조회 결과
+    interface PostContentsType {
+        Long getPostId();
+        Boolean getContentsType();
+    }
+
     // 1) 키워드 단건 검색 (제목/내용/작성자) — 파라미터 1개 (LIKE용)
     @Query(
             value = """
@@ -38,28 +100,36 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     )
     Page<Post> searchSimple(@Param("qLike") String qLike, Pageable pageable);
 
-    // 2) 탭 필터
-    Page<Post> findByContentsType(Boolean contentsType, Pageable pageable);
+    // 2) 목록 (탭 필터 + Pageable 정렬), ID만 조회 후 findSummariesByIds 로 카드 필드를 채움
+    @Query(value = "SELECT p.postId FROM Post p WHERE (:contentsType IS NULL OR p.contentsType = :contentsType)",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE (:contentsType IS NULL OR p.contentsType = :contentsType)")
+    Page<Long> findIdPage(@Param("contentsType") Boolean contentsType, Pageable pageable);
 
     // 3) 통합 검색 (키워드 + 언어OR + 스택OR + 탭AND + 정렬 + 페이징)
+    //    idsFiltered = true 이면 검색/태그 인덱스가 좁힌 후보(ids) 안에서만 나머지 조건을 확인
+    //    langFiltered / stackFiltered 는 태그 비트맵을 쓰지 못할 때만 post_tag 조인으로 확인
     @Query(
             value = """
-        SELECT p.*
+        SELECT p.post_id
         FROM post p
         LEFT JOIN `user` u ON u.user_id = p.user_id
         WHERE
-          (
+          ( :idsFiltered = FALSE OR p.post_id IN (:ids) )
+          AND (
             :qLike IS NULL
             OR LOWER(p.title)     LIKE :qLike
             OR LOWER(p.content)   LIKE :qLike
             OR LOWER(u.user_name) LIKE :qLike
           )
           AND ( :ct IS NULL OR p.contents_type = :ct )
-          AND ( :langRegex  IS NULL OR (p.lang_tags  IS NOT NULL AND LOWER(p.lang_tags)  REGEXP :langRegex) )
-          AND ( :stackRegex IS NULL OR (p.stack_tags IS NOT NULL AND LOWER(p.stack_tags) REGEXP :stackRegex) )
+          AND ( :langFiltered = FALSE
+                OR EXISTS (SELECT 1 FROM post_tag pt WHERE pt.post_id = p.post_id AND pt.tag_id IN (:langTagIds)) )
+          AND ( :stackFiltered = FALSE
+                OR EXISTS (SELECT 1 FROM post_tag pt WHERE pt.post_id = p.post_id AND pt.tag_id IN (:stackTagIds)) )
         ORDER BY
           CASE WHEN :sort = 'views'    THEN p.views END DESC,
-          CASE WHEN :sort = 'feedback' THEN (SELECT COUNT(*) FROM feedback f WHERE f.post_id = p.post_id) END DESC,
+          CASE WHEN :sort = 'feedback' THEN p.feedback_count END DESC,
+          CASE WHEN :sort = 'rating'   THEN p.rating_avg END DESC,
           p.created_at DESC
         """,
             countQuery = """
@@ -67,37 +137,272 @@ public interface PostRepository extends JpaRepository<Post, Long> {
         FROM post p
         LEFT JOIN `user` u ON u.user_id = p.user_id
         WHERE
-          (:qLike IS NULL OR LOWER(p.title) LIKE :qLike OR LOWER(p.content) LIKE :qLike OR LOWER(u.user_name) LIKE :qLike)
+          ( :idsFiltered = FALSE OR p.post_id IN (:ids) )
+          AND (:qLike IS NULL OR LOWER(p.title) LIKE :qLike OR LOWER(p.content) LIKE :qLike OR LOWER(u.user_name) LIKE :qLike)
           AND ( :ct IS NULL OR p.contents_type = :ct )
-          AND ( :langRegex  IS NULL OR (p.lang_tags  IS NOT NULL AND LOWER(p.lang_tags)  REGEXP :langRegex) )
-          AND ( :stackRegex IS NULL OR (p.stack_tags IS NOT NULL AND LOWER(p.stack_tags) REGEXP :stackRegex) )
+          AND ( :langFiltered = FALSE
+                OR EXISTS (SELECT 1 FROM post_tag pt WHERE pt.post_id = p.post_id AND pt.tag_id IN (:langTagIds)) )
+          AND ( :stackFiltered = FALSE
+                OR EXISTS (SELECT 1 FROM post_tag pt WHERE pt.post_id = p.post_id AND pt.tag_id IN (:stackTagIds)) )
         """,
             nativeQuery = true
     )
-    Page<Post> discover(
+    Page<Long> discover(
+            @Param("idsFiltered") boolean idsFiltered,
+            @Param("ids") List<Long> ids,
             @Param("qLike") String qLike,
             @Param("ct") Boolean contentsType,
-            @Param("langRegex") String langRegex,
-            @Param("stackRegex") String stackRegex,
+            @Param("langFiltered") boolean langFiltered,
+            @Param("langTagIds") List<Long> langTagIds,
+            @Param("stackFiltered") boolean stackFiltered,
+            @Param("stackTagIds") List<Long> stackTagIds,
             @Param("sort") String sort,
             Pageable pageable
     );
 
-    @Query("SELECT p FROM Post p LEFT JOIN p.feedbacks f " +
+    // 3-1) 통합 검색 keyset 페이징 (COUNT 없음, limit 은 size + 1 로 다음 페이지 존재 여부 판단)
+    //      cursorId = null 이면 첫 페이지, 정렬 키는 sort 별로 (정렬 값, post_id) 쌍
+    @Query(
+            value = """
+        SELECT p.post_id
+        FROM post p
+        LEFT JOIN `user` u ON u.user_id = p.user_id
+        WHERE
+          ( :idsFiltered = FALSE OR p.post_id IN (:ids) )
+          AND (
+            :qLike IS NULL
+            OR LOWER(p.title)     LIKE :qLike
+            OR LOWER(p.content)   LIKE :qLike
+            OR LOWER(u.user_name) LIKE :qLike
+          )
+          AND ( :ct IS NULL OR p.contents_type = :ct )
+          AND ( :langFiltered = FALSE
+                OR EXISTS (SELECT 1 FROM post_tag pt WHERE pt.post_id = p.post_id AND pt.tag_id IN (:langTagIds)) )
+          AND ( :stackFiltered = FALSE
+                OR EXISTS (SELECT 1 FROM post_tag pt WHERE pt.post_id = p.post_id AND pt.tag_id IN (:stackTagIds)) )
+          AND (
+            :cursorId IS NULL
+            OR (:sort = 'views'    AND (p.views < :cursorCount
+                                        OR (p.views = :cursorCount AND p.post_id < :cursorId)))
+            OR (:sort = 'feedback' AND (p.feedback_count < :cursorCount
+                                        OR (p.feedback_count = :cursorCount AND p.post_id < :cursorId)))
+            OR (:sort = 'rating'   AND (p.rating_avg < :cursorScore
+                                        OR (p.rating_avg = :cursorScore AND p.post_id < :cursorId)))
+            OR (:sort = 'latest'   AND (p.created_at < :cursorAt
+                                        OR (p.created_at = :cursorAt AND p.post_id < :cursorId)))
+          )
+        ORDER BY
+          CASE WHEN :sort = 'views'    THEN p.views END DESC,
+          CASE WHEN :sort = 'feedback' THEN p.feedback_count END DESC,
+          CASE WHEN :sort = 'rating'   THEN p.rating_avg END DESC,
+          CASE WHEN :sort = 'latest'   THEN p.created_at END DESC,
+          p.post_id DESC
+        LIMIT :limit
+        """,
+            nativeQuery = true
+    )
+    List<Long> discoverAfter(
+            @Param("idsFiltered") boolean idsFiltered,
+            @Param("ids") List<Long> ids,
+            @Param("qLike") String qLike,
+            @Param("ct") Boolean contentsType,
+            @Param("langFiltered") boolean langFiltered,
+            @Param("langTagIds") List<Long> langTagIds,
+            @Param("stackFiltered") boolean stackFiltered,
+            @Param("stackTagIds") List<Long> stackTagIds,
+            @Param("sort") String sort,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorCount") Long cursorCount,
+            @Param("cursorScore") Double cursorScore,
+            @Param("cursorId") Long cursorId,
+            @Param("limit") int limit
+    );
+
+    // 3-2) 통합 검색 hot 정렬용: 조건에 맞는 게시물 ID 를 최신순으로 최대 limit 개 (정렬은 HotPostRanking 점수로 메모리에서 수행)
+    @Query(
+            value = """
+        SELECT p.post_id
+        FROM post p
+        LEFT JOIN `user` u ON u.user_id = p.user_id
+        WHERE
+          ( :idsFiltered = FALSE OR p.post_id IN (:ids) )
+          AND (
+            :qLike IS NULL
+            OR LOWER(p.title)     LIKE :qLike
+            OR LOWER(p.content)   LIKE :qLike
+            OR LOWER(u.user_name) LIKE :qLike
+          )
+          AND ( :ct IS NULL OR p.contents_type = :ct )
+          AND ( :langFiltered = FALSE
+                OR EXISTS (SELECT 1 FROM post_tag pt WHERE pt.post_id = p.post_id AND pt.tag_id IN (:langTagIds)) )
+          AND ( :stackFiltered = FALSE
+                OR EXISTS (SELECT 1 FROM post_tag pt WHERE pt.post_id = p.post_id AND pt.tag_id IN (:stackTagIds)) )
+        ORDER BY p.post_id DESC
+        LIMIT :limit
+        """,
+            nativeQuery = true
+    )
+    List<Long> discoverRecentIds(
+            @Param("idsFiltered") boolean idsFiltered,
+            @Param("ids") List<Long> ids,
+            @Param("qLike") String qLike,
+            @Param("ct") Boolean contentsType,
+            @Param("langFiltered") boolean langFiltered,
+            @Param("langTagIds") List<Long> langTagIds,
+            @Param("stackFiltered") boolean stackFiltered,
+            @Param("stackTagIds") List<Long> stackTagIds,
+            @Param("limit") int limit
+    );
+
+    // 4) 목록 keyset 페이징 (정렬별로 인덱스 순서대로 읽도록 쿼리를 분리, cursorId = null 이면 첫 페이지)
+    @Query("SELECT p.postId FROM Post p " +
             "WHERE (:contentsType IS NULL OR p.contentsType = :contentsType) " +
-            "GROUP BY p " +
-            "ORDER BY COUNT(f) DESC, p.createdAt DESC")
-    Page<Post> findAllOrderByFeedbackCountDesc(@Param("contentsType") Boolean contentsType, Pageable pageable);
+            "AND (:cursorId IS NULL OR p.createdAt < :cursorAt " +
+            "     OR (p.createdAt = :cursorAt AND p.postId < :cursorId)) " +
+            "ORDER BY p.createdAt DESC, p.postId DESC")
+    List<Long> findLatestAfter(@Param("contentsType") Boolean contentsType,
+                               @Param("cursorAt") LocalDateTime cursorAt,
+                               @Param("cursorId") Long cursorId,
+                               Pageable limit);
 
-    @Query("SELECT p FROM Post p LEFT JOIN p.likes l " +
+    @Query("SELECT p.postId FROM Post p " +
             "WHERE (:contentsType IS NULL OR p.contentsType = :contentsType) " +
-            "GROUP BY p " +
-            "ORDER BY COUNT(l) DESC, p.createdAt DESC " +
-            "LIMIT 7")
-    List<Post> findTop7ByLikes(@Param("contentsType") Boolean contentsType);
+            "AND (:cursorId IS NULL OR p.views < :cursorViews " +
+            "     OR (p.views = :cursorViews AND p.postId < :cursorId)) " +
+            "ORDER BY p.views DESC, p.postId DESC")
+    List<Long> findMostViewedAfter(@Param("contentsType") Boolean contentsType,
+                                   @Param("cursorViews") Integer cursorViews,
+                                   @Param("cursorId") Long cursorId,
+                                   Pageable limit);
+
+    @Query("SELECT p.postId FROM Post p " +
+            "WHERE (:contentsType IS NULL OR p.contentsType = :contentsType) " +
+            "AND (:cursorId IS NULL OR p.feedbackCount < :cursorFeedbacks " +
+            "     OR (p.feedbackCount = :cursorFeedbacks AND p.postId < :cursorId)) " +
+            "ORDER BY p.feedbackCount DESC, p.postId DESC")
+    List<Long> findMostFeedbackAfter(@Param("contentsType") Boolean contentsType,
+                                     @Param("cursorFeedbacks") Long cursorFeedbacks,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable limit);
+
+    @Query("SELECT p.postId FROM Post p " +
+            "WHERE (:contentsType IS NULL OR p.contentsType = :contentsType) " +
+            "AND (:cursorId IS NULL OR p.ratingAvg < :cursorRating " +
+            "     OR (p.ratingAvg = :cursorRating AND p.postId < :cursorId)) " +
+            "ORDER BY p.ratingAvg DESC, p.postId DESC")
+    List<Long> findTopRatedAfter(@Param("contentsType") Boolean contentsType,
+                                 @Param("cursorRating") Double cursorRating,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable limit);
+
+    @Query(value = "SELECT p.postId FROM Post p " +
+            "WHERE (:contentsType IS NULL OR p.contentsType = :contentsType) " +
+            "ORDER BY p.feedbackCount DESC, p.postId DESC",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE (:contentsType IS NULL OR p.contentsType = :contentsType)")
+    Page<Long> findIdsOrderByFeedbackCountDesc(@Param("contentsType") Boolean contentsType, Pageable pageable);
+
+    // 좋아요 순 인기 게시물 (PopularPostRanking 적재용, idx_post_ct_like_count 사용)
+    @Query("SELECT p.postId AS postId, p.likeCount AS likeCount, p.createdAt AS createdAt FROM Post p " +
+            "WHERE (:contentsType IS NULL OR p.contentsType = :contentsType) " +
+            "ORDER BY p.likeCount DESC, p.createdAt DESC, p.postId DESC")
+    List<PostLikeRank> findTopLikeRanks(@Param("contentsType") Boolean contentsType, Pageable limit);
 
     long countByUser(User user);
-    Page<Post> findByUser_UserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
-    List<Post> findFirst4ByUser_UserIdOrderByCreatedAtDesc(Long userId);
+
+    @Query(value = "SELECT p.postId FROM Post p WHERE p.user.userId = :userId ORDER BY p.createdAt DESC",
+            countQuery = "SELECT COUNT(p) FROM Post p WHERE p.user.userId = :userId")
+    Page<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT p.postId FROM Post p WHERE p.user.userId = :userId ORDER BY p.createdAt DESC LIMIT 4")
+    List<Long> findRecent4IdsByUserId(@Param("userId") Long userId);
     long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query(
+            value = """
+        SELECT p.post_id AS postId, p.title AS title, p.content AS content, u.user_name AS userName
+        FROM post p
+        LEFT JOIN `user` u ON u.user_id = p.user_id
+        WHERE p.post_id > :afterId
+        ORDER BY p.post_id
+        LIMIT :limit
+        """,
+            nativeQuery = true
+    )
+    List<PostSearchSource> findSearchSourcesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    // 아직 post_tag 로 이관되지 않은 CSV 태그 보유 게시물
+    @Query(
+            value = """
+        SELECT p.post_id AS postId, p.lang_tags AS langTags, p.stack_tags AS stackTags
+        FROM post p
+        WHERE p.post_id > :afterId
+          AND (p.lang_tags IS NOT NULL OR p.stack_tags IS NOT NULL)
+          AND NOT EXISTS (SELECT 1 FROM post_tag pt WHERE pt.post_id = p.post_id)
+        ORDER BY p.post_id
+        LIMIT :limit
+        """,
+            nativeQuery = true
+    )
+    List<PostTagSource> findUnmigratedTagSourcesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query(
+            value = """
+        SELECT p.post_id AS postId, p.contents_type AS contentsType
+        FROM post p
+        WHERE p.post_id > :afterId
+        ORDER BY p.post_id
+        LIMIT :limit
+        """,
+            nativeQuery = true
+    )
+    List<PostContentsType> findContentsTypesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    // 목록 ID -> 카드 필드 (순서는 보장하지 않으므로 호출 측에서 ID 순서대로 정렬)
+    @Query("SELECT p.postId AS postId, p.title AS title, p.summary AS summary, " +
+            "p.langTags AS langTags, p.stackTags AS stackTags, p.contentsType AS contentsType, " +
+            "p.views AS views, p.likeCount AS likeCount, p.scrapCount AS scrapCount, p.feedbackCount AS feedbackCount, " +
+            "p.ratingCount AS ratingCount, p.ratingAvg AS ratingAvg, " +
+            "p.createdAt AS createdAt, u.userId AS userId, u.userName AS userName, up.userPicture AS userPicture " +
+            "FROM Post p JOIN p.user u LEFT JOIN u.userProfile up " +
+            "WHERE p.postId IN :postIds")
+    List<PostSummaryView> findSummariesByIds(@Param("postIds") Collection<Long> postIds);
+
+    @Query(
+            value = """
+        SELECT p.post_id AS postId, p.contents_type AS contentsType, p.created_at AS createdAt,
+               p.views AS views, p.like_count AS likeCount, p.scrap_count AS scrapCount, p.feedback_count AS feedbackCount
+        FROM post p
+        WHERE p.post_id > :afterId
+        ORDER BY p.post_id
+        LIMIT :limit
+        """,
+            nativeQuery = true
+    )
+    List<PostHotSource> findHotSourcesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    // AI 리뷰 결과 저장 (엔티티를 읽어 저장하면 그사이 반영된 카운터를 옛 값으로 덮어쓰므로 컬럼만 갱신)
+    @Modifying
+    @Query("UPDATE Post p SET p.aiFeedback = :aiFeedback WHERE p.postId = :postId")
+    int updateAiFeedback(@Param("postId") Long postId, @Param("aiFeedback") String aiFeedback);
+
+    @Query("SELECT MAX(p.postId) FROM Post p")
+    Long findMaxPostId();
+
+    // 반정규화 카운터 보정: 원본 테이블 기준으로 다시 계산 (값이 달라진 행만 갱신됨)
+    @Modifying
+    @Transactional
+    @Query(
+            value = """
+        UPDATE post p
+        SET p.like_count     = (SELECT COUNT(*) FROM post_likes l  WHERE l.post_id = p.post_id),
+            p.scrap_count    = (SELECT COUNT(*) FROM post_scraps s WHERE s.post_id = p.post_id),
+            p.feedback_count = (SELECT COUNT(*) FROM feedback f    WHERE f.post_id = p.post_id),
+            p.rating_count   = (SELECT COUNT(f.rating) FROM feedback f WHERE f.post_id = p.post_id),
+            p.rating_sum     = (SELECT COALESCE(SUM(f.rating), 0) FROM feedback f WHERE f.post_id = p.post_id),
+            p.rating_avg     = (SELECT COALESCE(AVG(f.rating), 0) FROM feedback f WHERE f.post_id = p.post_id)
+        WHERE p.post_id BETWEEN :fromId AND :toId
+        """,
+            nativeQuery = true
+    )
+    int reconcileCounters(@Param("fromId") long fromId, @Param("toId") long toId);
 }
\ No newline at end of file
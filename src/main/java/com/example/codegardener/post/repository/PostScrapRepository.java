@@ -6,6 +6,9 @@ import com.example.codegardener.user.domain.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,11 +17,28 @@ public interface PostScrapRepository extends JpaRepository<PostScrap, Long> {
     List<PostScrap> findAllByUser(User user);
     Optional<PostScrap> findByUserAndPost(User user, Post post);
 
-    // 사용자가 스크랩한 게시물 페이징
-    Page<PostScrap> findAllByUser(User user, Pageable pageable);
-    // 사용자가 최근 스크랩한 게시물 4개
-    List<PostScrap> findFirst4ByUserOrderByCreatedAtDesc(User user);
+    // 사용자가 스크랩한 게시물 ID 페이징 (스크랩 시각 정렬은 Pageable 로 전달)
+    @Query(value = "SELECT s.post.postId FROM PostScrap s WHERE s.user = :user",
+            countQuery = "SELECT COUNT(s) FROM PostScrap s WHERE s.user = :user")
+    Page<Long> findPostIdsByUser(@Param("user") User user, Pageable pageable);
+    // 사용자가 최근 스크랩한 게시물 ID 4개
+    @Query("SELECT s.post.postId FROM PostScrap s WHERE s.user = :user ORDER BY s.createdAt DESC LIMIT 4")
+    List<Long> findRecent4PostIdsByUser(@Param("user") User user);
 
     long countByPost(Post post);
     boolean existsByUserAndPost(User user, Post post);
+
+    // 사용자별 스크랩 여부 캐시(UserEngagementCache) 적재용
+    @Query("SELECT s.post.postId FROM PostScrap s WHERE s.user.userId = :userId")
+    List<Long> findAllPostIdsByUserId(@Param("userId") Long userId);
+
+    // 스크랩 설정/해제: 영향 행 수(0 또는 1)로 실제 변경 여부를 판단
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO post_scraps (user_id, post_id, created_at) VALUES (:userId, :postId, NOW(6))",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Modifying
+    @Query(value = "DELETE FROM post_scraps WHERE user_id = :userId AND post_id = :postId", nativeQuery = true)
+    int deleteIfPresent(@Param("userId") Long userId, @Param("postId") Long postId);
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.codegardener.post.repository;
+
+import com.example.codegardener.post.domain.PostTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PostTagRepository extends JpaRepository<PostTag, Long> {
+
+    // 태그 비트맵(PostTagIndex) 구축용 최소 컬럼 조회 결과
+    interface PostTagPair {
+        Long getPostTagId();
+        Long getPostId();
+        Long getTagId();
+    }
+
+    @Query("SELECT pt FROM PostTag pt JOIN FETCH pt.tag WHERE pt.post.postId = :postId")
+    List<PostTag> findByPostIdWithTag(@Param("postId") Long postId);
+
+    @Query(
+            value = """
+        SELECT pt.post_tag_id AS postTagId, pt.post_id AS postId, pt.tag_id AS tagId
+        FROM post_tag pt
+        WHERE pt.post_tag_id > :afterId
+        ORDER BY pt.post_tag_id
+        LIMIT :limit
+        """,
+            nativeQuery = true
+    )
+    List<PostTagPair> findPairsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+}
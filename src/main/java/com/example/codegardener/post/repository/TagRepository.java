@@ -0,0 +1,22 @@
+package com.example.codegardener.post.repository;
+
+import com.example.codegardener.post.domain.Tag;
+import com.example.codegardener.post.domain.TagType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    @Query("SELECT t FROM Tag t WHERE t.type = :type AND t.name IN :names")
+    List<Tag> findByTypeAndNames(@Param("type") TagType type, @Param("names") Collection<String> names);
+
+    // 동시에 같은 새 태그가 등록되어도 유니크 제약 위반 없이 한 건만 생성되도록 INSERT IGNORE 사용
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO tag (type, name) VALUES (:type, :name)", nativeQuery = true)
+    int insertIgnore(@Param("type") String type, @Param("name") String name);
+}
@@ -0,0 +1,296 @@
+// 좋아요/스크랩/피드백/조회에 시간 감쇠를 적용한 "hot" 점수로 게시물을 정렬해 두는 메모리 인덱스
+package com.example.codegardener.post.service;
+
+import com.example.codegardener.post.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 이벤트 하나의 가치는 시각 t 에서 w * exp(-λ(now - t)) 로 감쇠한다.
+ * 모든 게시물에 공통인 exp(-λ·now) 를 빼고 나면 순위는 S = Σ w * exp(λ(t - EPOCH)) 만으로 결정되므로,
+ * 시간이 흘러도 점수를 다시 계산할 필요 없이 이벤트가 들어올 때만 해당 게시물 점수를 갱신하면 된다.
+ * S 는 시간이 지날수록 지수적으로 커지므로 log(S) 로 저장하고 log-sum-exp 로 누적한다.
+ *
+ * 기동 시에는 이벤트 시각 정보가 없으므로 기존 누적 카운터를 게시 시각에 발생한 것으로 보고 초기화한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotPostRanking {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final long EPOCH_SECONDS = LocalDateTime.of(2025, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+
+    private final PostRepository postRepository;
+
+    @Value("${post.hot.half-life-hours:24}")
+    private double halfLifeHours;
+    @Value("${post.hot.weight.view:0.1}")
+    private double viewWeight;
+    @Value("${post.hot.weight.like:1.0}")
+    private double likeWeight;
+    @Value("${post.hot.weight.scrap:2.0}")
+    private double scrapWeight;
+    @Value("${post.hot.weight.feedback:3.0}")
+    private double feedbackWeight;
+
+    // 초당 감쇠율 λ = ln2 / 반감기
+    private double lambda;
+
+    // postId -> 현재 순위 키 (정렬 집합에서 제거할 때 필요)
+    private final ConcurrentHashMap<Long, Key> keys = new ConcurrentHashMap<>();
+    private final NavigableSet<Key> devOrder = new ConcurrentSkipListSet<>(Key.ORDER);
+    private final NavigableSet<Key> codingTestOrder = new ConcurrentSkipListSet<>(Key.ORDER);
+    private volatile boolean ready = false;
+
+    /**
+     * 정렬 키. logScore 내림차순, 동점이면 postId 내림차순.
+     * floor 는 게시 시각에 해당하는 최소 점수로, 좋아요 취소 등으로 이보다 내려가지 않게 한다.
+     */
+    public record Key(double logScore, long postId, boolean contentsType, double floor) {
+
+        static final Comparator<Key> ORDER = Comparator
+                .comparingDouble(Key::logScore).reversed()
+                .thenComparing(Comparator.comparingLong(Key::postId).reversed());
+
+        // 커서 비교용 (점수와 ID만 사용)
+        static Key probe(double logScore, long postId) {
+            return new Key(logScore, postId, false, logScore);
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        lambda = Math.log(2) / (halfLifeHours * 3600);
+    }
+
+    // ====================== 조회 ======================
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // 탭(null = 전체) 기준 hot 순서로 offset 부터 limit 개
+    public List<Long> page(Boolean contentsType, int offset, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Key> it = iterator(contentsType, null);
+        for (int skipped = 0; skipped < offset && it.hasNext(); skipped++) {
+            it.next();
+        }
+        while (ids.size() < limit && it.hasNext()) {
+            ids.add(it.next().postId());
+        }
+        return ids;
+    }
+
+    // 커서(마지막으로 받은 게시물의 점수, ID) 다음부터 limit 개
+    public List<Long> after(Boolean contentsType, double logScore, long postId, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        Iterator<Key> it = iterator(contentsType, Key.probe(logScore, postId));
+        while (ids.size() < limit && it.hasNext()) {
+            ids.add(it.next().postId());
+        }
+        return ids;
+    }
+
+    public long size(Boolean contentsType) {
+        if (contentsType == null) return keys.size();
+        return (contentsType ? devOrder : codingTestOrder).size();
+    }
+
+    // 인덱스에 없는 게시물은 가장 뒤로
+    public double scoreOf(Long postId) {
+        Key key = keys.get(postId);
+        return (key != null) ? key.logScore() : Double.NEGATIVE_INFINITY;
+    }
+
+    // 검색 결과처럼 이미 추려진 게시물 ID 를 hot 순서로 정렬
+    public List<Long> sort(Collection<Long> postIds) {
+        return postIds.stream()
+                .map(id -> Key.probe(scoreOf(id), id))
+                .sorted(Key.ORDER)
+                .map(Key::postId)
+                .toList();
+    }
+
+    // 위와 같되 커서(점수, ID) 다음 순서의 게시물만
+    public List<Long> sortAfter(Collection<Long> postIds, double logScore, long postId) {
+        Key cursor = Key.probe(logScore, postId);
+        return postIds.stream()
+                .map(id -> Key.probe(scoreOf(id), id))
+                .filter(key -> Key.ORDER.compare(key, cursor) > 0)
+                .sorted(Key.ORDER)
+                .map(Key::postId)
+                .toList();
+    }
+
+    private Iterator<Key> iterator(Boolean contentsType, Key after) {
+        if (contentsType != null) {
+            NavigableSet<Key> set = contentsType ? devOrder : codingTestOrder;
+            return (after == null) ? set.iterator() : set.tailSet(after, false).iterator();
+        }
+        NavigableSet<Key> dev = (after == null) ? devOrder : devOrder.tailSet(after, false);
+        NavigableSet<Key> codingTest = (after == null) ? codingTestOrder : codingTestOrder.tailSet(after, false);
+        return new MergeIterator(dev.iterator(), codingTest.iterator());
+    }
+
+    // ====================== 이벤트 반영 ======================
+
+    // PostCounterBuffer 에서 커밋된 변경분(조회는 즉시)마다 호출
+    public void onEngagement(Long postId, long views, long likes, long scraps, long feedbacks) {
+        if (!ready) return;
+        double weight = views * viewWeight + likes * likeWeight + scraps * scrapWeight + feedbacks * feedbackWeight;
+        if (weight == 0) return;
+
+        double logContribution = Math.log(Math.abs(weight)) + lambda * (nowSeconds() - EPOCH_SECONDS);
+        keys.computeIfPresent(postId, (id, old) -> {
+            double updated = (weight > 0)
+                    ? logAdd(old.logScore(), logContribution)
+                    : logSubtract(old.logScore(), logContribution, old.floor());
+            return reposition(old, new Key(updated, id, old.contentsType(), old.floor()));
+        });
+    }
+
+    public void onPostCreatedAfterCommit(Long postId, Boolean contentsType, LocalDateTime createdAt) {
+        afterCommit(() -> {
+            double floor = baseScore(createdAt);
+            Key key = new Key(floor, postId, Boolean.TRUE.equals(contentsType), floor);
+            keys.compute(postId, (id, old) -> reposition(old, key));
+        });
+    }
+
+    public void onContentsTypeChangedAfterCommit(Long postId, Boolean contentsType) {
+        afterCommit(() -> keys.computeIfPresent(postId, (id, old) -> reposition(old,
+                new Key(old.logScore(), id, Boolean.TRUE.equals(contentsType), old.floor()))));
+    }
+
+    public void removeAfterCommit(Long postId) {
+        afterCommit(() -> keys.computeIfPresent(postId, (id, old) -> reposition(old, null)));
+    }
+
+    // compute() 안에서만 호출되므로 같은 게시물의 정렬 집합 갱신은 직렬화됨
+    private Key reposition(Key old, Key updated) {
+        if (old != null) orderOf(old).remove(old);
+        if (updated != null) orderOf(updated).add(updated);
+        return updated;
+    }
+
+    private NavigableSet<Key> orderOf(Key key) {
+        return key.contentsType() ? devOrder : codingTestOrder;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // ====================== DB로부터 초기화 ======================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        while (true) {
+            List<PostRepository.PostHotSource> rows = postRepository.findHotSourcesAfter(afterId, LOAD_BATCH_SIZE);
+            if (rows.isEmpty()) break;
+            for (PostRepository.PostHotSource row : rows) {
+                double floor = baseScore(row.getCreatedAt());
+                double engagement = row.getViews() * viewWeight + row.getLikeCount() * likeWeight
+                        + row.getScrapCount() * scrapWeight + row.getFeedbackCount() * feedbackWeight;
+                // 게시 시각에 (1 + 누적 반응) 만큼의 이벤트가 있었던 것으로 간주
+                Key key = new Key(floor + Math.log1p(Math.max(engagement, 0)), row.getPostId(),
+                        Boolean.TRUE.equals(row.getContentsType()), floor);
+                keys.compute(row.getPostId(), (id, old) -> reposition(old, key));
+            }
+            afterId = rows.get(rows.size() - 1).getPostId();
+        }
+        ready = true;
+        log.info("[HOT] ranking loaded in {}ms: posts={}", System.currentTimeMillis() - started, keys.size());
+    }
+
+    // ====================== 점수 계산 ======================
+
+    // 게시 시각의 기본 점수 log(1 * exp(λ(t - EPOCH)))
+    private double baseScore(LocalDateTime createdAt) {
+        long seconds = (createdAt != null) ? createdAt.atZone(ZoneId.systemDefault()).toEpochSecond() : nowSeconds();
+        return lambda * (seconds - EPOCH_SECONDS);
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    // log(e^a + e^b)
+    private static double logAdd(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    // log(e^a - e^b), 결과가 floor 보다 작아지면 floor
+    private static double logSubtract(double a, double b, double floor) {
+        if (b >= a) return floor;
+        return Math.max(a + Math.log1p(-Math.exp(b - a)), floor);
+    }
+
+    // 두 탭의 정렬 집합을 하나의 순서로 병합
+    private static final class MergeIterator implements Iterator<Key> {
+        private final Iterator<Key> left;
+        private final Iterator<Key> right;
+        private Key nextLeft;
+        private Key nextRight;
+
+        private MergeIterator(Iterator<Key> left, Iterator<Key> right) {
+            this.left = left;
+            this.right = right;
+            this.nextLeft = left.hasNext() ? left.next() : null;
+            this.nextRight = right.hasNext() ? right.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLeft != null || nextRight != null;
+        }
+
+        @Override
+        public Key next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Key result;
+            if (nextRight == null || (nextLeft != null && Key.ORDER.compare(nextLeft, nextRight) <= 0)) {
+                result = nextLeft;
+                nextLeft = left.hasNext() ? left.next() : null;
+            } else {
+                result = nextRight;
+                nextRight = right.hasNext() ? right.next() : null;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+// 메인 페이지 인기 게시물(좋아요 순) 탭별 상위 K개를 메모리에 유지하는 랭킹
+package com.example.codegardener.post.service;
+
+import com.example.codegardener.post.domain.Post;
+import com.example.codegardener.post.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 정렬 기준은 PostRepository.findTopLikeRanks 와 같은 (likeCount DESC, createdAt DESC).
+ * 노출 개수(7)보다 넉넉한 capacity 만큼 추적해 두어 좋아요 취소로 순위가 내려가도 바로 아래 게시물이 채워지도록 하고,
+ * 추적 범위 밖에서 생기는 오차는 주기적인 DB 재적재로 보정한다.
+ * 재적재 쿼리가 도는 동안 들어온 좋아요 변경은 따로 모아 두었다가 새 스냅샷 위에 다시 적용한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PopularPostRanking {
+
+    public static final int SERVED_SIZE = 7;
+
+    private final PostRepository postRepository;
+    private final PostCounterBuffer postCounterBuffer;
+
+    @Value("${post.popular.capacity:50}")
+    private int capacity;
+
+    private final Board devBoard = new Board();
+    private final Board codingTestBoard = new Board();
+
+    // ====================== 조회 ======================
+
+    /**
+     * 탭별 인기 게시물 ID (좋아요 순 상위 7개).
+     * 전체 탭(null)이거나 아직 적재 전이면 null 이며, 호출 측은 DB 쿼리로 대체한다.
+     */
+    public List<Long> topIds(Boolean contentsType) {
+        if (contentsType == null) return null;
+        return boardOf(contentsType).snapshot;
+    }
+
+    // ====================== 변경 반영 ======================
+
+    // 좋아요/취소가 커밋된 뒤 해당 게시물의 순위 갱신
+    public void onLikeChangedAfterCommit(Post post, long delta) {
+        Long postId = post.getPostId();
+        Boolean contentsType = post.getContentsType();
+        LocalDateTime createdAt = post.getCreatedAt();
+        // 추적 중이 아닌 게시물은 트랜잭션에서 읽은 저장값 기준으로 진입 여부 판단 (버퍼 미반영분은 재적재 때 보정)
+        long estimated = post.getLikeCount() + delta;
+        afterCommit(() -> {
+            if (contentsType != null) boardOf(contentsType).apply(postId, createdAt, delta, estimated, capacity);
+        });
+    }
+
+    // 삭제 또는 탭 변경 시 기존 탭 랭킹에서 제거
+    public void removeAfterCommit(Long postId) {
+        afterCommit(() -> {
+            devBoard.remove(postId);
+            codingTestBoard.remove(postId);
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // ====================== DB로부터 재적재 ======================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${post.popular.reload-interval-ms:60000}")
+    public void reload() {
+        try {
+            // 버퍼에 쌓인 좋아요 변경분을 먼저 반영해야 DB 기준 순위가 최신이 됨
+            postCounterBuffer.flush();
+            // 이후 변경분은 쿼리 결과에 없으므로 기록해 두었다가 교체 시 다시 적용
+            devBoard.beginReload();
+            codingTestBoard.beginReload();
+            devBoard.replace(postRepository.findTopLikeRanks(true, PageRequest.of(0, capacity)), capacity);
+            codingTestBoard.replace(postRepository.findTopLikeRanks(false, PageRequest.of(0, capacity)), capacity);
+            log.debug("[POPULAR] ranking reloaded, capacity={}", capacity);
+        } catch (Exception e) {
+            // 실패해도 기존 랭킹을 계속 사용
+            log.error("[POPULAR] ranking reload 실패: {}", e.getMessage(), e);
+        } finally {
+            devBoard.endReload();
+            codingTestBoard.endReload();
+        }
+    }
+
+    private Board boardOf(boolean contentsType) {
+        return contentsType ? devBoard : codingTestBoard;
+    }
+
+    // ====================== 탭별 랭킹 ======================
+
+    private static final class Entry {
+        private final long postId;
+        private final LocalDateTime createdAt;
+        private final long likes;
+
+        private Entry(long postId, LocalDateTime createdAt, long likes) {
+            this.postId = postId;
+            this.createdAt = (createdAt != null) ? createdAt : LocalDateTime.MIN;
+            this.likes = likes;
+        }
+    }
+
+    // 재적재 중 들어온 변경 (게시물별 누적 delta 와 마지막 추정치)
+    private record Change(LocalDateTime createdAt, long delta, long estimated) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingLong((Entry e) -> e.likes).reversed()
+            .thenComparing((Entry e) -> e.createdAt, Comparator.reverseOrder())
+            .thenComparing((Entry e) -> e.postId, Comparator.reverseOrder());
+
+    // 갱신은 좋아요 이벤트마다 짧게 락을 잡고, 조회는 불변 스냅샷을 그대로 반환 (메인 페이지 요청은 락 없음)
+    private static final class Board {
+        private final TreeSet<Entry> ranked = new TreeSet<>(ORDER);
+        private final Map<Long, Entry> byPostId = new HashMap<>();
+        private volatile List<Long> snapshot = null;
+
+        // 재적재 중에만 non-null
+        private Map<Long, Change> reloadChanges;
+        private Set<Long> reloadRemoved;
+
+        private synchronized void apply(Long postId, LocalDateTime createdAt, long delta, long estimated, int capacity) {
+            if (reloadChanges != null) {
+                reloadChanges.merge(postId, new Change(createdAt, delta, estimated),
+                        (old, now) -> new Change(old.createdAt(), old.delta() + now.delta(), now.estimated()));
+            }
+            if (snapshot == null) return; // 적재 전에는 재적재 결과를 기다림
+            place(postId, createdAt, delta, estimated, capacity);
+            publish();
+        }
+
+        private void place(Long postId, LocalDateTime createdAt, long delta, long estimated, int capacity) {
+            Entry old = byPostId.get(postId);
+            if (old != null) {
+                ranked.remove(old);
+                put(new Entry(postId, old.createdAt, old.likes + delta));
+            } else {
+                Entry candidate = new Entry(postId, createdAt, estimated);
+                if (ranked.size() >= capacity && ORDER.compare(candidate, ranked.last()) > 0) return;
+                put(candidate);
+            }
+
+            while (ranked.size() > capacity) {
+                byPostId.remove(ranked.pollLast().postId);
+            }
+        }
+
+        private synchronized void remove(Long postId) {
+            if (reloadChanges != null) {
+                reloadChanges.remove(postId);
+                reloadRemoved.add(postId);
+            }
+            Entry old = byPostId.remove(postId);
+            if (old == null) return;
+            ranked.remove(old);
+            publish();
+        }
+
+        private synchronized void beginReload() {
+            reloadChanges = new HashMap<>();
+            reloadRemoved = new HashSet<>();
+        }
+
+        private synchronized void endReload() {
+            reloadChanges = null;
+            reloadRemoved = null;
+        }
+
+        // 쿼리 결과로 교체한 뒤, 쿼리 시작 이후 들어온 변경을 그 위에 다시 적용
+        private synchronized void replace(List<PostRepository.PostLikeRank> rows, int capacity) {
+            ranked.clear();
+            byPostId.clear();
+            for (PostRepository.PostLikeRank row : rows) {
+                if (reloadRemoved != null && reloadRemoved.contains(row.getPostId())) continue;
+                put(new Entry(row.getPostId(), row.getCreatedAt(), row.getLikeCount()));
+            }
+            if (reloadChanges != null) {
+                reloadChanges.forEach((postId, change) ->
+                        place(postId, change.createdAt(), change.delta(), change.estimated(), capacity));
+            }
+            endReload();
+            publish();
+        }
+
+        private void put(Entry entry) {
+            ranked.add(entry);
+            byPostId.put(entry.postId, entry);
+        }
+
+        private void publish() {
+            List<Long> top = new ArrayList<>(SERVED_SIZE);
+            for (Entry entry : ranked) {
+                if (top.size() == SERVED_SIZE) break;
+                top.add(entry.postId);
+            }
+            snapshot = List.copyOf(top);
+        }
+    }
+}
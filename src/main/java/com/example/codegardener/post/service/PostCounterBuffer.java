@@ -0,0 +1,212 @@
+// 게시물 조회수/좋아요/스크랩/피드백 수 변경분을 메모리에 모아 두었다가 주기적으로 배치 반영하는 버퍼
+package com.example.codegardener.post.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 인기 게시물에 좋아요가 몰려도 한 버킷 락에서 줄 서지 않도록 게시물별 변경분은 LongAdder(스레드별 셀로 분산)로 누적한다.
+ * 쓰기 측은 항목을 지우지 않고, flush 는 sumThenReset 으로 값만 비우므로 증가분이 유실되지 않는다.
+ * 한 주기 동안 변경이 없던 항목만 retired 로 표시 후 제거하며, 제거 직전에 항목을 집어 든 쓰기는 retired 를 보고
+ * 자기가 더한 값을 새 항목으로 옮긴다.
+ * flush(꺼내기~UPDATE 커밋)와 보정 구간의 대기분 폐기+재계산은 flushLock 으로 서로 배제한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostCounterBuffer {
+
+    private static final String FLUSH_SQL = """
+            UPDATE post
+            SET views          = views + ?,
+                like_count     = like_count + ?,
+                scrap_count    = scrap_count + ?,
+                feedback_count = feedback_count + ?
+            WHERE post_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HotPostRanking hotPostRanking;
+
+    // postId -> 아직 DB에 반영되지 않은 변경분
+    private final ConcurrentHashMap<Long, Delta> pending = new ConcurrentHashMap<>();
+
+    // 이미 꺼낸 변경분의 UPDATE 가 보정 재계산 뒤에 커밋되면 재계산 값에 한 번 더 더해지므로,
+    // flush 와 보정 구간 처리가 겹치지 않게 함 (스케줄 flush / 랭킹 reload 의 flush / 종료 시 flush 모두)
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // 버퍼에 쌓인 게시물별 변경분
+    public static final class Delta {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder likes = new LongAdder();
+        private final LongAdder scraps = new LongAdder();
+        private final LongAdder feedbacks = new LongAdder();
+        // flush 가 맵에서 제거한 항목 (이후 더해진 값은 쓰기 측이 새 항목으로 옮김)
+        private volatile boolean retired;
+
+        public long getViews() { return views.sum(); }
+        public long getLikes() { return likes.sum(); }
+        public long getScraps() { return scraps.sum(); }
+        public long getFeedbacks() { return feedbacks.sum(); }
+
+        private void add(long views, long likes, long scraps, long feedbacks) {
+            if (views != 0) this.views.add(views);
+            if (likes != 0) this.likes.add(likes);
+            if (scraps != 0) this.scraps.add(scraps);
+            if (feedbacks != 0) this.feedbacks.add(feedbacks);
+        }
+
+        // 지금까지 누적된 값을 꺼내고 0으로 (동시에 더해진 값은 이번 또는 다음 drain 중 정확히 한 번 포함됨)
+        private long[] drain() {
+            return new long[]{views.sumThenReset(), likes.sumThenReset(), scraps.sumThenReset(), feedbacks.sumThenReset()};
+        }
+    }
+
+    private static final Delta EMPTY = new Delta();
+
+    // ====================== 변경분 기록 ======================
+
+    // 조회수는 롤백 여부와 무관하므로 트랜잭션을 기다리지 않고 바로 누적 (행 락 없이 메모리에서만 증가)
+    public void addView(Long postId) {
+        record(postId, 1, 0, 0, 0);
+        hotPostRanking.onEngagement(postId, 1, 0, 0, 0);
+    }
+
+    public void addLikes(Long postId, long delta) {
+        recordAfterCommit(postId, delta, 0, 0);
+    }
+
+    public void addScraps(Long postId, long delta) {
+        recordAfterCommit(postId, 0, delta, 0);
+    }
+
+    public void addFeedbacks(Long postId, long delta) {
+        recordAfterCommit(postId, 0, 0, delta);
+    }
+
+    // 아직 반영되지 않은 변경분 조회 (읽기 시 DB 값에 더해 최신 값을 보여주기 위함)
+    public Delta pendingOf(Long postId) {
+        Delta delta = pending.get(postId);
+        return (delta != null) ? delta : EMPTY;
+    }
+
+    // 트랜잭션 안에서 호출되면 커밋된 경우에만 버퍼에 반영 (롤백된 좋아요가 카운트되지 않도록)
+    private void recordAfterCommit(Long postId, long likes, long scraps, long feedbacks) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(postId, 0, likes, scraps, feedbacks);
+                    hotPostRanking.onEngagement(postId, 0, likes, scraps, feedbacks);
+                }
+            });
+        } else {
+            record(postId, 0, likes, scraps, feedbacks);
+            hotPostRanking.onEngagement(postId, 0, likes, scraps, feedbacks);
+        }
+    }
+
+    private void record(Long postId, long views, long likes, long scraps, long feedbacks) {
+        long[] values = {views, likes, scraps, feedbacks};
+        while (!isZero(values)) {
+            Delta delta = pending.computeIfAbsent(postId, id -> new Delta());
+            delta.add(values[0], values[1], values[2], values[3]);
+            if (!delta.retired) return;
+            // flush 가 제거한 항목에 더했을 수 있으므로 남아 있는 값을 새 항목으로 옮김
+            values = delta.drain();
+        }
+    }
+
+    private static boolean isZero(long[] values) {
+        return values[0] == 0 && values[1] == 0 && values[2] == 0 && values[3] == 0;
+    }
+
+    // ====================== 배치 반영 ======================
+
+    @Scheduled(fixedDelayString = "${post.counter.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, Delta> entry : pending.entrySet()) {
+            long[] values = entry.getValue().drain();
+            if (isZero(values)) {
+                retire(entry.getKey(), entry.getValue());
+            } else {
+                batch.add(new Object[]{values[0], values[1], values[2], values[3], entry.getKey()});
+            }
+        }
+        if (batch.isEmpty()) return;
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            log.debug("[COUNTER] flushed {} posts", batch.size());
+        } catch (Exception e) {
+            // 반영 실패 시 변경분을 버리지 않고 다시 버퍼에 되돌려 다음 주기에 재시도
+            log.error("[COUNTER] flush 실패, 다음 주기에 재시도합니다: {}", e.getMessage(), e);
+            for (Object[] row : batch) {
+                record((Long) row[4], (long) row[0], (long) row[1], (long) row[2], (long) row[3]);
+            }
+        }
+    }
+
+    // 보정 구간 처리: 구간 내 게시물의 좋아요/스크랩/피드백 대기분은 이미 커밋된 원본 행에서 나온 것이라
+    // 재계산 값에 포함되므로 버린 뒤 recount 를 실행한다 (남겨 두면 다음 flush 가 한 번 더 더함). 조회수는 재계산하지 않으므로 유지.
+    // 진행 중인 flush 가 끝날 때까지 기다리고, recount(자체 트랜잭션으로 커밋)가 끝날 때까지 flush 를 막음
+    public <T> T discardAndRecount(long fromId, long toId, Supplier<T> recount) {
+        flushLock.lock();
+        try {
+            discardRecounted(fromId, toId);
+            return recount.get();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void discardRecounted(long fromId, long toId) {
+        for (Map.Entry<Long, Delta> entry : pending.entrySet()) {
+            long postId = entry.getKey();
+            if (postId < fromId || postId > toId) continue;
+            Delta delta = entry.getValue();
+            delta.likes.sumThenReset();
+            delta.scraps.sumThenReset();
+            delta.feedbacks.sumThenReset();
+        }
+    }
+
+    // 한 주기 동안 변경이 없던 항목 제거. retired 표시 후 마지막으로 한 번 더 비워, 그 사이 더해진 값은 새 항목으로 옮김
+    private void retire(Long postId, Delta delta) {
+        delta.retired = true;
+        pending.remove(postId, delta);
+        long[] residue = delta.drain();
+        record(postId, residue[0], residue[1], residue[2], residue[3]);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
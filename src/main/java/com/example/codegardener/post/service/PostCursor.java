@@ -0,0 +1,75 @@
+// 게시물 목록 keyset 페이징용 커서 (마지막 행의 정렬 값 + post_id 를 불투명한 문자열로 인코딩)
+package com.example.codegardener.post.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.example.codegardener.post.repository.PostRepository;
+
+/**
+ * sort 별 정렬 키: latest -> (createdAt, postId), views -> (views, postId), feedback -> (feedbackCount, postId),
+ * rating -> (ratingAvg, postId), hot -> (HotPostRanking 점수, postId).
+ * 정렬 방식이 다른 커서를 재사용하면 잘못된 위치부터 읽게 되므로 sort 도 함께 인코딩해 검증한다.
+ */
+record PostCursor(String sort, LocalDateTime createdAt, long count, double score, long postId) {
+
+    private static final String SEPARATOR = "|";
+
+    // 해당 정렬에서 이 게시물 다음부터 읽기 위한 커서 (DB에 저장된 값 기준, 버퍼 변경분은 포함하지 않음)
+    static PostCursor after(String sort, PostRepository.PostSummaryView last) {
+        return switch (sort) {
+            case "views"    -> new PostCursor(sort, null, last.getViews(), 0, last.getPostId());
+            case "feedback" -> new PostCursor(sort, null, last.getFeedbackCount(), 0, last.getPostId());
+            case "rating"   -> new PostCursor(sort, null, 0, last.getRatingAvg(), last.getPostId());
+            default         -> new PostCursor(sort, last.getCreatedAt(), 0, 0, last.getPostId());
+        };
+    }
+
+    // hot 점수는 DB 컬럼이 아니므로 랭킹에서 조회한 값으로 생성
+    static PostCursor hot(double score, long postId) {
+        return new PostCursor("hot", null, 0, score, postId);
+    }
+
+    // null/공백이면 첫 페이지(null) 반환
+    static PostCursor decode(String encoded, String expectedSort) {
+        if (encoded == null || encoded.isBlank()) return null;
+
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            parts = raw.split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+        if (!parts[0].equals(expectedSort)) {
+            throw new IllegalArgumentException("요청한 정렬과 맞지 않는 커서입니다.");
+        }
+
+        try {
+            long postId = Long.parseLong(parts[2]);
+            return switch (expectedSort) {
+                case "latest" -> new PostCursor(expectedSort, LocalDateTime.parse(parts[1]), 0, 0, postId);
+                case "hot"    -> hot(Double.parseDouble(parts[1]), postId);
+                case "rating" -> new PostCursor(expectedSort, null, 0, Double.parseDouble(parts[1]), postId);
+                default       -> new PostCursor(expectedSort, null, Long.parseLong(parts[1]), 0, postId);
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+    }
+
+    String encode() {
+        String value = switch (sort) {
+            case "latest" -> createdAt.toString();
+            case "hot", "rating" -> Double.toString(score);
+            default       -> Long.toString(count);
+        };
+        String raw = sort + SEPARATOR + value + SEPARATOR + postId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
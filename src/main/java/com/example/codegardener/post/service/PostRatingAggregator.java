@@ -0,0 +1,118 @@
+// 피드백 평점을 게시물 단위로 누적 (post.rating_count / rating_sum / rating_avg + post_rating_bucket 분포)
+package com.example.codegardener.post.service;
+
+import com.example.codegardener.post.domain.PostRatingBucket;
+import com.example.codegardener.post.repository.PostRatingBucketRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 피드백 작성/수정/삭제 트랜잭션 안에서 바로 증감한다. (평점 변경은 좋아요/조회보다 훨씬 드물어 버퍼 없이 처리)
+ * rating_avg 는 정렬 인덱스용으로 함께 저장하며, 오차는 PostCounterReconciler 가 feedback 기준으로 보정한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostRatingAggregator {
+
+    public static final int BUCKETS = 10;
+
+    // SET 절은 DB 마다 갱신 전/후 값을 읽는 방식이 달라, 아직 바뀌지 않은 컬럼만 참조하도록 avg -> sum -> count 순서로 둠
+    private static final String UPDATE_POST_SQL = """
+            UPDATE post
+            SET rating_avg   = CASE WHEN rating_count + ? > 0 THEN (rating_sum + ?) / (rating_count + ?) ELSE 0 END,
+                rating_sum   = CASE WHEN rating_count + ? > 0 THEN rating_sum + ? ELSE 0 END,
+                rating_count = rating_count + ?
+            WHERE post_id = ?
+            """;
+
+    private static final String UPSERT_BUCKET_SQL = """
+            INSERT INTO post_rating_bucket (post_id, bucket, rating_count) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE rating_count = rating_count + VALUES(rating_count)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostRatingBucketRepository postRatingBucketRepository;
+
+    // ====================== 피드백 변경 반영 ======================
+
+    public void onFeedbackCreated(Long postId, Double rating) {
+        if (rating == null) return;
+        updatePost(postId, 1, rating);
+        addToBucket(postId, rating, 1);
+    }
+
+    public void onFeedbackRatingChanged(Long postId, Double oldRating, Double newRating) {
+        if (Objects.equals(oldRating, newRating)) return;
+        // 평점이 없던 피드백에 평점이 생기거나 그 반대인 경우는 작성/삭제와 같음
+        if (oldRating == null) {
+            onFeedbackCreated(postId, newRating);
+            return;
+        }
+        if (newRating == null) {
+            onFeedbackDeleted(postId, oldRating);
+            return;
+        }
+        updatePost(postId, 0, newRating - oldRating);
+        addToBucket(postId, oldRating, -1);
+        addToBucket(postId, newRating, 1);
+    }
+
+    public void onFeedbackDeleted(Long postId, Double rating) {
+        if (rating == null) return;
+        updatePost(postId, -1, -rating);
+        addToBucket(postId, rating, -1);
+    }
+
+    public void onPostDeleted(Long postId) {
+        postRatingBucketRepository.deleteByPostId(postId);
+    }
+
+    private void updatePost(Long postId, long countDelta, double sumDelta) {
+        jdbcTemplate.update(UPDATE_POST_SQL,
+                countDelta, sumDelta, countDelta,
+                countDelta, sumDelta,
+                countDelta,
+                postId);
+    }
+
+    private void addToBucket(Long postId, double rating, long delta) {
+        jdbcTemplate.update(UPSERT_BUCKET_SQL, postId, bucketOf(rating), delta);
+    }
+
+    // 0.5점 단위 구간 (범위를 벗어난 값은 양 끝 구간으로)
+    static int bucketOf(double rating) {
+        return (int) Math.min(Math.max(Math.round(rating * 2), 1), BUCKETS);
+    }
+
+    // ====================== 조회 ======================
+
+    // "0.5" ~ "5.0" 모든 구간을 순서대로 (피드백이 없는 구간은 0)
+    public Map<String, Long> histogramOf(Long postId) {
+        long[] counts = new long[BUCKETS + 1];
+        for (PostRatingBucket bucket : postRatingBucketRepository.findByPostId(postId)) {
+            if (bucket.getBucket() >= 1 && bucket.getBucket() <= BUCKETS) {
+                counts[bucket.getBucket()] = bucket.getRatingCount();
+            }
+        }
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int b = 1; b <= BUCKETS; b++) {
+            histogram.put(String.valueOf(b / 2.0), counts[b]);
+        }
+        return histogram;
+    }
+
+    // ====================== 보정 ======================
+
+    // post_id 구간의 분포를 feedback 기준으로 다시 만듦 (PostCounterReconciler 에서 구간별 호출)
+    @Transactional
+    public int reconcileBuckets(long fromId, long toId) {
+        postRatingBucketRepository.deleteRange(fromId, toId);
+        return postRatingBucketRepository.rebuildRange(fromId, toId);
+    }
+}
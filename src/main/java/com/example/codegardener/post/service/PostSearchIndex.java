@@ -0,0 +1,350 @@
+// 게시물 키워드 검색용 메모리 역색인 (제목/본문/작성자명의 문자 1-gram, 2-gram -> 게시물 ID 비트맵)
+package com.example.codegardener.post.service;
+
+import com.example.codegardener.post.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * LIKE '%q%' 검색의 후보군을 좁히기 위한 역색인.
+ * 한글은 공백 없이 이어지는 음절, 영문은 부분 문자열 검색이 모두 가능해야 하므로 형태소 대신 문자 n-gram을 사용한다.
+ * 질의의 모든 gram을 포함하는 게시물 집합은 실제 LIKE 결과의 상위 집합이므로,
+ * 최종 일치 여부는 DB에서 후보 ID로 범위를 좁힌 LIKE 조건으로 다시 확인한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+
+    @Value("${post.search.index.enabled:true}")
+    private boolean enabled;
+
+    // 인덱스가 이 크기(추정치)를 넘으면 비활성화하고 기존 LIKE 검색으로 되돌아감
+    @Value("${post.search.index.max-bytes:268435456}")
+    private long maxBytes;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // gram -> 게시물 ID 비트맵
+    private Map<Integer, RoaringBitmap> postings = new HashMap<>();
+    // 게시물 ID -> 색인된 gram 목록 (수정/삭제 시 기존 gram 제거용)
+    private Map<Integer, RoaringBitmap> forward = new HashMap<>();
+    private volatile boolean ready = false;
+
+    // 재구축 중 들어온 변경 사항을 새 인덱스에도 반영하기 위한 빌더
+    private Builder rebuilding;
+
+    // 인덱스 상태 보고용
+    public record IndexStats(boolean ready, int posts, int grams, long estimatedBytes, long budgetBytes) {
+    }
+
+    // ====================== 조회 ======================
+
+    /**
+     * 키워드를 포함할 수 있는 게시물 ID 후보를 반환한다.
+     * null 이면 인덱스로 좁힐 수 없다는 의미이며 호출 측은 기존 LIKE 검색을 그대로 사용해야 한다.
+     */
+    public RoaringBitmap candidates(String keyword) {
+        if (!ready || keyword == null) return null;
+
+        RoaringBitmap grams = extractQueryGrams(normalize(keyword));
+        if (grams.isEmpty()) return null;
+
+        lock.readLock().lock();
+        try {
+            if (!ready) return null;
+
+            List<RoaringBitmap> lists = new ArrayList<>();
+            for (int gram : grams) {
+                RoaringBitmap posting = postings.get(gram);
+                if (posting == null) return new RoaringBitmap();
+                lists.add(posting);
+            }
+            // 작은 posting부터 교집합하여 중간 결과를 최소화
+            lists.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+
+            RoaringBitmap result = lists.get(0).clone();
+            for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+                result.and(lists.get(i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public IndexStats stats() {
+        lock.readLock().lock();
+        try {
+            return new IndexStats(ready, forward.size(), postings.size(), estimateBytes(postings, forward), maxBytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ====================== 변경 반영 (PostService create/update/delete) ======================
+    // 조회에 쓰이는(ready) 인덱스와 재구축 중인 빌더에만 반영. 예산 초과로 비활성화됐거나 첫 구축 전이면
+    // 아무도 읽지 않는 맵이 변경마다 다시 커지므로 쌓지 않음 (다음 재구축이 DB 에서 다시 채움)
+
+    public void indexAfterCommit(Long postId, String title, String content, String userName) {
+        afterCommit(() -> index(postId, title, content, userName));
+    }
+
+    public void removeAfterCommit(Long postId) {
+        afterCommit(() -> remove(postId));
+    }
+
+    private void index(Long postId, String title, String content, String userName) {
+        if (!enabled) return;
+        int id = Math.toIntExact(postId);
+        RoaringBitmap grams = extractDocumentGrams(title, content, userName);
+
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                removeFrom(postings, forward, id);
+                addTo(postings, forward, id, grams);
+            }
+            if (rebuilding != null) {
+                rebuilding.remove(id);
+                rebuilding.add(id, grams);
+                rebuilding.touched.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(Long postId) {
+        if (!enabled) return;
+        int id = Math.toIntExact(postId);
+
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                removeFrom(postings, forward, id);
+            }
+            if (rebuilding != null) {
+                rebuilding.remove(id);
+                rebuilding.touched.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // ====================== DB로부터 재구축 ======================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        rebuild();
+    }
+
+    // 작성자 닉네임 변경(탈퇴 익명화 등)은 이벤트로 들어오지 않으므로 주기적으로 재구축
+    @Scheduled(cron = "${post.search.index.rebuild-cron:0 0 5 * * *}")
+    public void rebuild() {
+        if (!enabled) return;
+
+        long started = System.currentTimeMillis();
+        Builder builder = new Builder();
+        lock.writeLock().lock();
+        try {
+            rebuilding = builder;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long afterId = 0;
+            while (true) {
+                List<PostRepository.PostSearchSource> rows =
+                        postRepository.findSearchSourcesAfter(afterId, REBUILD_BATCH_SIZE);
+                if (rows.isEmpty()) break;
+
+                // 배치는 락 밖에서 읽으므로, 그사이 index/remove 로 이미 최신 상태가 된 게시물은 옛 행으로 덮어쓰지 않음
+                lock.writeLock().lock();
+                try {
+                    for (PostRepository.PostSearchSource row : rows) {
+                        int id = Math.toIntExact(row.getPostId());
+                        if (builder.touched.contains(id)) continue;
+                        builder.remove(id);
+                        builder.add(id, extractDocumentGrams(row.getTitle(), row.getContent(), row.getUserName()));
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+
+                afterId = rows.get(rows.size() - 1).getPostId();
+                if (estimateBytes(builder.postings, builder.forward) > maxBytes) {
+                    disable("재구축 중 메모리 예산 초과");
+                    return;
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                postings = builder.postings;
+                forward = builder.forward;
+                rebuilding = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            IndexStats stats = stats();
+            log.info("[SEARCH] index rebuilt in {}ms: posts={}, grams={}, estimatedBytes={} / budget={}",
+                    System.currentTimeMillis() - started, stats.posts(), stats.grams(),
+                    stats.estimatedBytes(), stats.budgetBytes());
+        } catch (Exception e) {
+            log.error("[SEARCH] index rebuild 실패: {}", e.getMessage(), e);
+            lock.writeLock().lock();
+            try {
+                rebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void disable(String reason) {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            rebuilding = null;
+            postings = new HashMap<>();
+            forward = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.warn("[SEARCH] index disabled ({}), budget={} bytes. LIKE 검색으로 대체합니다.", reason, maxBytes);
+    }
+
+    // ====================== gram 추출 ======================
+
+    private static String normalize(String text) {
+        return (text == null) ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    // 문서: 공백이 아닌 모든 문자(1-gram)와 공백 없이 연속된 두 문자(2-gram)
+    private static RoaringBitmap extractDocumentGrams(String... fields) {
+        RoaringBitmap grams = new RoaringBitmap();
+        for (String field : fields) {
+            String text = normalize(field);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (isSkipped(c)) continue;
+                grams.add(unigram(c));
+                if (i + 1 < text.length() && !isSkipped(text.charAt(i + 1))) {
+                    grams.add(bigram(c, text.charAt(i + 1)));
+                }
+            }
+        }
+        return grams;
+    }
+
+    // 질의: 2-gram이 하나라도 있으면 2-gram만, 없으면(한 글자 토큰만 있는 경우) 1-gram 사용
+    private static RoaringBitmap extractQueryGrams(String query) {
+        RoaringBitmap bigrams = new RoaringBitmap();
+        RoaringBitmap unigrams = new RoaringBitmap();
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (isSkipped(c)) continue;
+            unigrams.add(unigram(c));
+            if (i + 1 < query.length() && !isSkipped(query.charAt(i + 1))) {
+                bigrams.add(bigram(c, query.charAt(i + 1)));
+            }
+        }
+        return bigrams.isEmpty() ? unigrams : bigrams;
+    }
+
+    private static boolean isSkipped(char c) {
+        return Character.isWhitespace(c) || Character.isISOControl(c);
+    }
+
+    // 1-gram은 하위 16비트만, 2-gram은 상위 16비트까지 사용 (제어문자는 색인하지 않으므로 충돌 없음)
+    private static int unigram(char c) {
+        return c;
+    }
+
+    private static int bigram(char first, char second) {
+        return (first << 16) | second;
+    }
+
+    // ====================== 내부 자료구조 ======================
+
+    private static void addTo(Map<Integer, RoaringBitmap> postings, Map<Integer, RoaringBitmap> forward,
+                              int id, RoaringBitmap grams) {
+        for (int gram : grams) {
+            postings.computeIfAbsent(gram, g -> new RoaringBitmap()).add(id);
+        }
+        grams.runOptimize();
+        forward.put(id, grams);
+    }
+
+    private static void removeFrom(Map<Integer, RoaringBitmap> postings, Map<Integer, RoaringBitmap> forward, int id) {
+        RoaringBitmap old = forward.remove(id);
+        if (old == null) return;
+        for (int gram : old) {
+            RoaringBitmap posting = postings.get(gram);
+            if (posting == null) continue;
+            posting.remove(id);
+            if (posting.isEmpty()) postings.remove(gram);
+        }
+    }
+
+    // 비트맵 직렬화 크기 + HashMap 엔트리/박싱 오버헤드(엔트리당 약 64바이트)로 추정
+    private static long estimateBytes(Map<Integer, RoaringBitmap> postings, Map<Integer, RoaringBitmap> forward) {
+        long bytes = 0;
+        for (RoaringBitmap bitmap : postings.values()) bytes += bitmap.getSizeInBytes() + 64;
+        for (RoaringBitmap bitmap : forward.values()) bytes += bitmap.getSizeInBytes() + 64;
+        return bytes;
+    }
+
+    private static final class Builder {
+        private final Map<Integer, RoaringBitmap> postings = new HashMap<>();
+        private final Map<Integer, RoaringBitmap> forward = new HashMap<>();
+        // 재구축 중 index/remove 로 직접 반영된 게시물 ID (DB 배치 결과보다 최신)
+        private final RoaringBitmap touched = new RoaringBitmap();
+
+        private void add(int id, RoaringBitmap grams) {
+            addTo(postings, forward, id, grams.clone());
+        }
+
+        private void remove(int id) {
+            removeFrom(postings, forward, id);
+        }
+    }
+}
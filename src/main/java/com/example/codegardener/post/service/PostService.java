@@ -1,25 +1,31 @@
 package com.example.codegardener.post.service;
 
-import com.example.codegardener.ai.service.AiFeedbackService;
-import com.example.codegardener.feedback.repository.FeedbackRepository;
+import com.example.codegardener.ai.dto.AiReviewJobDto;
+import com.example.codegardener.ai.service.AiReviewJobService;
+import com.example.codegardener.ai.service.AiReviewStreamService;
+import com.example.codegardener.feedback.service.LineFeedbackIntervalIndex;
+import com.example.codegardener.feedback.service.LineFeedbackReanchorer;
+import com.example.codegardener.global.dto.CursorResponseDto;
 import com.example.codegardener.post.domain.Post;
-import com.example.codegardener.post.domain.PostLike;
-import com.example.codegardener.post.domain.PostScrap;
 import com.example.codegardener.post.dto.PostRequestDto;
 import com.example.codegardener.post.dto.PostResponseDto;
+import com.example.codegardener.post.dto.PostSummaryDto;
 import com.example.codegardener.post.repository.PostLikeRepository;
 import com.example.codegardener.post.repository.PostRepository;
 import com.example.codegardener.post.repository.PostScrapRepository;
 import com.example.codegardener.user.domain.User;
 import com.example.codegardener.user.domain.Role;
 import com.example.codegardener.user.repository.UserRepository;
+import com.example.codegardener.user.service.UserEngagementCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,20 +36,114 @@ public class PostService {
 
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final AiFeedbackService aiFeedbackService;
+    private final AiReviewJobService aiReviewJobService;
+    private final AiReviewStreamService aiReviewStreamService;
     private final PostLikeRepository postLikeRepository;
     private final PostScrapRepository postScrapRepository;
-    private final FeedbackRepository feedbackRepository;
+    private final PostCounterBuffer postCounterBuffer;
+    private final PostSearchIndex postSearchIndex;
+    private final PostTagService postTagService;
+    private final PopularPostRanking popularPostRanking;
+    private final HotPostRanking hotPostRanking;
+    private final UserEngagementCache userEngagementCache;
+    private final LineFeedbackIntervalIndex lineFeedbackIntervalIndex;
+    private final LineFeedbackReanchorer lineFeedbackReanchorer;
+    private final PostRatingAggregator postRatingAggregator;
+
+    // 네이티브 쿼리의 IN () 이 비지 않도록 넘기는 자리표시자 (해당 필터 플래그가 false 일 때만 사용)
+    private static final List<Long> NO_IDS = List.of(-1L);
+
+    // 검색 후보 ID를 IN 절로 넘길 최대 개수 (이보다 많으면 인덱스 없이 LIKE 전체 검색)
+    // hot 정렬 검색에서는 메모리에서 정렬할 최신 일치 게시물 수의 상한으로도 사용
+    @Value("${post.search.max-candidate-ids:5000}")
+    private int maxCandidateIds;
 
     private PostResponseDto convertToDto(Post post, User currentUser) {
-        long likes = postLikeRepository.countByPost(post);
-        long scraps = postScrapRepository.countByPost(post);
-        long feedbacks = feedbackRepository.countByPost(post);
+        boolean liked = (currentUser != null) && userEngagementCache.likedPost(currentUser.getUserId(), post.getPostId());
+        boolean scrapped = (currentUser != null) && userEngagementCache.scrappedPost(currentUser.getUserId(), post.getPostId());
 
-        boolean liked = (currentUser != null) && postLikeRepository.existsByUserAndPost(currentUser, post);
-        boolean scrapped = (currentUser != null) && postScrapRepository.existsByUserAndPost(currentUser, post);
+        return toDto(post, liked, scrapped, postRatingAggregator.histogramOf(post.getPostId()));
+    }
+
+    // 저장된 카운터 + 아직 DB에 반영되지 않은 버퍼 변경분을 합쳐 최신 값으로 응답
+    private PostResponseDto toDto(Post post, boolean liked, boolean scrapped, Map<String, Long> ratingHistogram) {
+        PostCounterBuffer.Delta pending = postCounterBuffer.pendingOf(post.getPostId());
+        return PostResponseDto.of(post,
+                (int) (post.getViews() + pending.getViews()),
+                post.getLikeCount() + pending.getLikes(),
+                post.getScrapCount() + pending.getScraps(),
+                post.getFeedbackCount() + pending.getFeedbacks(),
+                liked,
+                scrapped,
+                ratingHistogram);
+    }
+
+    // 전체 필드가 필요한 경우용: 게시물 수와 무관한 고정 횟수의 쿼리로 DTO 변환
+    private List<PostResponseDto> convertToDtos(List<Post> posts, User currentUser) {
+        if (posts.isEmpty()) return Collections.emptyList();
+
+        // 작성자 + 프로필을 한 번에 영속성 컨텍스트에 올려 두어 게시물마다 지연 로딩되지 않도록 함
+        List<Long> authorIds = posts.stream()
+                .map(post -> post.getUser().getUserId())
+                .distinct()
+                .toList();
+        userRepository.findAllByIdWithProfile(authorIds);
+
+        // 평점 분포는 게시물마다 추가 쿼리가 필요하므로 단건 조회에서만 포함
+        Long userId = (currentUser != null) ? currentUser.getUserId() : null;
+        return posts.stream()
+                .map(post -> toDto(post,
+                        userId != null && userEngagementCache.likedPost(userId, post.getPostId()),
+                        userId != null && userEngagementCache.scrappedPost(userId, post.getPostId()),
+                        null))
+                .toList();
+    }
+
+    // 목록 조회용: 정렬/필터 쿼리는 ID만 읽고, 카드 필드는 ID 목록으로 한 번에 조회 (본문/코드/AI 피드백 컬럼은 읽지 않음)
+    private List<PostRepository.PostSummaryView> loadSummaryViews(List<Long> postIds) {
+        if (postIds.isEmpty()) return Collections.emptyList();
 
-        return PostResponseDto.of(post, likes, scraps, feedbacks, liked, scrapped);
+        Map<Long, PostRepository.PostSummaryView> byId = new HashMap<>();
+        for (PostRepository.PostSummaryView view : postRepository.findSummariesByIds(postIds)) {
+            byId.put(view.getPostId(), view);
+        }
+        // 두 쿼리 사이에 삭제된 게시물은 제외하고 원래 정렬 순서 유지
+        return postIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // 카운트는 저장된 값 + 버퍼 변경분, 좋아요/스크랩 여부는 사용자별 캐시에서 확인 (쿼리 없음)
+    private List<PostSummaryDto> toSummaries(List<PostRepository.PostSummaryView> views, User currentUser) {
+        if (views.isEmpty()) return Collections.emptyList();
+
+        Long userId = (currentUser != null) ? currentUser.getUserId() : null;
+        return views.stream()
+                .map(view -> toSummary(view,
+                        userId != null && userEngagementCache.likedPost(userId, view.getPostId()),
+                        userId != null && userEngagementCache.scrappedPost(userId, view.getPostId())))
+                .toList();
+    }
+
+    private PostSummaryDto toSummary(PostRepository.PostSummaryView view, boolean liked, boolean scrapped) {
+        PostCounterBuffer.Delta pending = postCounterBuffer.pendingOf(view.getPostId());
+        return PostSummaryDto.of(view,
+                (int) (view.getViews() + pending.getViews()),
+                view.getLikeCount() + pending.getLikes(),
+                view.getScrapCount() + pending.getScraps(),
+                view.getFeedbackCount() + pending.getFeedbacks(),
+                liked,
+                scrapped);
+    }
+
+    private List<PostSummaryDto> convertToSummaries(List<Long> postIds, User currentUser) {
+        return toSummaries(loadSummaryViews(postIds), currentUser);
+    }
+
+    private Page<PostSummaryDto> convertToSummaryPage(Page<Long> postIds, User currentUser) {
+        List<PostSummaryDto> content = convertToSummaries(postIds.getContent(), currentUser);
+        return new PageImpl<>(content, postIds.getPageable(), postIds.getTotalElements());
     }
 
     private User getUserOrNull(String username) {
@@ -74,57 +174,109 @@ public class PostService {
 
         Post saved = postRepository.save(p);
         log.info("[POST] saved postId={}", saved.getPostId());
+        postSearchIndex.indexAfterCommit(saved.getPostId(), saved.getTitle(), saved.getContent(), author.getUserName());
+        postTagService.syncTags(saved);
+        hotPostRanking.onPostCreatedAfterCommit(saved.getPostId(), saved.getContentsType(), saved.getCreatedAt());
 
         return convertToDto(saved, author);
     }
 
     @Transactional(readOnly = true)
     public List<PostResponseDto> list() {
-        return postRepository.findAll()
-                .stream()
-                .map(post -> convertToDto(post, null))
-                .toList();
+        return convertToDtos(postRepository.findAll(), null);
     }
 
     // ====================== 목록(페이징) 통합 메서드 ======================
 
     @Transactional(readOnly = true)
-    public Page<PostResponseDto> getPostList(int page, int size, Boolean contentsType, String sortBy, String currentUsername) {
+    public Page<PostSummaryDto> getPostList(int page, int size, Boolean contentsType, String sortBy, String currentUsername) {
         User currentUser = getUserOrNull(currentUsername); // [추가]
 
         page = Math.max(page, 0);
         size = Math.min(Math.max(size, 1), 50);
 
-        Page<Post> postPage;
+        // hot 정렬은 메모리 랭킹 순서대로 읽음 (COUNT 도 랭킹 크기로 대체)
+        if ("hot".equals(resolveSort(sortBy))) {
+            List<Long> postIds = hotPostRanking.page(contentsType, page * size, size);
+            return new PageImpl<>(convertToSummaries(postIds, currentUser),
+                    PageRequest.of(page, size), hotPostRanking.size(contentsType));
+        }
+
+        Page<Long> postPage;
 
         if ("feedback".equalsIgnoreCase(sortBy)) {
             Pageable pageable = PageRequest.of(page, size);
-            postPage = postRepository.findAllOrderByFeedbackCountDesc(contentsType, pageable);
+            postPage = postRepository.findIdsOrderByFeedbackCountDesc(contentsType, pageable);
         } else {
+            // 동점 구분을 post_id 로 두어 (정렬 값, post_id) 인덱스 순서 그대로 읽음
             Sort sort = switch (safe(sortBy)) {
-                case "views" -> Sort.by(Sort.Direction.DESC, "views");
-                default      -> Sort.by(Sort.Direction.DESC, "createdAt");
+                case "views"  -> Sort.by(Sort.Direction.DESC, "views", "postId");
+                case "rating" -> Sort.by(Sort.Direction.DESC, "ratingAvg", "postId");
+                default      -> Sort.by(Sort.Direction.DESC, "createdAt", "postId");
             };
             Pageable pageable = PageRequest.of(page, size, sort);
 
-            postPage = (contentsType == null)
-                    ? postRepository.findAll(pageable)
-                    : postRepository.findByContentsType(contentsType, pageable);
+            postPage = postRepository.findIdPage(contentsType, pageable);
         }
 
-        return postPage.map(post -> convertToDto(post, currentUser));
+        return convertToSummaryPage(postPage, currentUser);
+    }
+
+    // 무한 스크롤용 목록 (keyset 페이징: 마지막 행 기준으로 이어서 읽으므로 깊은 페이지도 비용이 같고 COUNT 없음)
+    @Transactional(readOnly = true)
+    public CursorResponseDto<PostSummaryDto> getPostListByCursor(Boolean contentsType, String sortBy, String cursor,
+                                                                  int size, String currentUsername) {
+        User currentUser = getUserOrNull(currentUsername);
+        size = Math.min(Math.max(size, 1), 50);
+        String sort = resolveSort(sortBy);
+        PostCursor after = PostCursor.decode(cursor, sort);
+        Long cursorId = (after != null) ? after.postId() : null;
+
+        // size + 1 개를 읽어 다음 페이지 존재 여부 판단
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Long> rows = switch (sort) {
+            case "hot" -> (after != null)
+                    ? hotPostRanking.after(contentsType, after.score(), after.postId(), size + 1)
+                    : hotPostRanking.page(contentsType, 0, size + 1);
+            case "views" -> postRepository.findMostViewedAfter(contentsType,
+                    (after != null) ? Math.toIntExact(after.count()) : null, cursorId, limit);
+            case "feedback" -> postRepository.findMostFeedbackAfter(contentsType,
+                    (after != null) ? after.count() : null, cursorId, limit);
+            case "rating" -> postRepository.findTopRatedAfter(contentsType,
+                    (after != null) ? after.score() : null, cursorId, limit);
+            default -> postRepository.findLatestAfter(contentsType,
+                    (after != null) ? after.createdAt() : null, cursorId, limit);
+        };
+
+        return toCursorResponse(rows, size, sort, currentUser);
+    }
+
+    private CursorResponseDto<PostSummaryDto> toCursorResponse(List<Long> rows, int size, String sort, User currentUser) {
+        boolean hasNext = rows.size() > size;
+        List<PostRepository.PostSummaryView> page = loadSummaryViews(hasNext ? rows.subList(0, size) : rows);
+        String nextCursor = (hasNext && !page.isEmpty())
+                ? cursorAfter(sort, page.get(page.size() - 1)).encode()
+                : null;
+        return CursorResponseDto.of(toSummaries(page, currentUser), nextCursor);
+    }
+
+    private PostCursor cursorAfter(String sort, PostRepository.PostSummaryView last) {
+        return "hot".equals(sort)
+                ? PostCursor.hot(hotPostRanking.scoreOf(last.getPostId()), last.getPostId())
+                : PostCursor.after(sort, last);
     }
 
     // ====================== 단건 조회 ======================
 
-    @Transactional
+    // 조회수는 PostCounterBuffer에 누적 후 배치 반영하므로 읽기 전용 트랜잭션으로 처리 (post 행 락 없음)
+    @Transactional(readOnly = true)
     public PostResponseDto get(Long id, String currentUsername) {
         User currentUser = getUserOrNull(currentUsername);
 
         Post p = postRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("게시물이 존재하지 않습니다."));
 
-        p.increaseViews();
+        postCounterBuffer.addView(id);
         return convertToDto(p, currentUser);
     }
 
@@ -143,8 +295,18 @@ public class PostService {
 
         validateCodingTest(dto);
 
+        // 탭이 바뀌면 기존 탭 인기 랭킹에서 제거 (새 탭에는 다음 좋아요 또는 재적재 때 반영)
+        if (!Objects.equals(p.getContentsType(), dto.getContentsType())) {
+            popularPostRanking.removeAfterCommit(p.getPostId());
+            hotPostRanking.onContentsTypeChangedAfterCommit(p.getPostId(), dto.getContentsType());
+        }
+
         p.setTitle(dto.getTitle());
         p.setContent(dto.getContent());
+        // 코드가 바뀌면 기존 라인 피드백 줄 번호를 새 코드 기준으로 재배치
+        if (!Objects.equals(p.getCode(), dto.getCode())) {
+            lineFeedbackReanchorer.reanchor(p.getPostId(), p.getCode(), dto.getCode());
+        }
         p.setCode(dto.getCode());
         p.setSummary(dto.getSummary());
         p.setContentsType(dto.getContentsType());
@@ -152,6 +314,8 @@ public class PostService {
         p.setProblemStatement(dto.getProblemStatement());
         p.setLangTags(normalizeCsv(dto.getLanguages()));
         p.setStackTags(normalizeCsv(dto.getStacks()));
+        postSearchIndex.indexAfterCommit(p.getPostId(), p.getTitle(), p.getContent(), p.getUser().getUserName());
+        postTagService.syncTags(p);
 
         return convertToDto(p, currentUser);
     }
@@ -173,12 +337,18 @@ public class PostService {
         }
 
         postRepository.delete(p);
+        postSearchIndex.removeAfterCommit(id);
+        postTagService.onPostDeleted(id);
+        popularPostRanking.removeAfterCommit(id);
+        hotPostRanking.removeAfterCommit(id);
+        lineFeedbackIntervalIndex.evictAfterCommit(id);
+        postRatingAggregator.onPostDeleted(id);
     }
 
     // ====================== 통합 검색 ======================
 
     @Transactional(readOnly = true)
-    public Page<PostResponseDto> discoverAdvanced(
+    public Page<PostSummaryDto> discoverAdvanced(
             String q,
             List<String> languages,
             String langsCsv,
@@ -197,43 +367,189 @@ public class PostService {
 
         Pageable pageable = PageRequest.of(page, size);
 
-        String qLike = buildLikeParam(q);
-        List<String> langList  = mergeParamsToList(languages, langsCsv);
-        List<String> stackList = mergeParamsToList(stacks,    stacksCsv);
+        SearchCriteria criteria = prepareSearch(q, languages, langsCsv, stacks, stacksCsv, contentsType);
+        if (criteria == null) {
+            return Page.empty(pageable);
+        }
+
+        // 키워드/태그 조건이 없으면 목록과 같은 결과이므로 (정렬 값, post_id) 인덱스 순서로 읽는 목록 쿼리 사용
+        if (criteria.unfiltered()) {
+            return getPostList(page, size, contentsType, sortKey, currentUsername);
+        }
 
-        String langRegex  = listToRegex(langList);
-        String stackRegex = listToRegex(stackList);
+        if ("hot".equals(resolveSort(sortKey))) {
+            List<Long> ranked = hotPostRanking.sort(findRecentMatches(criteria, contentsType));
+            int from = Math.min(page * size, ranked.size());
+            List<Long> postIds = ranked.subList(from, Math.min(from + size, ranked.size()));
+            return new PageImpl<>(convertToSummaries(postIds, currentUser), pageable, ranked.size());
+        }
 
-        Page<Post> data = postRepository.discover(
-                qLike,
+        Page<Long> data = postRepository.discover(
+                criteria.idsFiltered(),
+                criteria.ids(),
+                criteria.qLike(),
                 contentsType,
-                langRegex,
-                stackRegex,
+                criteria.langFiltered(),
+                criteria.langTagIds(),
+                criteria.stackFiltered(),
+                criteria.stackTagIds(),
                 safe(sortKey),
                 pageable
         );
 
-        return data.map(post -> convertToDto(post, currentUser));
+        return convertToSummaryPage(data, currentUser);
+    }
+
+    // 무한 스크롤용 통합 검색 (keyset 페이징, 전체 개수 COUNT 없음)
+    @Transactional(readOnly = true)
+    public CursorResponseDto<PostSummaryDto> discoverByCursor(
+            String q,
+            List<String> languages,
+            String langsCsv,
+            List<String> stacks,
+            String stacksCsv,
+            Boolean contentsType,
+            String cursor,
+            int size,
+            String sortKey,
+            String currentUsername
+    ) {
+        User currentUser = getUserOrNull(currentUsername);
+        size = Math.min(Math.max(size, 1), 50);
+        String sort = resolveSort(sortKey);
+        PostCursor after = PostCursor.decode(cursor, sort);
+
+        SearchCriteria criteria = prepareSearch(q, languages, langsCsv, stacks, stacksCsv, contentsType);
+        if (criteria == null) {
+            return CursorResponseDto.empty();
+        }
+
+        if (criteria.unfiltered()) {
+            return getPostListByCursor(contentsType, sort, cursor, size, currentUsername);
+        }
+
+        if ("hot".equals(sort)) {
+            List<Long> matches = findRecentMatches(criteria, contentsType);
+            List<Long> ranked = (after != null)
+                    ? hotPostRanking.sortAfter(matches, after.score(), after.postId())
+                    : hotPostRanking.sort(matches);
+            return toCursorResponse(ranked.subList(0, Math.min(size + 1, ranked.size())), size, sort, currentUser);
+        }
+
+        List<Long> rows = postRepository.discoverAfter(
+                criteria.idsFiltered(),
+                criteria.ids(),
+                criteria.qLike(),
+                contentsType,
+                criteria.langFiltered(),
+                criteria.langTagIds(),
+                criteria.stackFiltered(),
+                criteria.stackTagIds(),
+                sort,
+                (after != null) ? after.createdAt() : null,
+                (after != null) ? after.count() : null,
+                (after != null) ? after.score() : null,
+                (after != null) ? after.postId() : null,
+                size + 1
+        );
+
+        return toCursorResponse(rows, size, sort, currentUser);
+    }
+
+    // 검색 조건을 역색인/태그 비트맵으로 좁힌 결과 (discover 쿼리 파라미터)
+    private record SearchCriteria(boolean idsFiltered, List<Long> ids, String qLike,
+                                  boolean langFiltered, List<Long> langTagIds,
+                                  boolean stackFiltered, List<Long> stackTagIds) {
+
+        boolean unfiltered() {
+            return !idsFiltered && qLike == null && !langFiltered && !stackFiltered;
+        }
+    }
+
+    // hot 정렬 검색: 조건에 맞는 최신 게시물을 상한까지 모은 뒤 메모리에서 점수순 정렬
+    // (감쇠 때문에 오래된 게시물은 상위에 오기 어려우므로 상한을 넘는 오래된 일치 결과는 제외)
+    private List<Long> findRecentMatches(SearchCriteria criteria, Boolean contentsType) {
+        return postRepository.discoverRecentIds(
+                criteria.idsFiltered(),
+                criteria.ids(),
+                criteria.qLike(),
+                contentsType,
+                criteria.langFiltered(),
+                criteria.langTagIds(),
+                criteria.stackFiltered(),
+                criteria.stackTagIds(),
+                maxCandidateIds
+        );
+    }
+
+    // 결과가 없음이 확정되면 null
+    private SearchCriteria prepareSearch(String q, List<String> languages, String langsCsv,
+                                         List<String> stacks, String stacksCsv, Boolean contentsType) {
+        String qLike = buildLikeParam(q);
+        List<String> langList  = mergeParamsToList(languages, langsCsv);
+        List<String> stackList = mergeParamsToList(stacks,    stacksCsv);
+
+        // 언어/스택 이름 -> tag_id (요청한 태그가 사전에 하나도 없으면 결과 없음)
+        PostTagService.TagFilter tagFilter = postTagService.resolveFilter(langList, stackList);
+        if (tagFilter.unsatisfiable()) {
+            return null;
+        }
+
+        // 키워드는 역색인, 태그/탭은 비트맵으로 후보 게시물을 먼저 좁힘 (null: 해당 인덱스 사용 불가)
+        RoaringBitmap keywordMatches = (qLike != null) ? postSearchIndex.candidates(q) : null;
+        RoaringBitmap tagMatches = tagFilter.hasAny() ? postTagService.match(tagFilter, contentsType) : null;
+        RoaringBitmap candidates = intersect(keywordMatches, tagMatches);
+        if (candidates != null && candidates.isEmpty()) {
+            return null;
+        }
+        boolean idsFiltered = candidates != null && candidates.getCardinality() <= maxCandidateIds;
+        List<Long> ids = idsFiltered ? toIdList(candidates) : NO_IDS;
+
+        // 태그 비트맵 결과가 후보 ID 에 반영되지 못한 경우에만 post_tag 조인으로 확인
+        boolean tagsInSql = tagFilter.hasAny() && !(idsFiltered && tagMatches != null);
+        boolean langFiltered  = tagsInSql && !tagFilter.languageTagIds().isEmpty();
+        boolean stackFiltered = tagsInSql && !tagFilter.stackTagIds().isEmpty();
+
+        return new SearchCriteria(idsFiltered, ids, qLike,
+                langFiltered, langFiltered ? tagFilter.languageTagIds() : NO_IDS,
+                stackFiltered, stackFiltered ? tagFilter.stackTagIds() : NO_IDS);
+    }
+
+    // 검색 인덱스 상태 및 메모리 사용량 (관리자용)
+    public PostSearchIndex.IndexStats getSearchIndexStats() {
+        return postSearchIndex.stats();
     }
 
     // ====================== AI 피드백 ======================
 
-    @Transactional
-    public PostResponseDto generateAiFeedback(Long postId, String currentUsername) {
+    // 생성 작업만 등록하고 바로 반환 (AI 호출은 AiReviewJobService 워커가 트랜잭션 밖에서 수행)
+    // regenerate 면 같은 내용의 캐시된 리뷰가 있어도 새로 생성
+    public AiReviewJobDto requestAiFeedback(Long postId, String currentUsername, boolean regenerate) {
         User currentUser = getUserOrNull(currentUsername); // 요청자 정보
 
         if (currentUser != null) {
             log.debug("[AI] generate request by username={} for postId={}", currentUsername, postId);
         }
 
-        Post p = postRepository.findById(postId)
-                .orElseThrow(() -> new IllegalArgumentException("게시물이 존재하지 않습니다."));
+        if (!postRepository.existsById(postId)) {
+            throw new IllegalArgumentException("게시물이 존재하지 않습니다.");
+        }
+        return aiReviewJobService.enqueue(postId, (currentUser != null) ? currentUser.getUserId() : null, regenerate);
+    }
+
+    public AiReviewJobDto getAiFeedbackJob(Long postId) {
+        return aiReviewJobService.getLatestJob(postId);
+    }
 
-        String aiText = aiFeedbackService.generateTextForPost(postId);
-        p.setAiFeedback(aiText);
-        log.info("[AI] Feedback generated manually for postId={}", postId);
+    // 생성 과정을 SSE 로 바로 전달 (끝나면 결과 저장). 같은 게시물의 작업이 진행 중이면 시작하지 않음
+    public SseEmitter streamAiFeedback(Long postId, String currentUsername, boolean regenerate) {
+        User currentUser = getUserOrNull(currentUsername);
+        log.debug("[AI] stream request by username={} for postId={}", currentUsername, postId);
 
-        return convertToDto(p, currentUser);
+        if (!postRepository.existsById(postId)) {
+            throw new IllegalArgumentException("게시물이 존재하지 않습니다.");
+        }
+        return aiReviewStreamService.stream(postId, (currentUser != null) ? currentUser.getUserId() : null, regenerate);
     }
 
     @Transactional(readOnly = true)
@@ -277,22 +593,28 @@ public class PostService {
                 .collect(Collectors.toList());
     }
 
-    private String listToRegex(List<String> values) {
-        if (values == null || values.isEmpty()) return null;
-        String body = values.stream()
-                .map(this::escapeRegex)
-                .collect(Collectors.joining("|"));
-        return "(^|,)(" + body + ")(,|$)";
+    private RoaringBitmap intersect(RoaringBitmap a, RoaringBitmap b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return RoaringBitmap.and(a, b);
     }
 
-    private String escapeRegex(String s) {
-        return s.replaceAll("([^A-Za-z0-9_\\-])", "\\\\$1");
+    private List<Long> toIdList(RoaringBitmap bitmap) {
+        List<Long> ids = new ArrayList<>(bitmap.getCardinality());
+        bitmap.forEach((int id) -> ids.add((long) id));
+        return ids;
     }
 
     private String safe(String s) {
         return (s == null) ? "latest" : s.toLowerCase();
     }
 
+    // hot 랭킹이 아직 초기화되지 않았으면 최신순으로 대체
+    private String resolveSort(String sortKey) {
+        String sort = safe(sortKey);
+        return ("hot".equals(sort) && !hotPostRanking.isReady()) ? "latest" : sort;
+    }
+
     private String buildLikeParam(String raw) {
         if (raw == null) return null;
         String t = raw.trim().toLowerCase();
@@ -304,7 +626,11 @@ public class PostService {
     }
 
     // ====================== 좋아요 / 스크랩 ======================
+    // INSERT IGNORE / 조건부 DELETE 의 영향 행 수로 실제 변경 여부를 판단하므로,
+    // 같은 요청이 동시에 들어와도 유니크 제약 예외 없이 한 번만 반영되고 카운터도 그만큼만 바뀐다.
 
+    // 현재 상태의 반대로 설정 (기존 POST API 호환). 방향은 캐시가 아니라 DB 영향 행 수로 정함:
+    // 해제를 먼저 시도하고 지운 행이 없으면 추가
     @Transactional
     public void toggleLike(Long postId, String currentUsername) {
         User user = userRepository.findByUserName(currentUsername)
@@ -312,85 +638,118 @@ public class PostService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new IllegalArgumentException("게시물이 존재하지 않습니다. ID: " + postId));
 
-        Optional<PostLike> existingLike = postLikeRepository.findByUserAndPost(user, post);
-
-        if (existingLike.isPresent()) {
-            postLikeRepository.delete(existingLike.get());
-        } else {
-            PostLike newLike = new PostLike();
-            newLike.setUser(user);
-            newLike.setPost(post);
-            postLikeRepository.save(newLike);
+        if (!applyLike(user, post, false)) {
+            applyLike(user, post, true);
         }
     }
 
+    // 좋아요 설정(true)/해제(false). 이미 그 상태면 아무것도 바꾸지 않으며, 실제로 바뀌었는지 반환
     @Transactional
-    public void toggleScrap(Long postId, String currentUsername) {
+    public boolean setLike(Long postId, String currentUsername, boolean liked) {
         User user = userRepository.findByUserName(currentUsername)
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + currentUsername));
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new IllegalArgumentException("게시물이 존재하지 않습니다. ID: " + postId));
 
-        Optional<PostScrap> existingScrap = postScrapRepository.findByUserAndPost(user, post);
+        return applyLike(user, post, liked);
+    }
 
-        if (existingScrap.isPresent()) {
-            postScrapRepository.delete(existingScrap.get());
-        } else {
-            PostScrap newScrap = new PostScrap();
-            newScrap.setUser(user);
-            newScrap.setPost(post);
-            newScrap.setCreatedAt(LocalDateTime.now());
-            postScrapRepository.save(newScrap);
+    private boolean applyLike(User user, Post post, boolean liked) {
+        Long postId = post.getPostId();
+        int changed = liked
+                ? postLikeRepository.insertIfAbsent(user.getUserId(), postId)
+                : postLikeRepository.deleteIfPresent(user.getUserId(), postId);
+        if (changed == 0) return false;
+
+        long delta = liked ? 1 : -1;
+        postCounterBuffer.addLikes(postId, delta);
+        popularPostRanking.onLikeChangedAfterCommit(post, delta);
+        userEngagementCache.setPostLikedAfterCommit(user.getUserId(), postId, liked);
+        return true;
+    }
+
+    @Transactional
+    public void toggleScrap(Long postId, String currentUsername) {
+        User user = userRepository.findByUserName(currentUsername)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + currentUsername));
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new IllegalArgumentException("게시물이 존재하지 않습니다. ID: " + postId));
+
+        // toggleLike 와 같이 해제를 먼저 시도하고 지운 행이 없으면 추가
+        if (!applyScrap(user, post, false)) {
+            applyScrap(user, post, true);
         }
     }
 
+    @Transactional
+    public boolean setScrap(Long postId, String currentUsername, boolean scrapped) {
+        User user = userRepository.findByUserName(currentUsername)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + currentUsername));
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new IllegalArgumentException("게시물이 존재하지 않습니다. ID: " + postId));
+
+        return applyScrap(user, post, scrapped);
+    }
+
+    private boolean applyScrap(User user, Post post, boolean scrapped) {
+        Long postId = post.getPostId();
+        int changed = scrapped
+                ? postScrapRepository.insertIfAbsent(user.getUserId(), postId)
+                : postScrapRepository.deleteIfPresent(user.getUserId(), postId);
+        if (changed == 0) return false;
+
+        postCounterBuffer.addScraps(postId, scrapped ? 1 : -1);
+        userEngagementCache.setPostScrappedAfterCommit(user.getUserId(), postId, scrapped);
+        return true;
+    }
+
     // 마이페이지: 사용자가 스크랩한 게시물 페이징
     @Transactional(readOnly = true)
-    public Page<PostResponseDto> getScrappedPostsByUsername(String username, Pageable pageable) {
+    public Page<PostSummaryDto> getScrappedPostsByUsername(String username, Pageable pageable) {
         User user = userRepository.findByUserName(username)
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
-        Page<PostScrap> scraps = postScrapRepository.findAllByUser(user, pageable);
-
-        return scraps.map(scrap -> convertToDto(scrap.getPost(), user));
+        Page<Long> postIds = postScrapRepository.findPostIdsByUser(user, pageable);
+        return convertToSummaryPage(postIds, user);
     }
 
     // 마이페이지: 사용자가 최근 스크랩한 게시물 4개
     @Transactional(readOnly = true)
-    public List<PostResponseDto> getRecentScrappedPostsByUsername(String username) {
+    public List<PostSummaryDto> getRecentScrappedPostsByUsername(String username) {
         User user = userRepository.findByUserName(username)
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
-        List<PostScrap> scraps = postScrapRepository.findFirst4ByUserOrderByCreatedAtDesc(user);
-
-        return scraps.stream()
-                .map(scrap -> convertToDto(scrap.getPost(), user))
-                .collect(Collectors.toList());
+        List<Long> postIds = postScrapRepository.findRecent4PostIdsByUser(user);
+        return convertToSummaries(postIds, user);
     }
 
     // 마이페이지: 사용자가 등록한 게시물 페이징
     @Transactional(readOnly = true)
-    public Page<PostResponseDto> getPostsByUserId(Long userId, Pageable pageable, String currentUsername) {
+    public Page<PostSummaryDto> getPostsByUserId(Long userId, Pageable pageable, String currentUsername) {
         User currentUser = getUserOrNull(currentUsername);
-        Page<Post> posts = postRepository.findByUser_UserIdOrderByCreatedAtDesc(userId, pageable);
-        return posts.map(post -> convertToDto(post, currentUser));
+        Page<Long> postIds = postRepository.findIdsByUserId(userId, pageable);
+        return convertToSummaryPage(postIds, currentUser);
     }
 
     // 마이페이지: 사용자가 최근 등록한 게시물 4개
     @Transactional(readOnly = true)
-    public List<PostResponseDto> getRecentPostsByUserId(Long userId, String currentUsername) {
+    public List<PostSummaryDto> getRecentPostsByUserId(Long userId, String currentUsername) {
         User currentUser = getUserOrNull(currentUsername);
-        List<Post> posts = postRepository.findFirst4ByUser_UserIdOrderByCreatedAtDesc(userId);
-        return posts.stream()
-                .map(post -> convertToDto(post, currentUser))
-                .collect(Collectors.toList());
+        List<Long> postIds = postRepository.findRecent4IdsByUserId(userId);
+        return convertToSummaries(postIds, currentUser);
     }
 
     // 좋아요 기준 인기 게시글 (MainPageService 등에서 사용 시 currentUsername 전달 필요)
+    // 순위는 메모리 랭킹에서 바로 꺼내고, 랭킹이 없는 경우(전체 탭/적재 전)에만 DB에서 정렬
     @Transactional(readOnly = true)
-    public List<PostResponseDto> getPopularPosts(Boolean contentsType, String currentUsername) {
+    public List<PostSummaryDto> getPopularPosts(Boolean contentsType, String currentUsername) {
         User currentUser = getUserOrNull(currentUsername);
-        List<Post> popularPosts = postRepository.findTop7ByLikes(contentsType);
-        return popularPosts.stream()
-                .map(post -> convertToDto(post, currentUser))
-                .collect(Collectors.toList());
+        List<Long> popularPostIds = popularPostRanking.topIds(contentsType);
+        if (popularPostIds == null) {
+            popularPostIds = postRepository
+                    .findTopLikeRanks(contentsType, PageRequest.of(0, PopularPostRanking.SERVED_SIZE))
+                    .stream()
+                    .map(PostRepository.PostLikeRank::getPostId)
+                    .toList();
+        }
+        return convertToSummaries(popularPostIds, currentUser);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,264 @@
+// 태그/탭 필터용 메모리 비트맵 인덱스 (tag_id -> 게시물 ID 비트맵, contentsType -> 게시물 ID 비트맵)
+package com.example.codegardener.post.service;
+
+import com.example.codegardener.post.repository.PostRepository;
+import com.example.codegardener.post.repository.PostTagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 언어 OR / 스택 OR / 탭 AND 조건을 비트맵 합집합·교집합으로 계산한다.
+ * 원본은 post_tag 테이블이며, 기동 시(PostTagMigration)와 매일 전체를 다시 읽어 구축하고 그 사이에는 커밋 시점마다 갱신한다.
+ * 재구축은 요청을 받는 중에 돌므로, 그동안 들어온 변경은 새 인덱스에도 반영하고 DB 배치로 덮어쓰지 않는다 (PostSearchIndex 와 같은 방식).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostTagIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final PostRepository postRepository;
+    private final PostTagRepository postTagRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Bitmaps bitmaps = new Bitmaps();
+    private volatile boolean ready = false;
+
+    // 재구축 중 들어온 변경 사항을 새 인덱스에도 반영하기 위한 빌더
+    private Builder rebuilding;
+
+    // ====================== 조회 ======================
+
+    /**
+     * 태그 조건에 맞는 게시물 ID 집합.
+     * 태그 조건이 없거나 인덱스가 아직 준비되지 않았으면 null (호출 측에서 SQL 조건으로 처리).
+     */
+    public RoaringBitmap match(Collection<Long> languageTagIds, Collection<Long> stackTagIds, Boolean contentsType) {
+        if (!ready || (languageTagIds.isEmpty() && stackTagIds.isEmpty())) return null;
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = null;
+            if (!languageTagIds.isEmpty()) {
+                result = union(languageTagIds);
+            }
+            if (!stackTagIds.isEmpty()) {
+                RoaringBitmap stacks = union(stackTagIds);
+                result = (result == null) ? stacks : RoaringBitmap.and(result, stacks);
+            }
+            if (contentsType != null) {
+                result.and(contentsType ? bitmaps.devPosts : bitmaps.codingTestPosts);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap union(Collection<Long> tagIds) {
+        List<RoaringBitmap> lists = new ArrayList<>();
+        for (Long tagId : tagIds) {
+            RoaringBitmap posts = bitmaps.postsByTag.get(tagId);
+            if (posts != null) lists.add(posts);
+        }
+        return lists.isEmpty() ? new RoaringBitmap() : FastAggregation.or(lists.iterator());
+    }
+
+    // ====================== 변경 반영 ======================
+
+    public void updateAfterCommit(Long postId, Boolean contentsType, long[] tagIds) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                int id = Math.toIntExact(postId);
+                bitmaps.put(id, contentsType, tagIds);
+                if (rebuilding != null) {
+                    rebuilding.bitmaps.put(id, contentsType, tagIds);
+                    rebuilding.touched.add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void removeAfterCommit(Long postId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                int id = Math.toIntExact(postId);
+                bitmaps.remove(id);
+                if (rebuilding != null) {
+                    rebuilding.bitmaps.remove(id);
+                    rebuilding.touched.add(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // ====================== DB로부터 재구축 ======================
+
+    // 커밋 후 갱신이 빠진 경우(프로세스 중단 등)를 바로잡도록 주기적으로도 재구축 (기동 시 재구축과 겹치지 않게 동기화)
+    @Scheduled(cron = "${post.tag.index.rebuild-cron:0 15 5 * * *}")
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        Builder builder = new Builder();
+        lock.writeLock().lock();
+        try {
+            rebuilding = builder;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            long afterId = 0;
+            while (true) {
+                List<PostTagRepository.PostTagPair> rows = postTagRepository.findPairsAfter(afterId, REBUILD_BATCH_SIZE);
+                if (rows.isEmpty()) break;
+
+                // 배치는 락 밖에서 읽으므로, 그사이 커밋 후 갱신으로 이미 최신 상태가 된 게시물은 옛 행으로 덮어쓰지 않음
+                lock.writeLock().lock();
+                try {
+                    for (PostTagRepository.PostTagPair row : rows) {
+                        int postId = Math.toIntExact(row.getPostId());
+                        if (builder.touched.contains(postId)) continue;
+                        builder.bitmaps.addTag(postId, row.getTagId());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                afterId = rows.get(rows.size() - 1).getPostTagId();
+            }
+
+            afterId = 0;
+            while (true) {
+                List<PostRepository.PostContentsType> rows = postRepository.findContentsTypesAfter(afterId, REBUILD_BATCH_SIZE);
+                if (rows.isEmpty()) break;
+
+                lock.writeLock().lock();
+                try {
+                    for (PostRepository.PostContentsType row : rows) {
+                        int postId = Math.toIntExact(row.getPostId());
+                        if (builder.touched.contains(postId)) continue;
+                        builder.bitmaps.setContentsType(postId, row.getContentsType());
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                afterId = rows.get(rows.size() - 1).getPostId();
+            }
+
+            lock.writeLock().lock();
+            try {
+                builder.bitmaps.optimize();
+                bitmaps = builder.bitmaps;
+                rebuilding = null;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("[TAG] bitmap index rebuilt in {}ms: tags={}, taggedPosts={}, updatedDuringRebuild={}",
+                    System.currentTimeMillis() - started, builder.bitmaps.postsByTag.size(),
+                    builder.bitmaps.tagsByPost.size(), builder.touched.getCardinality());
+        } catch (Exception e) {
+            // 기존 인덱스(있다면)는 커밋 후 갱신을 계속 받으므로 그대로 사용
+            log.error("[TAG] bitmap index rebuild 실패: {}", e.getMessage(), e);
+            lock.writeLock().lock();
+            try {
+                rebuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // ====================== 내부 자료구조 ======================
+
+    private static final class Bitmaps {
+        private final Map<Long, RoaringBitmap> postsByTag = new HashMap<>();
+        private final Map<Integer, long[]> tagsByPost = new HashMap<>();
+        private final RoaringBitmap devPosts = new RoaringBitmap();
+        private final RoaringBitmap codingTestPosts = new RoaringBitmap();
+
+        // 게시물의 태그/탭을 통째로 교체
+        private void put(int id, Boolean contentsType, long[] tagIds) {
+            remove(id);
+            for (long tagId : tagIds) {
+                postsByTag.computeIfAbsent(tagId, t -> new RoaringBitmap()).add(id);
+            }
+            tagsByPost.put(id, tagIds);
+            setContentsType(id, contentsType);
+        }
+
+        // 재구축 배치용: post_tag 한 행씩 추가
+        private void addTag(int id, long tagId) {
+            postsByTag.computeIfAbsent(tagId, t -> new RoaringBitmap()).add(id);
+            long[] old = tagsByPost.get(id);
+            long[] tags = (old == null) ? new long[1] : Arrays.copyOf(old, old.length + 1);
+            tags[tags.length - 1] = tagId;
+            tagsByPost.put(id, tags);
+        }
+
+        private void setContentsType(int id, Boolean contentsType) {
+            devPosts.remove(id);
+            codingTestPosts.remove(id);
+            if (Boolean.TRUE.equals(contentsType)) devPosts.add(id);
+            if (Boolean.FALSE.equals(contentsType)) codingTestPosts.add(id);
+        }
+
+        private void remove(int id) {
+            long[] old = tagsByPost.remove(id);
+            if (old != null) {
+                for (long tagId : old) {
+                    RoaringBitmap posts = postsByTag.get(tagId);
+                    if (posts != null) posts.remove(id);
+                }
+            }
+            devPosts.remove(id);
+            codingTestPosts.remove(id);
+        }
+
+        private void optimize() {
+            postsByTag.values().forEach(RoaringBitmap::runOptimize);
+            devPosts.runOptimize();
+            codingTestPosts.runOptimize();
+        }
+    }
+
+    private static final class Builder {
+        private final Bitmaps bitmaps = new Bitmaps();
+        // 재구축 중 커밋 후 갱신으로 직접 반영된 게시물 ID (DB 배치 결과보다 최신)
+        private final RoaringBitmap touched = new RoaringBitmap();
+    }
+}
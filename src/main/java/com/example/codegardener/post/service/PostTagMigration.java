@@ -0,0 +1,32 @@
+// 기존 CSV 태그 컬럼(lang_tags / stack_tags)을 태그 사전 + post_tag 로 이관한 뒤 비트맵 인덱스를 구축하는 기동 작업
+package com.example.codegardener.post.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostTagMigration {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final PostTagService postTagService;
+    private final PostTagIndex postTagIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateAndBuildIndex() {
+        int batches = 0;
+        Long afterId = 0L;
+        while ((afterId = postTagService.migrateCsvBatch(afterId, BATCH_SIZE)) != null) {
+            batches++;
+        }
+        if (batches > 0) {
+            log.info("[TAG] migrated CSV tags to post_tag in {} batches", batches);
+        }
+        postTagIndex.rebuild();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.codegardener.post.service;
+
+import com.example.codegardener.post.domain.Post;
+import com.example.codegardener.post.domain.PostTag;
+import com.example.codegardener.post.domain.Tag;
+import com.example.codegardener.post.domain.TagType;
+import com.example.codegardener.post.repository.PostRepository;
+import com.example.codegardener.post.repository.PostTagRepository;
+import com.example.codegardener.post.repository.TagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PostTagService {
+
+    private final TagRepository tagRepository;
+    private final PostTagRepository postTagRepository;
+    private final PostRepository postRepository;
+    private final PostTagIndex postTagIndex;
+
+    // 검색 요청의 언어/스택 이름을 tag_id 로 변환한 결과
+    public record TagFilter(List<Long> languageTagIds, List<Long> stackTagIds, boolean unsatisfiable) {
+
+        public boolean hasAny() {
+            return !languageTagIds.isEmpty() || !stackTagIds.isEmpty();
+        }
+    }
+
+    // ====================== 게시물 태그 동기화 ======================
+
+    // 게시물의 CSV 태그(normalizeCsv 결과)를 post_tag 와 비트맵 인덱스에 반영
+    @Transactional
+    public void syncTags(Post post) {
+        Map<TagType, List<String>> wanted = new EnumMap<>(TagType.class);
+        wanted.put(TagType.LANGUAGE, splitCsv(post.getLangTags()));
+        wanted.put(TagType.STACK, splitCsv(post.getStackTags()));
+
+        Set<Long> wantedTagIds = new HashSet<>();
+        Map<Long, Tag> tagsById = new HashMap<>();
+        wanted.forEach((type, names) -> resolveOrCreate(type, names).forEach(tag -> {
+            wantedTagIds.add(tag.getTagId());
+            tagsById.put(tag.getTagId(), tag);
+        }));
+
+        // 기존 태그와 비교해 바뀐 부분만 삭제/추가 (같은 태그를 지웠다 다시 넣으면 유니크 제약에 걸림)
+        List<PostTag> existing = postTagRepository.findByPostIdWithTag(post.getPostId());
+        Set<Long> existingTagIds = new HashSet<>();
+        List<PostTag> stale = new ArrayList<>();
+        for (PostTag postTag : existing) {
+            Long tagId = postTag.getTag().getTagId();
+            if (wantedTagIds.contains(tagId)) existingTagIds.add(tagId);
+            else stale.add(postTag);
+        }
+        postTagRepository.deleteAll(stale);
+
+        List<PostTag> added = new ArrayList<>();
+        for (Long tagId : wantedTagIds) {
+            if (existingTagIds.contains(tagId)) continue;
+            PostTag postTag = new PostTag();
+            postTag.setPost(post);
+            postTag.setTag(tagsById.get(tagId));
+            added.add(postTag);
+        }
+        postTagRepository.saveAll(added);
+
+        long[] tagIds = wantedTagIds.stream().mapToLong(Long::longValue).toArray();
+        postTagIndex.updateAfterCommit(post.getPostId(), post.getContentsType(), tagIds);
+    }
+
+    // post_tag 행은 Post 의 cascade 로 삭제되므로 인덱스만 정리
+    public void onPostDeleted(Long postId) {
+        postTagIndex.removeAfterCommit(postId);
+    }
+
+    private List<Tag> resolveOrCreate(TagType type, List<String> names) {
+        if (names.isEmpty()) return Collections.emptyList();
+
+        List<Tag> found = tagRepository.findByTypeAndNames(type, names);
+        if (found.size() == names.size()) return found;
+
+        Set<String> foundNames = found.stream().map(Tag::getName).collect(Collectors.toSet());
+        names.stream()
+                .filter(name -> !foundNames.contains(name))
+                .forEach(name -> tagRepository.insertIgnore(type.name(), name));
+        return tagRepository.findByTypeAndNames(type, names);
+    }
+
+    // ====================== 검색 필터 ======================
+
+    // 언어/스택 이름 목록을 tag_id 로 변환 (사전에 없는 이름은 어떤 게시물에도 달려 있지 않으므로 무시)
+    @Transactional(readOnly = true)
+    public TagFilter resolveFilter(List<String> languages, List<String> stacks) {
+        List<Long> languageIds = findTagIds(TagType.LANGUAGE, languages);
+        List<Long> stackIds = findTagIds(TagType.STACK, stacks);
+
+        // 요청한 그룹의 태그가 하나도 존재하지 않으면 결과가 없음이 확정
+        boolean unsatisfiable = (!languages.isEmpty() && languageIds.isEmpty())
+                || (!stacks.isEmpty() && stackIds.isEmpty());
+        return new TagFilter(languageIds, stackIds, unsatisfiable);
+    }
+
+    // 비트맵으로 계산한 태그(+탭) 조건 일치 게시물. 인덱스 미준비 시 null
+    public RoaringBitmap match(TagFilter filter, Boolean contentsType) {
+        return postTagIndex.match(filter.languageTagIds(), filter.stackTagIds(), contentsType);
+    }
+
+    private List<Long> findTagIds(TagType type, List<String> names) {
+        if (names.isEmpty()) return Collections.emptyList();
+        return tagRepository.findByTypeAndNames(type, names).stream()
+                .map(Tag::getTagId)
+                .toList();
+    }
+
+    // ====================== CSV 컬럼 이관 ======================
+
+    // 아직 post_tag 가 없는 게시물의 CSV 태그를 배치 단위로 이관하고, 마지막으로 처리한 post_id 반환 (없으면 null)
+    @Transactional
+    public Long migrateCsvBatch(long afterId, int batchSize) {
+        List<PostRepository.PostTagSource> rows = postRepository.findUnmigratedTagSourcesAfter(afterId, batchSize);
+        if (rows.isEmpty()) return null;
+
+        for (PostRepository.PostTagSource row : rows) {
+            Post post = postRepository.getReferenceById(row.getPostId());
+            List<PostTag> postTags = new ArrayList<>();
+            for (Tag tag : resolveOrCreate(TagType.LANGUAGE, splitCsv(row.getLangTags()))) {
+                postTags.add(newPostTag(post, tag));
+            }
+            for (Tag tag : resolveOrCreate(TagType.STACK, splitCsv(row.getStackTags()))) {
+                postTags.add(newPostTag(post, tag));
+            }
+            postTagRepository.saveAll(postTags);
+        }
+        return rows.get(rows.size() - 1).getPostId();
+    }
+
+    private PostTag newPostTag(Post post, Tag tag) {
+        PostTag postTag = new PostTag();
+        postTag.setPost(post);
+        postTag.setTag(tag);
+        return postTag;
+    }
+
+    // normalizeCsv 로 이미 소문자/중복 제거된 값을 분리 (사전 컬럼 길이를 넘는 이름은 제외)
+    private List<String> splitCsv(String csv) {
+        if (csv == null || csv.isBlank()) return Collections.emptyList();
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty() && s.length() <= Tag.MAX_NAME_LENGTH)
+                .map(String::toLowerCase)
+                .distinct()
+                .toList();
+    }
+}
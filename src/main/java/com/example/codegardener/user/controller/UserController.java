@@ -2,7 +2,7 @@ package com.example.codegardener.user.controller;
 
 import com.example.codegardener.feedback.dto.FeedbackResponseDto;
 import com.example.codegardener.feedback.service.FeedbackService;
-import com.example.codegardener.post.dto.PostResponseDto;
+import com.example.codegardener.post.dto.PostSummaryDto;
 import com.example.codegardener.post.service.PostService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -148,23 +148,23 @@ public class UserController {
     }
 
     @GetMapping("/{userId}/posts/recent")
-    public ResponseEntity<List<PostResponseDto>> getUserRecentPosts(
+    public ResponseEntity<List<PostSummaryDto>> getUserRecentPosts(
             @PathVariable Long userId,
             @AuthenticationPrincipal UserDetails userDetails
     ) {
         String currentUsername = (userDetails != null) ? userDetails.getUsername() : null;
-        List<PostResponseDto> posts = postService.getRecentPostsByUserId(userId, currentUsername);
+        List<PostSummaryDto> posts = postService.getRecentPostsByUserId(userId, currentUsername);
         return ResponseEntity.ok(posts);
     }
 
     @GetMapping("/{userId}/posts")
-    public ResponseEntity<Page<PostResponseDto>> getUserPosts(
+    public ResponseEntity<Page<PostSummaryDto>> getUserPosts(
             @PathVariable Long userId,
             @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
             @AuthenticationPrincipal UserDetails userDetails
     ) {
         String currentUsername = (userDetails != null) ? userDetails.getUsername() : null;
-        Page<PostResponseDto> postPage = postService.getPostsByUserId(userId, pageable, currentUsername);
+        Page<PostSummaryDto> postPage = postService.getPostsByUserId(userId, pageable, currentUsername);
         return ResponseEntity.ok(postPage);
     }
 
@@ -190,21 +190,21 @@ public class UserController {
     }
 
     @GetMapping("/{userId}/scraps/recent")
-    public ResponseEntity<List<PostResponseDto>> getMyRecentScraps(
+    public ResponseEntity<List<PostSummaryDto>> getMyRecentScraps(
             @AuthenticationPrincipal UserDetails userDetails
     ) {
         if (userDetails == null) throw new AccessDeniedException("로그인이 필요합니다.");
-        List<PostResponseDto> scraps = postService.getRecentScrappedPostsByUsername(userDetails.getUsername());
+        List<PostSummaryDto> scraps = postService.getRecentScrappedPostsByUsername(userDetails.getUsername());
         return ResponseEntity.ok(scraps);
     }
 
     @GetMapping("/{userId}/scraps")
-    public ResponseEntity<Page<PostResponseDto>> getMyScraps(
+    public ResponseEntity<Page<PostSummaryDto>> getMyScraps(
             @AuthenticationPrincipal UserDetails userDetails,
             @PageableDefault(size = 10, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
     ) {
         if (userDetails == null) throw new AccessDeniedException("로그인이 필요합니다.");
-        Page<PostResponseDto> scrapPage = postService.getScrappedPostsByUsername(userDetails.getUsername(), pageable);
+        Page<PostSummaryDto> scrapPage = postService.getScrappedPostsByUsername(userDetails.getUsername(), pageable);
         return ResponseEntity.ok(scrapPage);
     }
 }
\ No newline at end of file
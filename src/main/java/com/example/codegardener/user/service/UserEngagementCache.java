@@ -0,0 +1,149 @@
+// 로그인 사용자별 좋아요/스크랩 여부 캐시 (게시물 좋아요, 게시물 스크랩, 피드백 좋아요 ID 집합)
+package com.example.codegardener.user.service;
+
+import com.example.codegardener.feedback.repository.FeedbackLikesRepository;
+import com.example.codegardener.post.repository.PostLikeRepository;
+import com.example.codegardener.post.repository.PostScrapRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 목록/상세 응답의 liked, scrapped 플래그를 행마다 exists 쿼리로 확인하지 않도록
+ * 사용자가 처음 조회할 때 세 종류의 ID 전체를 비트맵으로 적재해 두고 토글 시 갱신한다.
+ * 사용자 수와 유휴 시간으로 제거되며, 다시 조회하면 DB에서 새로 적재한다.
+ *
+ * 토글 갱신은 커밋 후 asMap().computeIfPresent 로 반영하므로 같은 사용자의 적재와 직렬화된다.
+ * (커밋 전 상태를 읽은 적재가 진행 중이면 적재가 끝난 뒤 갱신이 적용됨)
+ */
+@Slf4j
+@Component
+public class UserEngagementCache {
+
+    private final PostLikeRepository postLikeRepository;
+    private final PostScrapRepository postScrapRepository;
+    private final FeedbackLikesRepository feedbackLikesRepository;
+
+    private final Cache<Long, Membership> cache;
+
+    public UserEngagementCache(PostLikeRepository postLikeRepository,
+                               PostScrapRepository postScrapRepository,
+                               FeedbackLikesRepository feedbackLikesRepository,
+                               @Value("${user.engagement-cache.max-users:10000}") long maxUsers,
+                               @Value("${user.engagement-cache.idle-minutes:30}") long idleMinutes) {
+        this.postLikeRepository = postLikeRepository;
+        this.postScrapRepository = postScrapRepository;
+        this.feedbackLikesRepository = feedbackLikesRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    // 사용자 한 명의 좋아요/스크랩 ID 집합 (비트맵은 스레드 안전하지 않으므로 이 객체로 동기화)
+    private static final class Membership {
+        private final RoaringBitmap likedPosts;
+        private final RoaringBitmap scrappedPosts;
+        private final RoaringBitmap likedFeedbacks;
+
+        private Membership(RoaringBitmap likedPosts, RoaringBitmap scrappedPosts, RoaringBitmap likedFeedbacks) {
+            this.likedPosts = likedPosts;
+            this.scrappedPosts = scrappedPosts;
+            this.likedFeedbacks = likedFeedbacks;
+        }
+    }
+
+    // ====================== 조회 ======================
+
+    public boolean likedPost(Long userId, Long postId) {
+        Membership m = membership(userId);
+        synchronized (m) {
+            return m.likedPosts.contains(Math.toIntExact(postId));
+        }
+    }
+
+    public boolean scrappedPost(Long userId, Long postId) {
+        Membership m = membership(userId);
+        synchronized (m) {
+            return m.scrappedPosts.contains(Math.toIntExact(postId));
+        }
+    }
+
+    public boolean likedFeedback(Long userId, Long feedbackId) {
+        Membership m = membership(userId);
+        synchronized (m) {
+            return m.likedFeedbacks.contains(Math.toIntExact(feedbackId));
+        }
+    }
+
+    private Membership membership(Long userId) {
+        return cache.get(userId, this::load);
+    }
+
+    private Membership load(Long userId) {
+        Membership m = new Membership(
+                toBitmap(postLikeRepository.findAllPostIdsByUserId(userId)),
+                toBitmap(postScrapRepository.findAllPostIdsByUserId(userId)),
+                toBitmap(feedbackLikesRepository.findAllFeedbackIdsByUserId(userId)));
+        log.debug("[ENGAGEMENT] loaded userId={} likes={} scraps={} feedbackLikes={}", userId,
+                m.likedPosts.getCardinality(), m.scrappedPosts.getCardinality(), m.likedFeedbacks.getCardinality());
+        return m;
+    }
+
+    private static RoaringBitmap toBitmap(List<Long> ids) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (Long id : ids) bitmap.add(Math.toIntExact(id));
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    // ====================== 토글 반영 (캐시에 적재된 사용자만) ======================
+
+    public void setPostLikedAfterCommit(Long userId, Long postId, boolean liked) {
+        afterCommit(() -> update(userId, m -> set(m.likedPosts, postId, liked)));
+    }
+
+    public void setPostScrappedAfterCommit(Long userId, Long postId, boolean scrapped) {
+        afterCommit(() -> update(userId, m -> set(m.scrappedPosts, postId, scrapped)));
+    }
+
+    public void setFeedbackLikedAfterCommit(Long userId, Long feedbackId, boolean liked) {
+        afterCommit(() -> update(userId, m -> set(m.likedFeedbacks, feedbackId, liked)));
+    }
+
+    private void update(Long userId, Consumer<Membership> change) {
+        cache.asMap().computeIfPresent(userId, (id, m) -> {
+            synchronized (m) {
+                change.accept(m);
+            }
+            return m;
+        });
+    }
+
+    private static void set(RoaringBitmap bitmap, Long id, boolean present) {
+        if (present) bitmap.add(Math.toIntExact(id));
+        else bitmap.remove(Math.toIntExact(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.codegardener.ai.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import com.example.codegardener.ai.repository.AiReviewCacheRepository;
+import com.example.codegardener.post.domain.Post;
+import com.example.codegardener.post.repository.PostRepository;
+
+/**
+ * 큰 코드를 나눠 리뷰하는 경로(조각 리뷰 → 총평)를 OpenAiClient mock 으로 확인한다.
+ * 조각이 끝나는 순서와 관계없이 원래 순서로 합치는지, 리뷰 하나의 동시 호출 수 제한,
+ * 한 조각이 실패하면 남은 조각은 시작하지 않고 호출 중인 조각은 인터럽트하지 않는지,
+ * 위쪽에 줄이 추가되어도 경계가 그대로인 조각은 캐시를 재사용하는지 본다.
+ */
+class AiFeedbackServiceTest {
+
+	private static final int MAX_INPUT_TOKENS = 200;
+	private static final int PARALLELISM = 2;
+	private static final Pattern METHOD = Pattern.compile("int (method\\d+)\\(");
+
+	private final PostRepository postRepository = mock(PostRepository.class);
+	private final OpenAiClient openAiClient = mock(OpenAiClient.class);
+	private final List<String> chunkCalls = new CopyOnWriteArrayList<>();
+	private final AtomicInteger mergeCalls = new AtomicInteger();
+
+	private AiFeedbackService service;
+
+	// 메서드 12개 → 추정 475 토큰, 200 토큰 한도로 4조각 (메서드 3개씩)
+	private static String code(int methods) {
+		StringBuilder code = new StringBuilder();
+		for (int m = 0; m < methods; m++) {
+			code.append("int method").append(m).append("(int v) {\n");
+			for (int k = 0; k < 6; k++) {
+				code.append("    v = v * ").append(k).append(" + 17;\n");
+			}
+			code.append("    return v;\n}\n\n");
+		}
+		return code.toString();
+	}
+
+	@BeforeEach
+	void setUp() {
+		AiReviewCacheRepository cacheRepository = mock(AiReviewCacheRepository.class);
+		when(cacheRepository.insertIfAbsent(anyString(), anyString(), anyString(), any())).thenReturn(1);
+		AiReviewCache cache = new AiReviewCache(cacheRepository, true, 100, 30, 1000);
+		service = new AiFeedbackService(postRepository, cache, openAiClient, false, "gpt-4o-mini", 0.7, 800,
+				MAX_INPUT_TOKENS, 500, 20, PARALLELISM, 4);
+		givenPost(code(12));
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void mergesChunkReviewsInSourceOrder() {
+		// 뒤 조각일수록 빨리 끝남
+		answerChunks(prompt -> {
+			sleep(200 - 40 * Integer.parseInt(firstMethod(prompt).substring("method".length())) / 3);
+			return "review of " + firstMethod(prompt);
+		});
+
+		String review = service.generateTextForPost(1L, false);
+
+		assertTrue(review.startsWith("[총평]\noverview\n\n"));
+		assertEquals(4, chunkCalls.size());
+		assertEquals(1, mergeCalls.get());
+		int previous = -1;
+		for (String method : List.of("method0", "method3", "method6", "method9")) {
+			int at = review.indexOf("review of " + method);
+			assertTrue(at > previous, () -> method + " 리뷰가 순서대로 있어야 합니다: " + review);
+			previous = at;
+		}
+		assertTrue(review.contains("[1~30행]\nreview of method0"));
+		assertTrue(review.contains("[91~121행]\nreview of method9"));
+	}
+
+	@Test
+	void limitsConcurrentChunkCallsPerReview() {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		answerChunks(prompt -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			sleep(50);
+			running.decrementAndGet();
+			return "review";
+		});
+
+		service.generateTextForPost(1L, false);
+
+		assertEquals(4, chunkCalls.size());
+		assertEquals(PARALLELISM, maxRunning.get());
+	}
+
+	@Test
+	void failedChunkStopsRemainingChunksWithoutInterrupting() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(1);
+		AtomicBoolean interrupted = new AtomicBoolean();
+		answerChunks(prompt -> {
+			if (firstMethod(prompt).equals("method0")) {
+				throw new IllegalStateException("upstream down");
+			}
+			// 두 번째 조각은 실패 이후까지 호출 중
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				interrupted.set(true);
+			}
+			finished.countDown();
+			return "review of " + firstMethod(prompt);
+		});
+
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> service.generateTextForPost(1L, false));
+		assertTrue(e.getMessage().contains("upstream down"));
+
+		release.countDown();
+		assertTrue(finished.await(5, TimeUnit.SECONDS));
+		assertFalse(interrupted.get());
+		Thread.sleep(100);
+		assertEquals(List.of("method0", "method3"), chunkCalls.stream().sorted().toList());
+		assertEquals(0, mergeCalls.get());
+
+		// 끝까지 받은 조각은 캐시되어 다시 요청하면 나머지만 호출
+		chunkCalls.clear();
+		answerChunks(prompt -> "review of " + firstMethod(prompt));
+		service.generateTextForPost(1L, false);
+		assertEquals(List.of("method0", "method6", "method9"), chunkCalls.stream().sorted().toList());
+	}
+
+	@Test
+	void unchangedChunksReuseCacheAfterLinesShift() {
+		answerChunks(prompt -> "review of " + firstMethod(prompt));
+		service.generateTextForPost(1L, false);
+		assertEquals(4, chunkCalls.size());
+
+		// 맨 위에 한 줄을 넣으면 뒤 조각의 행 번호는 모두 밀리지만 내용과 경계는 그대로
+		chunkCalls.clear();
+		givenPost("// 한 줄 추가\n" + code(12));
+		String review = service.generateTextForPost(1L, false);
+
+		assertEquals(List.of("method0"), chunkCalls);
+		assertEquals(2, mergeCalls.get());
+		assertTrue(review.contains("[32~61행]\nreview of method3"));
+	}
+
+	@Test
+	void regenerateCallsEveryChunkAgain() {
+		answerChunks(prompt -> "review of " + firstMethod(prompt));
+		service.generateTextForPost(1L, false);
+		chunkCalls.clear();
+
+		service.generateTextForPost(1L, true);
+
+		assertEquals(4, chunkCalls.size());
+	}
+
+	private interface ChunkReviewer {
+		String review(String prompt) throws Exception;
+	}
+
+	// 조각 프롬프트는 reviewer 로, 총평 프롬프트는 "overview" 로 응답 (테스트 도중 바꿀 수 있도록 doAnswer 로 등록)
+	private void answerChunks(ChunkReviewer reviewer) {
+		doAnswer((Answer<String>) invocation -> {
+			String prompt = invocation.<OpenAiClient.ChatRequest>getArgument(0).userPrompt();
+			if (prompt.contains("[부분 리뷰]")) {
+				mergeCalls.incrementAndGet();
+				return "overview";
+			}
+			chunkCalls.add(firstMethod(prompt));
+			return reviewer.review(prompt);
+		}).when(openAiClient).complete(any());
+	}
+
+	private void givenPost(String code) {
+		Post post = Post.builder()
+				.postId(1L)
+				.title("title")
+				.content("content")
+				.code(code)
+				.summary("summary")
+				.build();
+		when(postRepository.findById(anyLong())).thenReturn(Optional.of(post));
+	}
+
+	private static String firstMethod(String prompt) {
+		Matcher matcher = METHOD.matcher(prompt);
+		return matcher.find() ? matcher.group(1) : "";
+	}
+
+	private static void sleep(long ms) {
+		try {
+			Thread.sleep(Math.max(0, ms));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.example.codegardener.ai.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.codegardener.ai.repository.AiReviewCacheRepository;
+
+/**
+ * AiReviewCache 가 보관 기간이 지난 항목을 돌려주지 않고, 다시 생성한 결과로 덮어쓰며,
+ * 정리 작업이 기간이 지난 행과 최대 행 수를 넘는 오래된 행을 지우는지 확인한다.
+ * 저장소 호출마다 따로 커밋되어야 영속성 컨텍스트에 남은 옛 값을 읽지 않으므로 테스트 트랜잭션은 쓰지 않는다.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:ai-review-cache;MODE=MySQL;NON_KEYWORDS=USER",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AiReviewCacheTest {
+
+	private static final long TTL_DAYS = 30;
+
+	@Autowired
+	private AiReviewCacheRepository aiReviewCacheRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private AiReviewCache cache;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM ai_review_cache");
+		cache = cache(10);
+	}
+
+	private AiReviewCache cache(int maxRows) {
+		return new AiReviewCache(aiReviewCacheRepository, true, 100, TTL_DAYS, maxRows);
+	}
+
+	@Test
+	void storedReviewIsReturnedUntilItExpires() {
+		cache.put("k1", "model", "first");
+		assertEquals(Optional.of("first"), cache.get("k1"));
+
+		// 저장 시각을 보관 기간 밖으로 옮기면 메모리/DB 어느 쪽에서도 돌려주지 않음
+		ageRow("k1", TTL_DAYS + 1);
+		assertEquals(Optional.empty(), cache(10).get("k1"));
+	}
+
+	@Test
+	void putKeepsFirstResultButReplaceOverwrites() {
+		cache.put("k1", "model", "first");
+		cache.put("k1", "model", "second");
+		assertEquals(Optional.of("first"), cache(10).get("k1"));
+
+		cache.replace("k1", "model", "regenerated");
+		assertEquals(Optional.of("regenerated"), cache.get("k1"));
+		assertEquals(Optional.of("regenerated"), cache(10).get("k1"));
+	}
+
+	@Test
+	void replaceRestartsRetentionOfExpiredEntry() {
+		cache.put("k1", "model", "first");
+		ageRow("k1", TTL_DAYS + 1);
+
+		cache.replace("k1", "model", "regenerated");
+		assertEquals(Optional.of("regenerated"), cache(10).get("k1"));
+	}
+
+	@Test
+	void disabledCacheNeitherReadsNorWrites() {
+		AiReviewCache disabled = new AiReviewCache(aiReviewCacheRepository, false, 100, TTL_DAYS, 10);
+		disabled.put("k1", "model", "first");
+
+		assertEquals(Optional.empty(), disabled.get("k1"));
+		assertEquals(0, aiReviewCacheRepository.count());
+	}
+
+	@Test
+	void cleanupDeletesExpiredRowsAndTrimsToMaxRows() {
+		AiReviewCache bounded = cache(3);
+		for (int i = 0; i < 6; i++) {
+			bounded.put("k" + i, "model", "review " + i);
+		}
+		ageRow("k5", TTL_DAYS + 1);
+
+		// 최근 3개(k3, k4, k5) 만 남기고, 그중 기간이 지난 k5 도 삭제
+		assertEquals(4, bounded.cleanup());
+		List<String> remaining = jdbcTemplate.queryForList("SELECT cache_key FROM ai_review_cache ORDER BY cache_key", String.class);
+		assertEquals(List.of("k3", "k4"), remaining);
+		assertTrue(cache(3).get("k0").isEmpty());
+	}
+
+	private void ageRow(String cacheKey, long days) {
+		jdbcTemplate.update("UPDATE ai_review_cache SET created_at = ? WHERE cache_key = ?",
+				LocalDateTime.now().minusDays(days), cacheKey);
+	}
+}
@@ -0,0 +1,334 @@
+package com.example.codegardener.ai.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.codegardener.ai.domain.AiReviewJob;
+import com.example.codegardener.ai.domain.AiReviewJobStatus;
+import com.example.codegardener.ai.dto.AiReviewJobDto;
+import com.example.codegardener.ai.repository.AiReviewJobRepository;
+import com.example.codegardener.post.domain.Post;
+import com.example.codegardener.post.repository.PostRepository;
+import com.example.codegardener.user.domain.Role;
+import com.example.codegardener.user.domain.User;
+import com.example.codegardener.user.repository.UserRepository;
+
+/**
+ * AiReviewJobService 의 게시물당 중복 등록 방지, 큐가 가득 찼을 때의 거절, 상태 전이(QUEUED → RUNNING → SUCCEEDED/FAILED),
+ * 다시 생성 요청(regenerate) 전달, 스트리밍과 작업이 게시물당 진행 중 자리를 함께 쓰는지,
+ * 소유 기한이 남은 작업은 회수하지 않고 지난 작업만 다시 실행하는지, 회수된 뒤 늦게 끝난 워커/스트리밍이
+ * 결과를 덮어쓰지 못하는지 확인한다.
+ * 워커가 별도 스레드에서 커밋하므로 테스트 트랜잭션은 쓰지 않는다.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:ai-review-job;MODE=MySQL;NON_KEYWORDS=USER",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AiReviewJobServiceTest {
+
+	private static final long WAIT_MS = 5_000L;
+
+	@Autowired
+	private AiReviewJobRepository aiReviewJobRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final AiFeedbackService aiFeedbackService = mock(AiFeedbackService.class);
+	private final List<AiReviewJobService> services = new ArrayList<>();
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private User author;
+
+	@BeforeEach
+	void setUp() {
+		author = new User();
+		author.setUserName("author-" + System.nanoTime());
+		author.setPassword("password");
+		author.setEmail(author.getUserName() + "@example.com");
+		author.setRole(Role.USER);
+		author = userRepository.save(author);
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		services.forEach(AiReviewJobService::shutdown);
+	}
+
+	@Test
+	void duplicateRequestReturnsActiveJob() throws Exception {
+		CountDownLatch started = blockGeneration();
+		AiReviewJobService service = service(1, 10);
+		Long postId = persistPost();
+
+		AiReviewJobDto first = service.enqueue(postId, author.getUserId(), false);
+		assertTrue(started.await(WAIT_MS, TimeUnit.MILLISECONDS));
+		AiReviewJobDto second = service.enqueue(postId, author.getUserId(), false);
+
+		assertEquals(first.getJobId(), second.getJobId());
+		release.countDown();
+		awaitStatus(first.getJobId(), AiReviewJobStatus.SUCCEEDED);
+		verify(aiFeedbackService, times(1)).generateTextForPost(postId, false);
+
+		// 끝난 뒤에는 새 작업으로 받음
+		AiReviewJobDto third = service.enqueue(postId, author.getUserId(), false);
+		assertTrue(third.getJobId() > first.getJobId());
+	}
+
+	@Test
+	void statusMovesFromQueuedThroughRunningToSucceeded() throws Exception {
+		CountDownLatch started = blockGeneration();
+		AiReviewJobService service = service(1, 10);
+		Long postId = persistPost();
+
+		Long jobId = service.enqueue(postId, author.getUserId(), false).getJobId();
+		assertTrue(started.await(WAIT_MS, TimeUnit.MILLISECONDS));
+
+		AiReviewJob running = aiReviewJobRepository.findById(jobId).orElseThrow();
+		assertEquals(AiReviewJobStatus.RUNNING, running.getStatus());
+		assertNotNull(running.getStartedAt());
+		assertEquals(postId, running.getActivePostId());
+
+		release.countDown();
+		AiReviewJob done = awaitStatus(jobId, AiReviewJobStatus.SUCCEEDED);
+		assertNull(done.getActivePostId());
+		assertNull(done.getLeaseUntil());
+		assertNotNull(done.getFinishedAt());
+		assertEquals("review", postRepository.findById(postId).orElseThrow().getAiFeedback());
+	}
+
+	@Test
+	void regenerateRequestReachesGeneration() throws Exception {
+		when(aiFeedbackService.generateTextForPost(anyLong(), anyBoolean())).thenReturn("review");
+		AiReviewJobService service = service(1, 10);
+		Long postId = persistPost();
+
+		Long jobId = service.enqueue(postId, author.getUserId(), true).getJobId();
+
+		awaitStatus(jobId, AiReviewJobStatus.SUCCEEDED);
+		verify(aiFeedbackService, times(1)).generateTextForPost(postId, true);
+	}
+
+	@Test
+	void generationFailureMarksFailed() throws Exception {
+		when(aiFeedbackService.generateTextForPost(anyLong(), anyBoolean())).thenThrow(new IllegalStateException("upstream down"));
+		AiReviewJobService service = service(1, 10);
+
+		Long jobId = service.enqueue(persistPost(), author.getUserId(), false).getJobId();
+
+		AiReviewJob failed = awaitStatus(jobId, AiReviewJobStatus.FAILED);
+		assertEquals("upstream down", failed.getErrorMessage());
+		assertNull(failed.getActivePostId());
+	}
+
+	@Test
+	void fullQueueRejectsAndReleasesPost() throws Exception {
+		CountDownLatch started = blockGeneration();
+		AiReviewJobService service = service(1, 1);
+
+		service.enqueue(persistPost(), author.getUserId(), false);     // 실행 중
+		assertTrue(started.await(WAIT_MS, TimeUnit.MILLISECONDS));
+		service.enqueue(persistPost(), author.getUserId(), false);     // 큐 대기
+		Long rejectedPostId = persistPost();
+
+		assertThrows(IllegalStateException.class, () -> service.enqueue(rejectedPostId, author.getUserId(), false));
+
+		AiReviewJob rejected = aiReviewJobRepository.findFirstByPostIdOrderByAiReviewJobIdDesc(rejectedPostId).orElseThrow();
+		assertEquals(AiReviewJobStatus.FAILED, rejected.getStatus());
+		assertNull(rejected.getActivePostId());
+	}
+
+	@Test
+	void resumeReclaimsOnlyExpiredLeases() throws Exception {
+		when(aiFeedbackService.generateTextForPost(anyLong(), anyBoolean())).thenReturn("review");
+		Long postId = persistPost();
+		// 다른 인스턴스가 실행 중인 작업 (기한이 남아 있음)
+		LocalDateTime now = LocalDateTime.now();
+		aiReviewJobRepository.insertIfNoActive(postId, author.getUserId(), false, "other-instance", now, now.plusMinutes(10));
+		Long jobId = aiReviewJobRepository.findByActivePostId(postId).orElseThrow().getAiReviewJobId();
+		jdbcTemplate.update("UPDATE ai_review_job SET status = 'RUNNING', started_at = ? WHERE ai_review_job_id = ?", now, jobId);
+
+		AiReviewJobService other = service(1, 10);
+		other.resumeUnfinished();
+		Thread.sleep(200);
+		assertEquals(AiReviewJobStatus.RUNNING, aiReviewJobRepository.findById(jobId).orElseThrow().getStatus());
+		verify(aiFeedbackService, never()).generateTextForPost(postId, false);
+
+		// 소유 인스턴스가 멈춰 기한이 지나면 회수해 다시 실행
+		jdbcTemplate.update("UPDATE ai_review_job SET lease_until = ? WHERE ai_review_job_id = ?", now.minusSeconds(1), jobId);
+		other.resumeUnfinished();
+		awaitStatus(jobId, AiReviewJobStatus.SUCCEEDED);
+		verify(aiFeedbackService, times(1)).generateTextForPost(postId, false);
+	}
+
+	@Test
+	void staleWorkerCannotOverwriteReclaimedJob() throws Exception {
+		// 첫 호출(멈춘 워커)은 release 까지 붙잡혔다가 "stale", 회수 후 다시 실행한 호출은 바로 "fresh"
+		CountDownLatch started = new CountDownLatch(1);
+		when(aiFeedbackService.generateTextForPost(anyLong(), anyBoolean())).thenAnswer(invocation -> {
+			started.countDown();
+			release.await();
+			return "stale";
+		}).thenReturn("fresh");
+		AiReviewJobService service = service(1, 10);
+		Long postId = persistPost();
+
+		Long jobId = service.enqueue(postId, author.getUserId(), false).getJobId();
+		assertTrue(started.await(WAIT_MS, TimeUnit.MILLISECONDS));
+
+		// 워커가 멈춘 사이 기한이 지나 다른 인스턴스가 회수해 끝냄
+		jdbcTemplate.update("UPDATE ai_review_job SET lease_until = ? WHERE ai_review_job_id = ?",
+				LocalDateTime.now().minusSeconds(1), jobId);
+		AiReviewJobService other = service(1, 10);
+		other.resumeUnfinished();
+		awaitStatus(jobId, AiReviewJobStatus.SUCCEEDED);
+		assertEquals("fresh", postRepository.findById(postId).orElseThrow().getAiFeedback());
+
+		// 멈췄던 워커가 늦게 끝나도 결과를 덮어쓰지 못함
+		release.countDown();
+		long deadline = System.currentTimeMillis() + WAIT_MS;
+		while (service.workerStats().completed() < 1 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals(1, service.workerStats().completed());
+		assertEquals("fresh", postRepository.findById(postId).orElseThrow().getAiFeedback());
+		assertEquals(AiReviewJobStatus.SUCCEEDED, aiReviewJobRepository.findById(jobId).orElseThrow().getStatus());
+	}
+
+	@Test
+	void streamResultIsDroppedAfterItsJobIsReclaimed() throws Exception {
+		when(aiFeedbackService.generateTextForPost(anyLong(), anyBoolean())).thenReturn("fresh");
+		AiReviewJobService service = service(1, 10);
+		Long postId = persistPost();
+
+		Long streamJobId = service.startStream(postId, author.getUserId(), false).orElseThrow();
+		jdbcTemplate.update("UPDATE ai_review_job SET lease_until = ? WHERE ai_review_job_id = ?",
+				LocalDateTime.now().minusSeconds(1), streamJobId);
+		service(1, 10).resumeUnfinished();
+		awaitStatus(streamJobId, AiReviewJobStatus.SUCCEEDED);
+
+		assertFalse(service.completeStream(streamJobId, postId, "streamed"));
+		assertEquals("fresh", postRepository.findById(postId).orElseThrow().getAiFeedback());
+	}
+
+	@Test
+	void streamAndJobShareThePostSlot() throws Exception {
+		CountDownLatch started = blockGeneration();
+		AiReviewJobService service = service(1, 10);
+		Long postId = persistPost();
+
+		// 작업이 진행 중이면 스트리밍 자리를 주지 않음
+		Long jobId = service.enqueue(postId, author.getUserId(), false).getJobId();
+		assertTrue(started.await(WAIT_MS, TimeUnit.MILLISECONDS));
+		assertTrue(service.startStream(postId, author.getUserId(), false).isEmpty());
+		release.countDown();
+		awaitStatus(jobId, AiReviewJobStatus.SUCCEEDED);
+
+		// 스트리밍이 진행 중이면 작업 요청은 스트리밍 작업을 돌려받고 새로 생성하지 않음
+		Long streamJobId = service.startStream(postId, author.getUserId(), false).orElseThrow();
+		assertEquals(AiReviewJobStatus.RUNNING, aiReviewJobRepository.findById(streamJobId).orElseThrow().getStatus());
+		assertEquals(streamJobId, service.enqueue(postId, author.getUserId(), false).getJobId());
+		verify(aiFeedbackService, times(1)).generateTextForPost(postId, false);
+
+		assertTrue(service.completeStream(streamJobId, postId, "streamed"));
+		AiReviewJob done = awaitStatus(streamJobId, AiReviewJobStatus.SUCCEEDED);
+		assertNull(done.getActivePostId());
+		assertEquals("streamed", postRepository.findById(postId).orElseThrow().getAiFeedback());
+	}
+
+	@Test
+	void failedStreamReleasesThePostSlot() {
+		AiReviewJobService service = service(1, 10);
+		Long postId = persistPost();
+
+		Long streamJobId = service.startStream(postId, author.getUserId(), false).orElseThrow();
+		service.failStream(streamJobId, "upstream down");
+
+		AiReviewJob failed = aiReviewJobRepository.findById(streamJobId).orElseThrow();
+		assertEquals(AiReviewJobStatus.FAILED, failed.getStatus());
+		assertNull(failed.getActivePostId());
+		assertTrue(service.startStream(postId, author.getUserId(), false).isPresent());
+	}
+
+	// release 가 열릴 때까지 AI 호출을 붙잡아 둠. 반환된 래치는 첫 호출이 시작되면 열림
+	private CountDownLatch blockGeneration() {
+		CountDownLatch started = new CountDownLatch(1);
+		when(aiFeedbackService.generateTextForPost(anyLong(), anyBoolean())).thenAnswer(invocation -> {
+			started.countDown();
+			release.await();
+			return "review";
+		});
+		return started;
+	}
+
+	private AiReviewJobService service(int workers, int queueCapacity) {
+		AiReviewJobService service = new AiReviewJobService(aiReviewJobRepository, aiFeedbackService, postRepository,
+				new TransactionTemplate(transactionManager), workers, queueCapacity, 60);
+		services.add(service);
+		return service;
+	}
+
+	private AiReviewJob awaitStatus(Long jobId, AiReviewJobStatus status) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + WAIT_MS;
+		AiReviewJob job = aiReviewJobRepository.findById(jobId).orElseThrow();
+		while (job.getStatus() != status && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			job = aiReviewJobRepository.findById(jobId).orElseThrow();
+		}
+		assertEquals(status, job.getStatus());
+		return job;
+	}
+
+	private Long persistPost() {
+		return postRepository.save(Post.builder()
+				.user(author)
+				.title("title")
+				.content("content")
+				.code("code")
+				.contentsType(true)
+				.summary("summary")
+				.build()).getPostId();
+	}
+}
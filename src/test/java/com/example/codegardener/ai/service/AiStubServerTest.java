@@ -0,0 +1,71 @@
+package com.example.codegardener.ai.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * AiStubServer 를 임의 포트로 띄우고 실제 OpenAiClient 로 호출해
+ * 설정한 지연, 스트리밍 조각 수, 오류 주입(재시도 포함)이 그대로 나타나는지 확인한다.
+ */
+class AiStubServerTest {
+
+	private static final OpenAiClient.ChatRequest REQUEST =
+			new OpenAiClient.ChatRequest("gpt-4o-mini", 0.7, 800, "system", "코드");
+
+	private AiStubServer stub;
+	private OpenAiClient client;
+
+	private void start(long latencyMs, double errorRate, int responseWords) throws IOException {
+		stub = new AiStubServer(0, AiStubServer.Distribution.FIXED, latencyMs, latencyMs,
+				errorRate, 0.0, 0.0, 0, responseWords);
+		stub.start();
+		client = new OpenAiClient(WebClient.builder(), "http://localhost:" + stub.port() + "/v1",
+				"stub", 1000, 5000, 10000, 10, 2, 10, 50, 4, 100, 5, 60000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.shutdown();
+		stub.stop();
+	}
+
+	@Test
+	void completesAfterConfiguredLatency() throws IOException {
+		start(200, 0.0, 5);
+
+		long started = System.currentTimeMillis();
+		String content = client.complete(REQUEST);
+
+		assertTrue(System.currentTimeMillis() - started >= 200);
+		assertEquals(5, content.split(" ").length);
+		assertEquals(1, stub.stats().requests());
+	}
+
+	@Test
+	void streamsConfiguredNumberOfChunks() throws IOException {
+		start(100, 0.0, 10);
+
+		List<String> chunks = client.stream(REQUEST).collectList().block();
+
+		assertEquals(10, chunks.size());
+	}
+
+	@Test
+	void injectedErrorsAreRetriedThenSurface() throws IOException {
+		start(0, 1.0, 5);
+
+		assertThrows(RuntimeException.class, () -> client.complete(REQUEST));
+		// 최초 1회 + 재시도 2회
+		assertEquals(3, stub.stats().requests());
+		assertEquals(3, stub.stats().errors());
+		assertEquals(1, client.stats().failed());
+	}
+}
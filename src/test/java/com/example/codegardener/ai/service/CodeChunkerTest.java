@@ -0,0 +1,74 @@
+package com.example.codegardener.ai.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CodeChunker 가 추정 토큰 한도를 지키면서 빈 줄/선언 경계에서 자르고,
+ * 조각의 행 범위가 원본 코드를 빈틈없이 덮는지 확인한다.
+ */
+class CodeChunkerTest {
+
+	private static String javaClassWithMethods(int methods) {
+		StringBuilder code = new StringBuilder("package sample;\n\npublic class Sample {\n");
+		for (int m = 0; m < methods; m++) {
+			code.append("    // 메서드 ").append(m).append("\n")
+					.append("    @Override\n")
+					.append("    public int method").append(m).append("(int value) {\n");
+			for (int k = 0; k < 8; k++) {
+				code.append("        value = value * ").append(k).append(" + 17;\n");
+			}
+			code.append("        return value;\n    }\n\n");
+		}
+		return code.append("}\n").toString();
+	}
+
+	@Test
+	void smallCodeIsSingleChunk() {
+		List<CodeChunker.Chunk> chunks = CodeChunker.split("int a = 1;\nint b = 2;", 100);
+
+		assertEquals(1, chunks.size());
+		assertEquals(1, chunks.get(0).startLine());
+		assertEquals(2, chunks.get(0).endLine());
+	}
+
+	@Test
+	void splitsOnBlankLineBoundariesWithinBudget() {
+		String code = javaClassWithMethods(30);
+		String[] lines = code.split("\\R", -1);
+
+		List<CodeChunker.Chunk> chunks = CodeChunker.split(code, 300);
+
+		assertTrue(chunks.size() > 1);
+		int previousEnd = 0;
+		for (CodeChunker.Chunk chunk : chunks) {
+			assertEquals(previousEnd + 1, chunk.startLine());
+			assertTrue(CodeChunker.estimateTokens(chunk.text()) <= 300);
+			if (chunk.startLine() > 1) {
+				// 메서드 중간이 아니라 빈 줄 다음에서 시작
+				assertTrue(lines[chunk.startLine() - 2].isBlank());
+			}
+			previousEnd = chunk.endLine();
+		}
+		assertEquals(lines.length, previousEnd);
+	}
+
+	@Test
+	void oversizedLineBecomesItsOwnChunk() {
+		List<CodeChunker.Chunk> chunks = CodeChunker.split("x".repeat(5000) + "\nint a = 1;", 100);
+
+		assertEquals(2, chunks.size());
+		assertEquals(1, chunks.get(0).endLine());
+		assertEquals(2, chunks.get(1).startLine());
+	}
+
+	@Test
+	void koreanCountsAsOneTokenPerCharacter() {
+		assertEquals(1, CodeChunker.estimateTokens("abcd"));
+		assertEquals(3, CodeChunker.estimateTokens("한국어"));
+	}
+}
@@ -0,0 +1,170 @@
+package com.example.codegardener.ai.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 로컬 mock 서버를 chat-completions 로 두고 OpenAiClient 의 스트리밍 파싱, 요청 JSON 이스케이프,
+ * 429/5xx 재시도, 서킷 브레이커 동작(취소된 시험 호출의 자리 반납 포함)을 확인한다.
+ */
+class OpenAiClientTest {
+
+	private static final List<String> CHUNKS = List.of(
+			"{\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}",
+			"{\"choices\":[{\"delta\":{\"content\":\"구조가 \"}}]}",
+			"{\"choices\":[{\"delta\":{\"content\":\"명확합니다.\\n\"}}]}",
+			"{\"choices\":[{\"delta\":{\"content\":\"다만 예외 처리를 보완하세요.\"}}]}",
+			"{\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}]}",
+			"[DONE]");
+
+	private static final String COMPLETION = "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"좋습니다.\"}}]}";
+
+	private HttpServer server;
+	private final AtomicReference<String> requestBody = new AtomicReference<>();
+	private final AtomicInteger requests = new AtomicInteger();
+	// 앞의 몇 번을 이 상태 코드로 실패시킬지
+	private volatile int failStatus;
+	private volatile int failTimes;
+	private OpenAiClient client;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/v1/chat/completions", this::handle);
+		server.start();
+
+		client = new OpenAiClient(WebClient.builder(), "http://localhost:" + server.getAddress().getPort() + "/v1",
+				"test-key", 1000, 5000, 10000, 10, 3, 10, 50, 4, 100, 2, 60000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.shutdown();
+		server.stop(0);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+		if (requests.incrementAndGet() <= failTimes) {
+			exchange.sendResponseHeaders(failStatus, -1);
+			exchange.close();
+			return;
+		}
+		boolean stream = new JSONObject(requestBody.get()).getBoolean("stream");
+		exchange.getResponseHeaders().add("Content-Type", stream ? "text/event-stream" : "application/json");
+		exchange.sendResponseHeaders(200, 0);
+		try (OutputStream out = exchange.getResponseBody()) {
+			if (!stream) {
+				out.write(COMPLETION.getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+			for (String chunk : CHUNKS) {
+				out.write(("data: " + chunk + "\n\n").getBytes(StandardCharsets.UTF_8));
+				out.flush();
+			}
+		}
+	}
+
+	private static OpenAiClient.ChatRequest request(String prompt) {
+		return new OpenAiClient.ChatRequest("gpt-4o-mini", 0.7, 800, "system", prompt);
+	}
+
+	@Test
+	void streamsDeltaContentInOrder() {
+		List<String> deltas = client.stream(request("코드")).collectList().block();
+
+		assertEquals(List.of("구조가 ", "명확합니다.\n", "다만 예외 처리를 보완하세요."), deltas);
+		assertTrue(new JSONObject(requestBody.get()).getBoolean("stream"));
+	}
+
+	@Test
+	void escapesControlCharactersInPrompt() {
+		String prompt = "if (a) {\n\treturn \"b\\c\";\r\n}\u0001";
+
+		assertEquals("좋습니다.", client.complete(request(prompt)));
+		// 서버가 받은 본문이 올바른 JSON 이고 프롬프트가 그대로 복원되어야 함
+		String received = new JSONObject(requestBody.get()).getJSONArray("messages").getJSONObject(1).getString("content");
+		assertEquals(prompt, received);
+	}
+
+	@Test
+	void retriesOnServerErrorAndRateLimit() {
+		failStatus = 503;
+		failTimes = 2;
+		assertEquals("좋습니다.", client.complete(request("코드")));
+		assertEquals(3, requests.get());
+
+		requests.set(0);
+		failStatus = 429;
+		failTimes = 1;
+		assertEquals("좋습니다.", client.complete(request("코드")));
+		assertEquals(2, requests.get());
+		assertEquals(3, client.stats().retried());
+	}
+
+	@Test
+	void doesNotRetryClientError() {
+		failStatus = 400;
+		failTimes = 1;
+
+		assertThrows(RuntimeException.class, () -> client.complete(request("코드")));
+		assertEquals(1, requests.get());
+		assertEquals("CLOSED", client.stats().circuitState());
+	}
+
+	@Test
+	void opensCircuitAfterConsecutiveFailures() {
+		failStatus = 500;
+		failTimes = Integer.MAX_VALUE;
+
+		// 재시도까지 모두 실패한 호출 2번 → OPEN
+		assertThrows(RuntimeException.class, () -> client.complete(request("코드")));
+		assertThrows(RuntimeException.class, () -> client.complete(request("코드")));
+		int sent = requests.get();
+
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> client.complete(request("코드")));
+		assertTrue(e.getMessage().contains("중단"));
+		assertEquals(sent, requests.get());
+		assertEquals("OPEN", client.stats().circuitState());
+		assertEquals(1, client.stats().shortCircuited());
+	}
+
+	@Test
+	void cancelledTrialStreamReleasesHalfOpenCircuit() {
+		// 열린 직후 바로 시험 호출을 받도록 open-ms=0
+		client.shutdown();
+		client = new OpenAiClient(WebClient.builder(), "http://localhost:" + server.getAddress().getPort() + "/v1",
+				"test-key", 1000, 5000, 10000, 10, 3, 10, 50, 4, 100, 2, 0);
+		failStatus = 500;
+		failTimes = 8; // 재시도 포함 두 호출 분량
+		assertThrows(RuntimeException.class, () -> client.complete(request("코드")));
+		assertThrows(RuntimeException.class, () -> client.complete(request("코드")));
+		assertEquals("OPEN", client.stats().circuitState());
+
+		// 시험 호출인 스트림을 첫 조각만 받고 취소
+		assertEquals(List.of("구조가 "), client.stream(request("코드")).take(1).collectList().block());
+
+		// 시험 자리가 반납되어 다음 호출이 다시 시험 호출로 나가고 성공하면 닫힘
+		assertEquals("좋습니다.", client.complete(request("코드")));
+		assertEquals("CLOSED", client.stats().circuitState());
+		assertEquals(0, client.stats().shortCircuited());
+	}
+}
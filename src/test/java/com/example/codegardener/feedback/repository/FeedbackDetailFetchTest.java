@@ -0,0 +1,219 @@
+package com.example.codegardener.feedback.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.codegardener.feedback.domain.Feedback;
+import com.example.codegardener.feedback.domain.FeedbackComment;
+import com.example.codegardener.feedback.domain.LineFeedback;
+import com.example.codegardener.feedback.dto.FeedbackDetailResponseDto;
+import com.example.codegardener.feedback.service.FeedbackService;
+import com.example.codegardener.feedback.service.LineFeedbackIntervalIndex;
+import com.example.codegardener.post.domain.Post;
+import com.example.codegardener.post.service.PostCounterBuffer;
+import com.example.codegardener.post.service.PostRatingAggregator;
+import com.example.codegardener.user.domain.Role;
+import com.example.codegardener.user.domain.User;
+import com.example.codegardener.user.domain.UserProfile;
+import com.example.codegardener.user.service.UserEngagementCache;
+import com.example.codegardener.user.service.UserService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * FeedbackService.getFeedbackDetail 이 라인 피드백/댓글 수와 관계없이 고정된 쿼리 수
+ * (findDetailById + 좋아요 수 + 댓글 첫 페이지 findThreadAfter)로 DTO 변환까지 끝나는지,
+ * 댓글 keyset 페이징이 같은 작성 시각에서도 순서대로 이어지는지 확인한다.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:feedback-detail;MODE=MySQL;NON_KEYWORDS=USER",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(FeedbackService.class)
+class FeedbackDetailFetchTest {
+
+	private static final int LINE_FEEDBACKS = 12;
+	private static final int COMMENTERS = 5;
+	// 상세 조회 쿼리: 피드백+작성자+라인 피드백, 좋아요 수, 댓글 첫 페이지
+	private static final int DETAIL_QUERIES = 3;
+
+	@Autowired
+	private FeedbackService feedbackService;
+
+	@Autowired
+	private FeedbackCommentRepository feedbackCommentRepository;
+
+	@Autowired
+	private TestEntityManager em;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	// 비로그인 상세 조회는 저장소만 사용 (캐시/카운터/인덱스는 쓰기·좋아요 여부에서만 필요)
+	@MockitoBean
+	private UserService userService;
+	@MockitoBean
+	private PostCounterBuffer postCounterBuffer;
+	@MockitoBean
+	private UserEngagementCache userEngagementCache;
+	@MockitoBean
+	private LineFeedbackIntervalIndex lineFeedbackIntervalIndex;
+	@MockitoBean
+	private PostRatingAggregator postRatingAggregator;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void detailLoadsInFixedQueriesRegardlessOfChildCount() {
+		Long feedbackId = seedFeedback(LINE_FEEDBACKS, COMMENTERS);
+		em.clear();
+		statistics.clear();
+
+		FeedbackDetailResponseDto dto = loadDetail(feedbackId);
+
+		assertEquals(DETAIL_QUERIES, statistics.getPrepareStatementCount());
+		assertEquals(LINE_FEEDBACKS, dto.getLineFeedbacks().size());
+		assertEquals(COMMENTERS, dto.getComments().size());
+		assertEquals("author.png", dto.getUserPicture());
+		dto.getComments().forEach(comment -> assertEquals(comment.getUserName() + ".png", comment.getUserPicture()));
+	}
+
+	@Test
+	void detailWithoutChildrenOrProfile() {
+		User author = persistUser("bare", false);
+		Post post = persistPost(author);
+		Long feedbackId = persistFeedback(post, author).getFeedbackId();
+		em.flush();
+		em.clear();
+		statistics.clear();
+
+		FeedbackDetailResponseDto dto = loadDetail(feedbackId);
+
+		assertEquals(DETAIL_QUERIES, statistics.getPrepareStatementCount());
+		assertEquals(0, dto.getLineFeedbacks().size());
+		assertEquals(0, dto.getComments().size());
+		assertNull(dto.getUserPicture());
+	}
+
+	@Test
+	void commentThreadPagesInCreationOrder() {
+		Long feedbackId = seedFeedback(0, COMMENTERS);
+		// 모든 댓글의 작성 시각을 같게 맞춰 commentId 보조 정렬만으로 페이지가 이어지는지 확인
+		em.getEntityManager()
+				.createQuery("UPDATE FeedbackComment c SET c.createdAt = :at WHERE c.feedback.feedbackId = :feedbackId")
+				.setParameter("at", LocalDateTime.of(2024, 1, 1, 12, 0))
+				.setParameter("feedbackId", feedbackId)
+				.executeUpdate();
+		em.clear();
+
+		List<FeedbackComment> all = feedbackCommentRepository.findThreadAfter(feedbackId, null, null, Pageable.unpaged());
+		List<Long> expected = all.stream().map(FeedbackComment::getCommentId).toList();
+		assertEquals(expected.stream().sorted().toList(), expected);
+
+		// 2개씩 이어 읽은 결과가 전체 순서와 같아야 함 (createdAt 이 모두 같으므로 commentId 로 구분)
+		List<Long> paged = new ArrayList<>();
+		FeedbackComment last = null;
+		do {
+			List<FeedbackComment> page = feedbackCommentRepository.findThreadAfter(feedbackId,
+					(last != null) ? last.getCreatedAt() : null,
+					(last != null) ? last.getCommentId() : null,
+					PageRequest.of(0, 2));
+			page.forEach(comment -> paged.add(comment.getCommentId()));
+			last = page.isEmpty() ? null : page.get(page.size() - 1);
+		} while (last != null);
+
+		assertEquals(COMMENTERS, expected.size());
+		assertEquals(expected, paged);
+		assertEquals(COMMENTERS, feedbackCommentRepository.countByFeedback_FeedbackId(feedbackId));
+	}
+
+	// 비로그인 사용자로 상세 조회 (댓글이 첫 페이지에 다 들어가는 경우라 개수 쿼리는 없음)
+	private FeedbackDetailResponseDto loadDetail(Long feedbackId) {
+		return feedbackService.getFeedbackDetail(feedbackId, null);
+	}
+
+	private Long seedFeedback(int lineFeedbacks, int commenters) {
+		User author = persistUser("author", true);
+		Post post = persistPost(author);
+		Feedback feedback = persistFeedback(post, author);
+
+		for (int i = 1; i <= lineFeedbacks; i++) {
+			em.persist(LineFeedback.builder()
+					.feedback(feedback)
+					.user(author)
+					.lineNumber(i)
+					.content("line " + i)
+					.build());
+		}
+		for (int i = 0; i < commenters; i++) {
+			em.persist(FeedbackComment.builder()
+					.feedback(feedback)
+					.user(persistUser("commenter" + i, true))
+					.content("comment " + i)
+					.build());
+		}
+		em.flush();
+		return feedback.getFeedbackId();
+	}
+
+	private User persistUser(String userName, boolean withProfile) {
+		User user = new User();
+		user.setUserName(userName);
+		user.setPassword("password");
+		user.setEmail(userName + "@example.com");
+		user.setRole(Role.USER);
+		if (withProfile) {
+			UserProfile profile = new UserProfile();
+			profile.setUser(user);
+			profile.setUserPicture(userName + ".png");
+			user.setUserProfile(profile);
+		}
+		return em.persist(user);
+	}
+
+	private Post persistPost(User author) {
+		return em.persist(Post.builder()
+				.user(author)
+				.title("title")
+				.content("content")
+				.code("code")
+				.contentsType(true)
+				.summary("summary")
+				.build());
+	}
+
+	private Feedback persistFeedback(Post post, User author) {
+		return em.persist(Feedback.builder()
+				.post(post)
+				.user(author)
+				.content("feedback")
+				.rating(4.0)
+				.adoptedTF(false)
+				.build());
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.codegardener.feedback.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * LineDiff.lineMap 이 줄 삽입/삭제/이동/변경에서 남은 줄의 새 위치를 맞게 돌려주고,
+ * 편집 거리가 한도를 넘으면 null 로 멈추는지 확인한다.
+ */
+class LineDiffTest {
+
+	private static String lines(String... lines) {
+		return String.join("\n", lines);
+	}
+
+	@Test
+	void insertedLinesShiftFollowingLines() {
+		int[] map = LineDiff.lineMap(lines("a", "b", "c"), lines("a", "x", "y", "b", "c"));
+		assertArrayEquals(new int[]{0, 3, 4}, map);
+	}
+
+	@Test
+	void deletedLinesMapToMinusOne() {
+		int[] map = LineDiff.lineMap(lines("a", "b", "c", "d"), lines("a", "d"));
+		assertArrayEquals(new int[]{0, -1, -1, 1}, map);
+	}
+
+	@Test
+	void changedLineIsLostButNeighboursStay() {
+		int[] map = LineDiff.lineMap(lines("a", "b", "c"), lines("a", "B", "c"));
+		assertArrayEquals(new int[]{0, -1, 2}, map);
+	}
+
+	@Test
+	void movedLineIsTreatedAsDeleteAndInsert() {
+		// 맨 앞 줄을 맨 뒤로 옮기면 나머지 줄이 최장 공통 부분이 되고 옮긴 줄은 대응 없음
+		int[] map = LineDiff.lineMap(lines("a", "b", "c", "d"), lines("b", "c", "d", "a"));
+		assertArrayEquals(new int[]{-1, 0, 1, 2}, map);
+	}
+
+	@Test
+	void crlfAndLfAreTheSameLines() {
+		int[] map = LineDiff.lineMap("a\r\nb\r\nc", lines("a", "b", "c"));
+		assertArrayEquals(new int[]{0, 1, 2}, map);
+	}
+
+	@Test
+	void stopsWhenEditDistanceExceedsLimit() {
+		List<String> old = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) old.add("line " + i);
+		List<String> shuffled = new ArrayList<>(old);
+		Collections.shuffle(shuffled, new Random(1));
+
+		String oldText = String.join("\n", old);
+		String newText = String.join("\n", shuffled);
+		assertNull(LineDiff.lineMap(oldText, newText, 100));
+		assertNotNull(LineDiff.lineMap(oldText, newText));
+	}
+
+	@Test
+	void smallEditWithinLimitStillMaps() {
+		// 편집 거리 2 (한 줄 삭제 + 한 줄 삽입) 는 한도 2 안에서 끝남
+		int[] map = LineDiff.lineMap(lines("a", "b", "c", "d"), lines("a", "c", "b", "d"), 2);
+		assertNotNull(map);
+		assertNull(LineDiff.lineMap(lines("a", "b", "c", "d"), lines("a", "c", "b", "d"), 1));
+	}
+}
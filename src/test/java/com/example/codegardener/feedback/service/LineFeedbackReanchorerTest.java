@@ -0,0 +1,94 @@
+package com.example.codegardener.feedback.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.codegardener.feedback.repository.LineFeedbackRepository;
+
+/**
+ * 코드 수정 후 라인 피드백이 삽입/삭제만큼 옮겨지고, 대상 줄이 바뀐 피드백과
+ * 편집 거리 한도를 넘은 수정의 피드백은 outdated 로 표시되는지 확인한다.
+ */
+class LineFeedbackReanchorerTest {
+
+	private static final Long POST_ID = 1L;
+	private static final String OLD_CODE = String.join("\n", "a", "b", "c", "d", "e");
+
+	private record Anchor(Long lineFeedbackId, Integer lineNumber, Integer endLineNumber, Boolean outdated)
+			implements LineFeedbackRepository.LineAnchorView {
+		public Long getLineFeedbackId() { return lineFeedbackId; }
+		public Integer getLineNumber() { return lineNumber; }
+		public Integer getEndLineNumber() { return endLineNumber; }
+		public Boolean getOutdated() { return outdated; }
+	}
+
+	private final LineFeedbackRepository repository = mock(LineFeedbackRepository.class);
+	private final CapturingJdbcTemplate jdbc = new CapturingJdbcTemplate();
+
+	private List<Object[]> reanchor(int maxEditDistance, String newCode, Anchor... anchors) {
+		when(repository.findAnchorsByPostId(POST_ID)).thenReturn(List.of(anchors));
+		new LineFeedbackReanchorer(repository, mock(LineFeedbackIntervalIndex.class), jdbc, maxEditDistance)
+				.reanchor(POST_ID, OLD_CODE, newCode);
+		return jdbc.updates;
+	}
+
+	@Test
+	void insertAboveShiftsFeedback() {
+		List<Object[]> updates = reanchor(1000, String.join("\n", "x", "y", "a", "b", "c", "d", "e"),
+				new Anchor(10L, 3, null, false), new Anchor(11L, 4, 5, false));
+
+		assertEquals(2, updates.size());
+		assertArrayEquals(new Object[]{5, null, false, 10L}, updates.get(0));
+		assertArrayEquals(new Object[]{6, 7, false, 11L}, updates.get(1));
+	}
+
+	@Test
+	void deletedTargetLineMarksOutdated() {
+		List<Object[]> updates = reanchor(1000, String.join("\n", "b", "c", "d", "e"),
+				new Anchor(10L, 4, null, false), new Anchor(11L, 1, null, false));
+
+		// 4번 줄은 한 칸 당겨지고, 지워진 1번 줄의 피드백은 맨 앞에 남기고 outdated
+		assertEquals(2, updates.size());
+		assertArrayEquals(new Object[]{3, null, false, 10L}, updates.get(0));
+		assertArrayEquals(new Object[]{1, null, true, 11L}, updates.get(1));
+	}
+
+	@Test
+	void changedTargetLineMarksOutdated() {
+		List<Object[]> updates = reanchor(1000, String.join("\n", "a", "b", "C", "d", "e"),
+				new Anchor(10L, 2, 3, false), new Anchor(11L, 5, null, false));
+
+		// 범위 중 3번 줄이 바뀜 → 남은 2번 줄만 가리키며 outdated, 5번은 그대로라 UPDATE 없음
+		assertEquals(1, updates.size());
+		assertArrayEquals(new Object[]{2, 2, true, 10L}, updates.get(0));
+	}
+
+	@Test
+	void editDistanceOverLimitMarksEverythingOutdated() {
+		List<Object[]> updates = reanchor(1, String.join("\n", "e", "d", "c"),
+				new Anchor(10L, 2, null, false), new Anchor(11L, 4, 5, false), new Anchor(12L, 1, null, true));
+
+		// 대응표 없이 outdated 로 표시하고 줄 번호는 새 코드 길이(3) 안으로만 자름. 이미 outdated 이고 범위 안이면 UPDATE 없음
+		assertEquals(2, updates.size());
+		assertArrayEquals(new Object[]{2, null, true, 10L}, updates.get(0));
+		assertArrayEquals(new Object[]{3, 3, true, 11L}, updates.get(1));
+	}
+
+	private static final class CapturingJdbcTemplate extends JdbcTemplate {
+		private final List<Object[]> updates = new ArrayList<>();
+
+		@Override
+		public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+			updates.addAll(batchArgs);
+			return new int[batchArgs.size()];
+		}
+	}
+}
@@ -0,0 +1,216 @@
+package com.example.codegardener.post.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 실행 중인 서버의 POST /api/posts/{id}/ai 를 여러 사용자가 동시에 요청하는 상황을 재현하고
+ * 등록 지연, 완료까지 걸린 시간(폴링), 결과 분포와 함께 GET /api/ai/stats 를 주기적으로 읽어
+ * 워커 풀 / OpenAI bulkhead / DB 커넥션 풀 / JVM 스레드 수의 최대치를 보고한다. 출시 전 풀 크기를 정할 때 사용.
+ *
+ * OpenAI 를 건드리지 않도록 서버는 stub 프로필(AiStubServer)로 띄운다:
+ *   ./gradlew bootRun --args='--spring.profiles.active=stub'
+ *   ./gradlew test --tests '*AiReviewLoadTest' -Dbenchmark.base-url=http://localhost:8080 \
+ *       -Dbenchmark.token=<관리자 JWT> -Dbenchmark.post-ids=1-200 -Dbenchmark.concurrency=100 -Dbenchmark.rounds=3
+ * 게시물당 진행 중 작업은 하나뿐이므로 동시 사용자 수만큼 서로 다른 게시물이 필요하다 (사용자 i 는 i, i+concurrency, ... 번째 게시물 담당).
+ * 관리자 토큰이 아니면 stats 샘플링은 건너뛴다.
+ */
+@EnabledIfSystemProperty(named = "benchmark.base-url", matches = ".+")
+class AiReviewLoadTest {
+
+	private static final Logger log = LoggerFactory.getLogger(AiReviewLoadTest.class);
+
+	private static final String BASE_URL = System.getProperty("benchmark.base-url");
+	private static final String TOKEN = System.getProperty("benchmark.token", "");
+	private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 50);
+	private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 3);
+	private static final long POLL_MS = Long.getLong("benchmark.poll-ms", 200L);
+	private static final long JOB_TIMEOUT_MS = Long.getLong("benchmark.job-timeout-ms", 300_000L);
+	private static final long SAMPLE_MS = 500L;
+
+	// stats 응답에서 최대치를 볼 항목 (객체.필드)
+	private static final List<String> GAUGES = List.of(
+			"client.inFlight", "client.queued", "workers.active", "workers.queued",
+			"stub.inFlight", "jvmThreads", "dbActiveConnections", "dbThreadsAwaitingConnection");
+
+	private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+	@Test
+	void concurrentAiReviewRequests() throws Exception {
+		List<Long> postIds = parsePostIds(System.getProperty("benchmark.post-ids", "1-" + CONCURRENCY));
+		assertTrue(postIds.size() >= CONCURRENCY, "동시 사용자 수 이상의 게시물이 필요합니다.");
+
+		ConcurrentLinkedQueue<Long> enqueueMs = new ConcurrentLinkedQueue<>();
+		ConcurrentLinkedQueue<Long> completeMs = new ConcurrentLinkedQueue<>();
+		Map<String, AtomicLong> outcomes = new ConcurrentHashMap<>();
+		ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		Map<String, Long> maxGauges = new ConcurrentHashMap<>();
+
+		ExecutorService users = Executors.newFixedThreadPool(CONCURRENCY);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> workers = new ArrayList<>();
+		for (int u = 0; u < CONCURRENCY; u++) {
+			int user = u;
+			workers.add(users.submit(() -> {
+				start.await();
+				for (int round = 0; round < ROUNDS; round++) {
+					for (int i = user; i < postIds.size(); i += CONCURRENCY) {
+						try {
+							String outcome = requestAndAwait(postIds.get(i), enqueueMs, completeMs);
+							outcomes.computeIfAbsent(outcome, k -> new AtomicLong()).incrementAndGet();
+						} catch (Exception e) {
+							failures.add(e);
+						}
+					}
+				}
+				return null;
+			}));
+		}
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		Thread sampler = new Thread(() -> sampleStats(running, maxGauges), "ai-load-sampler");
+		sampler.setDaemon(true);
+		sampler.start();
+
+		long started = System.nanoTime();
+		start.countDown();
+		for (Future<?> worker : workers) {
+			worker.get();
+		}
+		long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+		running.set(false);
+		sampler.join();
+		users.shutdown();
+
+		log.info("{} users x {} rounds over {} posts in {}ms", CONCURRENCY, ROUNDS, postIds.size(), elapsedMs);
+		log.info("outcomes: {}, transport failures: {}", outcomes, failures.size());
+		report("enqueue (POST /ai)", enqueueMs);
+		report("complete (enqueue -> SUCCEEDED/FAILED)", completeMs);
+		log.info("max sampled: {}", maxGauges);
+
+		assertTrue(failures.isEmpty(), () -> "failures: " + failures);
+	}
+
+	// 작업 등록 후 끝날 때까지 폴링. 반환값은 최종 상태 (등록 거절이면 HTTP 상태 코드)
+	private String requestAndAwait(Long postId, ConcurrentLinkedQueue<Long> enqueueMs,
+								   ConcurrentLinkedQueue<Long> completeMs) throws Exception {
+		long started = System.nanoTime();
+		HttpResponse<String> enqueued = send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/posts/" + postId + "/ai"))
+				.POST(HttpRequest.BodyPublishers.noBody()));
+		enqueueMs.add((System.nanoTime() - started) / 1_000_000);
+		if (enqueued.statusCode() != 202) {
+			return "HTTP_" + enqueued.statusCode();
+		}
+
+		long deadline = System.currentTimeMillis() + JOB_TIMEOUT_MS;
+		while (System.currentTimeMillis() < deadline) {
+			Thread.sleep(POLL_MS);
+			HttpResponse<String> job = send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/posts/" + postId + "/ai/job")).GET());
+			String status = new JSONObject(job.body()).optString("status");
+			if ("SUCCEEDED".equals(status) || "FAILED".equals(status)) {
+				completeMs.add((System.nanoTime() - started) / 1_000_000);
+				return status;
+			}
+		}
+		return "TIMEOUT";
+	}
+
+	private void sampleStats(AtomicBoolean running, Map<String, Long> maxGauges) {
+		while (running.get()) {
+			try {
+				HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(BASE_URL + "/api/ai/stats")).GET());
+				if (response.statusCode() != 200) {
+					log.info("stats sampling skipped: HTTP {}", response.statusCode());
+					return;
+				}
+				JSONObject stats = new JSONObject(response.body());
+				for (String gauge : GAUGES) {
+					Long value = gaugeOf(stats, gauge);
+					if (value != null) {
+						maxGauges.merge(gauge, value, Math::max);
+					}
+				}
+				Thread.sleep(SAMPLE_MS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				// 샘플링 실패는 측정 결과에 영향 없음
+			}
+		}
+	}
+
+	private static Long gaugeOf(JSONObject stats, String path) {
+		String[] parts = path.split("\\.");
+		JSONObject node = stats;
+		for (int i = 0; i < parts.length - 1; i++) {
+			node = node.optJSONObject(parts[i]);
+			if (node == null) return null;
+		}
+		return node.has(parts[parts.length - 1]) && !node.isNull(parts[parts.length - 1])
+				? node.getLong(parts[parts.length - 1]) : null;
+	}
+
+	private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+		if (!TOKEN.isEmpty()) {
+			request.header("Authorization", "Bearer " + TOKEN);
+		}
+		return http.send(request.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static void report(String label, ConcurrentLinkedQueue<Long> samples) {
+		List<Long> sorted = new ArrayList<>(samples);
+		if (sorted.isEmpty()) {
+			log.info("{}: no samples", label);
+			return;
+		}
+		Collections.sort(sorted);
+		log.info("{}: n={} p50={}ms p90={}ms p99={}ms max={}ms", label, sorted.size(),
+				percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), sorted.get(sorted.size() - 1));
+	}
+
+	private static long percentile(List<Long> sorted, int p) {
+		int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+		return sorted.get(Math.max(0, index));
+	}
+
+	// "1-200" 또는 "3,5,8"
+	private static List<Long> parsePostIds(String spec) {
+		List<Long> ids = new ArrayList<>();
+		for (String part : spec.split(",")) {
+			String trimmed = part.trim();
+			int dash = trimmed.indexOf('-');
+			if (dash > 0) {
+				long from = Long.parseLong(trimmed.substring(0, dash));
+				long to = Long.parseLong(trimmed.substring(dash + 1));
+				for (long id = from; id <= to; id++) ids.add(id);
+			} else if (!trimmed.isEmpty()) {
+				ids.add(Long.parseLong(trimmed));
+			}
+		}
+		return ids;
+	}
+}
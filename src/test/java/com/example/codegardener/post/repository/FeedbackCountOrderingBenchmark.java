@@ -0,0 +1,165 @@
+package com.example.codegardener.post.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * 피드백 많은 순 정렬: 기존 findAllOrderByFeedbackCountDesc(LEFT JOIN + GROUP BY + COUNT, createdAt 동률 정렬)
+ * vs 반정규화 feedback_count 인덱스(현재) 비교.
+ *
+ * 실제 MySQL 이 필요하므로 기본 빌드에서는 실행되지 않는다. 별도 스키마를 지정해 실행:
+ *   ./gradlew test --tests '*FeedbackCountOrderingBenchmark' \
+ *       -Dbenchmark.jdbc-url=jdbc:mysql://localhost:3306/gardener_bench?rewriteBatchedStatements=true -Dbenchmark.username=root -Dbenchmark.password=...
+ * (bench_ 접두어 테이블만 만들고 끝나면 삭제한다)
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc-url", matches = ".+")
+class FeedbackCountOrderingBenchmark {
+
+	private static final int[] CORPUS_SIZES = {10_000, 50_000, 200_000};
+	private static final int MAX_FEEDBACKS_PER_POST = 10;
+	private static final int PAGE_SIZE = 20;
+	private static final int RUNS = 7;
+	private static final int INSERT_BATCH = 2_000;
+
+	private static final Logger log = LoggerFactory.getLogger(FeedbackCountOrderingBenchmark.class);
+
+	// 기존 JPQL "SELECT p FROM Post p LEFT JOIN p.feedbacks f ... GROUP BY p ORDER BY COUNT(f) DESC, p.createdAt DESC"
+	// 를 Hibernate 가 만드는 형태 그대로 (엔티티 전체 컬럼 조회 + 전체 컬럼 GROUP BY)
+	private static final String BEFORE_SQL = """
+			SELECT p.post_id, p.contents_type, p.created_at, p.feedback_count
+			FROM bench_post p
+			LEFT JOIN bench_feedback f ON f.post_id = p.post_id
+			WHERE p.contents_type = ?
+			GROUP BY p.post_id, p.contents_type, p.created_at, p.feedback_count
+			ORDER BY COUNT(f.feedback_id) DESC, p.created_at DESC
+			LIMIT ?
+			""";
+
+	private static final String AFTER_SQL = """
+			SELECT p.post_id
+			FROM bench_post p
+			WHERE p.contents_type = ?
+			ORDER BY p.feedback_count DESC, p.post_id DESC
+			LIMIT ?
+			""";
+
+	private JdbcTemplate jdbc;
+	private final Random random = new Random(42);
+
+	@BeforeEach
+	void setUp() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				System.getProperty("benchmark.jdbc-url"),
+				System.getProperty("benchmark.username", "root"),
+				System.getProperty("benchmark.password", ""));
+		jdbc = new JdbcTemplate(dataSource);
+
+		dropTables();
+		jdbc.execute("""
+				CREATE TABLE bench_post (
+				  post_id        BIGINT PRIMARY KEY,
+				  contents_type  BIT(1) NOT NULL,
+				  created_at     DATETIME(6) NOT NULL,
+				  feedback_count BIGINT NOT NULL DEFAULT 0,
+				  INDEX idx_bench_post_ct_feedback_count (contents_type, feedback_count, post_id)
+				)
+				""");
+		jdbc.execute("""
+				CREATE TABLE bench_feedback (
+				  feedback_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+				  post_id     BIGINT NOT NULL,
+				  INDEX idx_bench_feedback_post (post_id)
+				)
+				""");
+	}
+
+	@AfterEach
+	void tearDown() {
+		dropTables();
+	}
+
+	@Test
+	void feedbackOrderingScalesWithIndex() {
+		log.info(String.format("%-10s %-14s %-14s", "posts", "before(ms)", "after(ms)"));
+
+		long seeded = 0;
+		for (int size : CORPUS_SIZES) {
+			seed(seeded, size);
+			seeded = size;
+
+			List<Long> before = jdbc.query(BEFORE_SQL, (rs, row) -> rs.getLong("post_id"), true, PAGE_SIZE);
+			List<Long> after = jdbc.queryForList(AFTER_SQL, Long.class, true, PAGE_SIZE);
+			// 시드 데이터의 created_at 은 post_id 순으로 증가하므로 동률 정렬(createdAt / post_id)이 같은 순서를 만듦
+			assertEquals(before, after);
+
+			double beforeMs = medianMillis(BEFORE_SQL);
+			double afterMs = medianMillis(AFTER_SQL);
+			log.info(String.format("%-10d %-14.2f %-14.2f", size, beforeMs, afterMs));
+		}
+	}
+
+	// post_id (fromExclusive, toInclusive] 범위의 게시물과 피드백을 적재
+	private void seed(long fromExclusive, long toInclusive) {
+		LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+		List<Object[]> posts = new ArrayList<>(INSERT_BATCH);
+		List<Object[]> feedbacks = new ArrayList<>(INSERT_BATCH);
+
+		for (long id = fromExclusive + 1; id <= toInclusive; id++) {
+			// 대부분 0~2개, 일부만 많이 받는 치우친 분포
+			int count = (int) Math.floor(Math.pow(random.nextDouble(), 3) * (MAX_FEEDBACKS_PER_POST + 1));
+			posts.add(new Object[]{id, random.nextBoolean(), Timestamp.valueOf(base.plusSeconds(id)), count});
+			for (int i = 0; i < count; i++) {
+				feedbacks.add(new Object[]{id});
+			}
+
+			if (posts.size() >= INSERT_BATCH) {
+				flush(posts, feedbacks);
+			}
+		}
+		flush(posts, feedbacks);
+		jdbc.execute("ANALYZE TABLE bench_post, bench_feedback");
+	}
+
+	private void flush(List<Object[]> posts, List<Object[]> feedbacks) {
+		if (!posts.isEmpty()) {
+			jdbc.batchUpdate("INSERT INTO bench_post (post_id, contents_type, created_at, feedback_count) VALUES (?, ?, ?, ?)", posts);
+			posts.clear();
+		}
+		if (!feedbacks.isEmpty()) {
+			jdbc.batchUpdate("INSERT INTO bench_feedback (post_id) VALUES (?)", feedbacks);
+			feedbacks.clear();
+		}
+	}
+
+	private double medianMillis(String sql) {
+		jdbc.queryForList(sql, true, PAGE_SIZE); // warm-up
+		double[] samples = new double[RUNS];
+		for (int i = 0; i < RUNS; i++) {
+			long started = System.nanoTime();
+			jdbc.queryForList(sql, true, PAGE_SIZE);
+			samples[i] = (System.nanoTime() - started) / 1_000_000.0;
+		}
+		Arrays.sort(samples);
+		return samples[RUNS / 2];
+	}
+
+	private void dropTables() {
+		jdbc.execute("DROP TABLE IF EXISTS bench_feedback");
+		jdbc.execute("DROP TABLE IF EXISTS bench_post");
+	}
+}
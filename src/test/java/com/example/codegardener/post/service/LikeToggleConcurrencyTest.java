@@ -0,0 +1,194 @@
+package com.example.codegardener.post.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.codegardener.ai.service.AiReviewJobService;
+import com.example.codegardener.ai.service.AiReviewStreamService;
+import com.example.codegardener.feedback.service.LineFeedbackIntervalIndex;
+import com.example.codegardener.feedback.service.LineFeedbackReanchorer;
+import com.example.codegardener.post.domain.Post;
+import com.example.codegardener.post.repository.PostLikeRepository;
+import com.example.codegardener.post.repository.PostRepository;
+import com.example.codegardener.user.domain.Role;
+import com.example.codegardener.user.domain.User;
+import com.example.codegardener.user.repository.UserRepository;
+import com.example.codegardener.user.service.UserEngagementCache;
+
+/**
+ * 여러 스레드가 같은 게시물에 PostService.toggleLike / setLike 를 동시에 보낼 때
+ * 유니크 제약 예외 없이 끝나고, 영향 행 수로 쌓은 좋아요 변경분(PostCounterBuffer)이 실제 post_likes 행 수와 일치하는지 확인한다.
+ * 사용자 하나를 두 스레드가 나눠 쓰므로 같은 (user_id, post_id) 행에 대한 중복 요청(더블 클릭)도 함께 재현된다.
+ * 서비스 트랜잭션이 실제로 커밋되도록 테스트 트랜잭션은 쓰지 않는다.
+ */
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:like-toggle;MODE=MySQL;NON_KEYWORDS=USER;LOCK_TIMEOUT=10000",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({PostService.class, PostCounterBuffer.class, UserEngagementCache.class})
+class LikeToggleConcurrencyTest {
+
+	private static final int THREADS = 8;
+	private static final int USERS = THREADS / 2;
+	private static final int REQUESTS_PER_THREAD = 100;
+
+	private static final Logger log = LoggerFactory.getLogger(LikeToggleConcurrencyTest.class);
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private PostCounterBuffer postCounterBuffer;
+
+	@Autowired
+	private UserEngagementCache userEngagementCache;
+
+	@Autowired
+	private PostLikeRepository postLikeRepository;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// 좋아요 경로에서 쓰지 않거나 결과에 영향 없는 협력 객체
+	@MockitoBean
+	private AiReviewJobService aiReviewJobService;
+	@MockitoBean
+	private AiReviewStreamService aiReviewStreamService;
+	@MockitoBean
+	private PostSearchIndex postSearchIndex;
+	@MockitoBean
+	private PostTagService postTagService;
+	@MockitoBean
+	private PopularPostRanking popularPostRanking;
+	@MockitoBean
+	private HotPostRanking hotPostRanking;
+	@MockitoBean
+	private LineFeedbackIntervalIndex lineFeedbackIntervalIndex;
+	@MockitoBean
+	private LineFeedbackReanchorer lineFeedbackReanchorer;
+	@MockitoBean
+	private PostRatingAggregator postRatingAggregator;
+
+	private Post post;
+	private List<User> users;
+
+	@BeforeEach
+	void setUp() {
+		User author = persistUser("author-" + System.nanoTime());
+		post = postRepository.save(Post.builder()
+				.user(author)
+				.title("title")
+				.content("content")
+				.code("code")
+				.contentsType(true)
+				.summary("summary")
+				.build());
+		users = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			users.add(persistUser("liker" + i + "-" + System.nanoTime()));
+		}
+	}
+
+	@Test
+	void concurrentTogglesKeepCounterEqualToRows() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+		List<Future<?>> workers = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			String userName = users.get(t % USERS).getUserName();
+			long seed = t;
+			workers.add(pool.submit(() -> {
+				start.await();
+				Random random = new Random(seed);
+				for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+					try {
+						// 토글과 명시적 설정/해제를 섞어 보냄
+						switch (random.nextInt(4)) {
+							case 0 -> postService.setLike(post.getPostId(), userName, true);
+							case 1 -> postService.setLike(post.getPostId(), userName, false);
+							default -> postService.toggleLike(post.getPostId(), userName);
+						}
+					} catch (Throwable e) {
+						failures.add(e);
+					}
+				}
+				return null;
+			}));
+		}
+
+		long started = System.nanoTime();
+		start.countDown();
+		for (Future<?> worker : workers) {
+			worker.get();
+		}
+		pool.shutdown();
+		log.info("{} like requests in {}ms", THREADS * REQUESTS_PER_THREAD, (System.nanoTime() - started) / 1_000_000);
+
+		assertTrue(failures.isEmpty(), () -> "failures: " + failures);
+		assertEquals(likeRows(), postCounterBuffer.pendingOf(post.getPostId()).getLikes());
+	}
+
+	@Test
+	void toggleFollowsRowsNotStaleCache() {
+		User user = users.get(0);
+		// 캐시에 "좋아요 안 함" 을 적재해 둔 뒤 서비스 밖에서 행을 추가 (캐시는 모름)
+		assertFalse(userEngagementCache.likedPost(user.getUserId(), post.getPostId()));
+		postLikeRepository.insertIfAbsent(user.getUserId(), post.getPostId());
+
+		// 캐시 기준이면 다시 추가를 시도해 아무것도 안 바뀌지만, 영향 행 수 기준이면 해제됨
+		postService.toggleLike(post.getPostId(), user.getUserName());
+		assertEquals(0L, likeRows());
+		assertEquals(-1L, postCounterBuffer.pendingOf(post.getPostId()).getLikes());
+
+		postService.toggleLike(post.getPostId(), user.getUserName());
+		assertEquals(1L, likeRows());
+		assertEquals(0L, postCounterBuffer.pendingOf(post.getPostId()).getLikes());
+	}
+
+	private long likeRows() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_likes WHERE post_id = ?", Long.class, post.getPostId());
+	}
+
+	private User persistUser(String userName) {
+		User user = new User();
+		user.setUserName(userName);
+		user.setPassword("password");
+		user.setEmail(userName + "@example.com");
+		user.setRole(Role.USER);
+		return userRepository.save(user);
+	}
+}
@@ -0,0 +1,152 @@
+package com.example.codegardener.post.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 한 게시물에 여러 스레드가 좋아요/취소를 몰아서 보내는 동안 flush 가 쉬지 않고 돌아도
+ * 변경분이 유실/중복 없이 "DB 반영분 + 버퍼 대기분" 으로 정확히 나뉘는지 확인한다.
+ * (변경분 합이 0 인 주기가 자주 생기므로 유휴 항목 제거 경로도 함께 검증됨)
+ * 보정 구간의 대기분 폐기와 재계산이 진행 중인 flush 와 겹치지 않는지도 확인한다.
+ */
+class PostCounterBufferConcurrencyTest {
+
+	private static final long POST_ID = 1L;
+	private static final int THREADS = 32;
+	private static final int TOGGLES_PER_THREAD = 20_000;
+
+	@Test
+	void concurrentTogglesOnSamePostAreNeitherLostNorDoubled() throws Exception {
+		CapturingJdbcTemplate jdbc = new CapturingJdbcTemplate();
+		// 초기화 전(ready=false) 랭킹은 이벤트를 무시하므로 저장소 없이 생성
+		PostCounterBuffer buffer = new PostCounterBuffer(jdbc, new HotPostRanking(null));
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Long>> workers = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			long seed = t;
+			workers.add(pool.submit(() -> {
+				start.await();
+				Random random = new Random(seed);
+				long net = 0;
+				for (int i = 0; i < TOGGLES_PER_THREAD; i++) {
+					long delta = random.nextBoolean() ? 1 : -1;
+					buffer.addLikes(POST_ID, delta);
+					net += delta;
+				}
+				return net;
+			}));
+		}
+
+		AtomicBoolean running = new AtomicBoolean(true);
+		Thread flusher = new Thread(() -> {
+			while (running.get()) {
+				buffer.flush();
+			}
+		});
+		flusher.start();
+		start.countDown();
+
+		long expected = 0;
+		for (Future<Long> worker : workers) {
+			expected += worker.get();
+		}
+		running.set(false);
+		flusher.join();
+		pool.shutdown();
+
+		assertEquals(expected, jdbc.flushedLikes.sum() + buffer.pendingOf(POST_ID).getLikes());
+
+		buffer.flush();
+		assertEquals(expected, jdbc.flushedLikes.sum());
+		assertEquals(0, buffer.pendingOf(POST_ID).getLikes());
+	}
+
+	@Test
+	void recountedRangeDropsPendingEngagementButKeepsViews() {
+		CapturingJdbcTemplate jdbc = new CapturingJdbcTemplate();
+		PostCounterBuffer buffer = new PostCounterBuffer(jdbc, new HotPostRanking(null));
+		buffer.addLikes(POST_ID, 5);
+		buffer.addView(POST_ID);
+		buffer.addView(POST_ID);
+
+		// 보정 구간 밖이면 그대로
+		buffer.discardAndRecount(POST_ID + 1, POST_ID + 1000, () -> 0);
+		assertEquals(5, buffer.pendingOf(POST_ID).getLikes());
+
+		// 재계산 값에 이미 포함되는 좋아요 대기분은 버리고, 재계산 대상이 아닌 조회수는 남김
+		buffer.discardAndRecount(POST_ID, POST_ID, () -> 0);
+		buffer.flush();
+		assertEquals(0, jdbc.flushedLikes.sum());
+		assertEquals(2, jdbc.flushedViews.sum());
+	}
+
+	@Test
+	void recountWaitsForInFlightFlushToCommit() throws Exception {
+		CountDownLatch flushing = new CountDownLatch(1);
+		CountDownLatch commit = new CountDownLatch(1);
+		List<String> events = new CopyOnWriteArrayList<>();
+		CapturingJdbcTemplate jdbc = new CapturingJdbcTemplate() {
+			@Override
+			public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+				flushing.countDown();
+				try {
+					commit.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				events.add("flush");
+				return super.batchUpdate(sql, batchArgs);
+			}
+		};
+		PostCounterBuffer buffer = new PostCounterBuffer(jdbc, new HotPostRanking(null));
+		buffer.addLikes(POST_ID, 5);
+
+		// 좋아요 대기분을 이미 꺼낸 flush 가 UPDATE 커밋 전에 멈춘 사이 보정이 시작됨
+		Thread flusher = new Thread(buffer::flush);
+		flusher.start();
+		assertTrue(flushing.await(5, TimeUnit.SECONDS));
+		Thread reconciler = new Thread(() -> buffer.discardAndRecount(POST_ID, POST_ID, () -> events.add("recount")));
+		reconciler.start();
+		Thread.sleep(100);
+		assertEquals(List.of(), events);
+
+		// 재계산은 flush 커밋 뒤에 실행되어 그 값을 덮어씀 (재계산 뒤에 + 5 가 커밋되면 중복)
+		commit.countDown();
+		flusher.join();
+		reconciler.join();
+		assertEquals(List.of("flush", "recount"), events);
+	}
+
+	// FLUSH_SQL 파라미터 (views, likes, scraps, feedbacks, postId) 중 조회수/좋아요 변경분 합산
+	private static class CapturingJdbcTemplate extends JdbcTemplate {
+		private final LongAdder flushedViews = new LongAdder();
+		private final LongAdder flushedLikes = new LongAdder();
+
+		@Override
+		public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+			for (Object[] row : batchArgs) {
+				assertEquals(POST_ID, row[4]);
+				flushedViews.add((Long) row[0]);
+				flushedLikes.add((Long) row[1]);
+			}
+			return new int[batchArgs.size()];
+		}
+	}
+}
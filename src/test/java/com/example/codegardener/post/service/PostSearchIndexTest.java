@@ -0,0 +1,52 @@
+package com.example.codegardener.post.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.codegardener.post.repository.PostRepository;
+
+/**
+ * 재구축 중 메모리 예산을 넘어 인덱스가 비활성화된 뒤에는 게시물 변경이 들어와도 인덱스를 다시 쌓지 않는지 확인한다.
+ */
+class PostSearchIndexTest {
+
+	private record Source(Long postId, String title, String content, String userName)
+			implements PostRepository.PostSearchSource {
+		public Long getPostId() { return postId; }
+		public String getTitle() { return title; }
+		public String getContent() { return content; }
+		public String getUserName() { return userName; }
+	}
+
+	private final PostRepository postRepository = mock(PostRepository.class);
+	private final PostSearchIndex index = new PostSearchIndex(postRepository);
+
+	@Test
+	void disabledIndexIgnoresLaterChanges() {
+		ReflectionTestUtils.setField(index, "enabled", true);
+		ReflectionTestUtils.setField(index, "maxBytes", 1L);
+		when(postRepository.findSearchSourcesAfter(eq(0L), anyInt()))
+				.thenReturn(List.of(new Source(1L, "스프링 트랜잭션", "content", "writer")));
+
+		index.rebuild();
+		assertFalse(index.stats().ready());
+
+		index.indexAfterCommit(2L, "새 게시물", "본문", "writer");
+		index.removeAfterCommit(1L);
+
+		PostSearchIndex.IndexStats stats = index.stats();
+		assertEquals(0, stats.posts());
+		assertEquals(0, stats.grams());
+		assertNull(index.candidates("게시물"));
+	}
+}
@@ -0,0 +1,79 @@
+package com.example.codegardener.post.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import com.example.codegardener.post.repository.PostRepository;
+import com.example.codegardener.post.repository.PostTagRepository;
+
+/**
+ * 재구축이 배치를 읽는 사이 커밋된 태그 변경/삭제/새 게시물이 재구축 결과에 남는지 확인한다.
+ * (배치는 변경 전 행을 돌려주므로, 반영하지 않으면 옛 태그로 덮어쓰이거나 새 게시물이 빠진다)
+ */
+class PostTagIndexTest {
+
+	private static final long TAG_JAVA = 10L;
+	private static final long TAG_SPRING = 20L;
+
+	private record Pair(Long postTagId, Long postId, Long tagId) implements PostTagRepository.PostTagPair {
+		public Long getPostTagId() { return postTagId; }
+		public Long getPostId() { return postId; }
+		public Long getTagId() { return tagId; }
+	}
+
+	private record ContentsType(Long postId, Boolean contentsType) implements PostRepository.PostContentsType {
+		public Long getPostId() { return postId; }
+		public Boolean getContentsType() { return contentsType; }
+	}
+
+	private final PostRepository postRepository = mock(PostRepository.class);
+	private final PostTagRepository postTagRepository = mock(PostTagRepository.class);
+	private final PostTagIndex index = new PostTagIndex(postRepository, postTagRepository);
+
+	@Test
+	void changesCommittedDuringRebuildSurviveTheSwap() {
+		when(postTagRepository.findPairsAfter(eq(0L), anyInt())).thenAnswer(invocation -> {
+			// 첫 배치를 읽은 직후 커밋된 변경 (트랜잭션 밖이므로 바로 반영됨)
+			index.updateAfterCommit(2L, true, new long[] {TAG_SPRING});  // 태그 변경
+			index.removeAfterCommit(3L);                                 // 삭제
+			index.updateAfterCommit(4L, false, new long[] {TAG_JAVA});   // 새 게시물
+			// 배치 자체는 변경 전 행
+			return List.of(new Pair(1L, 1L, TAG_JAVA), new Pair(2L, 2L, TAG_JAVA), new Pair(3L, 3L, TAG_JAVA));
+		});
+		when(postRepository.findContentsTypesAfter(eq(0L), anyInt())).thenReturn(List.of(
+				new ContentsType(1L, true), new ContentsType(2L, true), new ContentsType(3L, true)));
+
+		index.rebuild();
+
+		assertEquals(Set.of(1, 4), ids(index.match(List.of(TAG_JAVA), List.of(), null)));
+		assertEquals(Set.of(2), ids(index.match(List.of(TAG_SPRING), List.of(), null)));
+		assertEquals(Set.of(1), ids(index.match(List.of(TAG_JAVA), List.of(), true)));
+		assertEquals(Set.of(4), ids(index.match(List.of(TAG_JAVA), List.of(), false)));
+	}
+
+	@Test
+	void changesAfterRebuildAreAppliedToTheLiveIndex() {
+		when(postTagRepository.findPairsAfter(eq(0L), anyInt())).thenReturn(List.of(new Pair(1L, 1L, TAG_JAVA)));
+		when(postRepository.findContentsTypesAfter(eq(0L), anyInt())).thenReturn(List.of(new ContentsType(1L, true)));
+		index.rebuild();
+
+		index.updateAfterCommit(1L, true, new long[] {TAG_SPRING});
+
+		assertEquals(Set.of(), ids(index.match(List.of(TAG_JAVA), List.of(), null)));
+		assertEquals(Set.of(1), ids(index.match(List.of(TAG_SPRING), List.of(), true)));
+	}
+
+	private static Set<Integer> ids(RoaringBitmap bitmap) {
+		return Set.of(Arrays.stream(bitmap.toArray()).boxed().toArray(Integer[]::new));
+	}
+}